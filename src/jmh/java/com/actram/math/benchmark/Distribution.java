@@ -0,0 +1,44 @@
+package com.actram.math.benchmark;
+
+import java.util.Random;
+
+/**
+ * Distributions of benchmark inputs.
+ *
+ * @author Peter André Johansen
+ */
+public enum Distribution {
+
+	/** Values with a magnitude of at most 64. */
+	SMALL(64),
+
+	/** Values with a magnitude of at most 2^15, so products still fit an int. */
+	MEDIUM(1 << 15),
+
+	/** Values close to {@link Integer#MAX_VALUE}. */
+	LARGE(Integer.MAX_VALUE);
+
+	private final int bound;
+
+	private Distribution(int bound) {
+		this.bound = bound;
+	}
+
+	/**
+	 * @return a random positive value from this distribution
+	 */
+	public int nextPositive(Random random) {
+		if (this == LARGE) {
+			return bound - random.nextInt(1 << 16);
+		}
+		return random.nextInt(bound) + 1;
+	}
+
+	/**
+	 * @return a random value from this distribution with a random sign
+	 */
+	public int nextSigned(Random random) {
+		int value = nextPositive(random);
+		return (random.nextBoolean() ? value : -value);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.actram.math.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.actram.math.LongRange;
+import com.actram.math.LongRangeAllocator;
+
+/**
+ * Benchmarks for {@link LongRangeAllocator} with all threads allocating at
+ * once, compared with a counter behind a lock.
+ *
+ * @author Peter André Johansen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class LongRangeAllocatorBenchmark {
+	private final LongRangeAllocator allocator = new LongRangeAllocator(new LongRange(0L, Long.MAX_VALUE));
+	private long counter;
+
+	@Benchmark
+	public LongRange allocate() {
+		return allocator.allocate(16);
+	}
+
+	@Benchmark
+	public void allocateAndRelease() {
+		allocator.release(allocator.allocate(16));
+	}
+
+	@Benchmark
+	public long next() {
+		return allocator.next();
+	}
+
+	@Benchmark
+	public synchronized long synchronizedNext() {
+		return counter++;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.actram.math.benchmark;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.actram.math.MathUtil;
+
+/**
+ * Benchmarks for {@link MathUtil}.
+ *
+ * @author Peter André Johansen
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathUtilBenchmark {
+	@Param({ "SMALL", "MEDIUM", "LARGE" }) public Distribution distribution;
+
+	/** The number of operands. Must be a power of two. */
+	@Param({ "16", "65536" }) public int size;
+
+	/** The bit length of the big integer operands. */
+	@Param({ "256", "4096" }) public int bits;
+
+	private int[] a;
+	private int[] b;
+	private int[] out;
+	private long[] longA;
+	private long[] longB;
+	private BigInteger[] bigA;
+	private BigInteger[] bigB;
+	private int index;
+
+	@Benchmark
+	public int binaryGcd() {
+		int i = next();
+		return MathUtil.binaryGcd(a[i], b[i]);
+	}
+
+	@Benchmark
+	public int[] batchGcd() {
+		MathUtil.gcd(a, b, out);
+		return out;
+	}
+
+	@Benchmark
+	public BigInteger bigIntegerGcd() {
+		int i = next();
+		return bigA[i].gcd(bigB[i]);
+	}
+
+	@Benchmark
+	public int gcd() {
+		int i = next();
+		return MathUtil.gcd(a[i], b[i]);
+	}
+
+	@Benchmark
+	public BigInteger lehmerGcd() {
+		int i = next();
+		return MathUtil.gcd(bigA[i], bigB[i]);
+	}
+
+	@Benchmark
+	public long longBinaryGcd() {
+		int i = next();
+		return MathUtil.binaryGcd(longA[i], longB[i]);
+	}
+
+	@Benchmark
+	public long longGcd() {
+		int i = next();
+		return MathUtil.gcd(longA[i], longB[i]);
+	}
+
+	private int next() {
+		return (index = (index + 1) & (size - 1));
+	}
+
+	@Setup
+	public void setup() {
+		Random random = new Random(size);
+		a = new int[size];
+		b = new int[size];
+		out = new int[size];
+		longA = new long[size];
+		longB = new long[size];
+		bigA = new BigInteger[size];
+		bigB = new BigInteger[size];
+		for (int i = 0; i < size; i++) {
+			a[i] = distribution.nextSigned(random);
+			b[i] = distribution.nextPositive(random);
+			longA[i] = (long) a[i] * distribution.nextPositive(random);
+			longB[i] = (long) b[i] * distribution.nextPositive(random);
+			bigA[i] = new BigInteger(bits, random);
+			bigB[i] = new BigInteger(bits, random);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.actram.math.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.actram.math.AbstractCountableRange;
+import com.actram.math.DoubleRange;
+import com.actram.math.IntegerRange;
+import com.actram.math.IntegerRangeBuilder;
+import com.actram.math.LongRange;
+import com.actram.math.PrimitiveIntegerRange;
+import com.actram.math.Rational;
+import com.actram.math.RationalRange;
+
+/**
+ * Benchmarks for chained {@link AbstractCountableRange} operations.
+ * <p>
+ * Each chain extends, trims and shifts a range by small amounts. The range
+ * boundaries are drawn from the given distribution, except for the rational
+ * ranges which always use small values to keep the arithmetic exact.
+ *
+ * @author Peter André Johansen
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeBenchmark {
+	@Param({ "SMALL", "LARGE" }) public Distribution distribution;
+
+	/** The number of ranges. Must be a power of two. */
+	@Param({ "16", "65536" }) public int size;
+
+	private IntegerRange[] integerRanges;
+	private LongRange[] longRanges;
+	private DoubleRange[] doubleRanges;
+	private RationalRange[] rationalRanges;
+	private PrimitiveIntegerRange[] primitiveRanges;
+	private IntegerRangeBuilder builder = new IntegerRangeBuilder();
+	private int[] amounts;
+	private Rational[] rationalAmounts;
+	private int index;
+
+	@Benchmark
+	public IntegerRange integerChain() {
+		int i = next();
+		int amount = amounts[i];
+		return integerRanges[i].extend(amount).trim(amount / 2).shift(-amount);
+	}
+
+	@Benchmark
+	public IntegerRange integerBuilderChain() {
+		int i = next();
+		int amount = amounts[i];
+		return builder.set(primitiveRanges[i].getFrom(), primitiveRanges[i].getTo()).extend(amount).trim(amount / 2).shift(-amount).build();
+	}
+
+	@Benchmark
+	public boolean integerContains() {
+		int i = next();
+		return integerRanges[i].contains(amounts[i]);
+	}
+
+	@Benchmark
+	public DoubleRange doubleChain() {
+		int i = next();
+		double amount = amounts[i];
+		return doubleRanges[i].extend(amount).trim(amount / 2).shift(-amount);
+	}
+
+	@Benchmark
+	public LongRange longChain() {
+		int i = next();
+		long amount = amounts[i];
+		return longRanges[i].extend(amount).trim(amount / 2).shift(-amount);
+	}
+
+	private int next() {
+		return (index = (index + 1) & (size - 1));
+	}
+
+	@Benchmark
+	public PrimitiveIntegerRange primitiveIntegerChain() {
+		int i = next();
+		int amount = amounts[i];
+		return primitiveRanges[i].extend(amount).trim(amount / 2).shift(-amount);
+	}
+
+	@Benchmark
+	public boolean primitiveIntegerContains() {
+		int i = next();
+		return primitiveRanges[i].contains(amounts[i]);
+	}
+
+	@Benchmark
+	public RationalRange rationalChain() {
+		int i = next();
+		Rational amount = rationalAmounts[i];
+		return rationalRanges[i].extend(amount).trim(amount.divide(2)).shift(amount.negate());
+	}
+
+	@Setup
+	public void setup() {
+		Random random = new Random(size);
+		integerRanges = new IntegerRange[size];
+		longRanges = new LongRange[size];
+		doubleRanges = new DoubleRange[size];
+		rationalRanges = new RationalRange[size];
+		primitiveRanges = new PrimitiveIntegerRange[size];
+		amounts = new int[size];
+		rationalAmounts = new Rational[size];
+		for (int i = 0; i < size; i++) {
+			int from = -distribution.nextPositive(random) / 2;
+			int to = distribution.nextPositive(random) / 2;
+			integerRanges[i] = new IntegerRange(from, to);
+			longRanges[i] = new LongRange(from, to);
+			doubleRanges[i] = new DoubleRange(from, to);
+			primitiveRanges[i] = new PrimitiveIntegerRange(from, to);
+			amounts[i] = Distribution.SMALL.nextPositive(random);
+
+			int q = Distribution.SMALL.nextPositive(random);
+			rationalRanges[i] = new RationalRange(-Distribution.SMALL.nextPositive(random), q, Distribution.SMALL.nextPositive(random), q);
+			rationalAmounts[i] = new Rational(Distribution.SMALL.nextPositive(random), Distribution.SMALL.nextPositive(random));
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.actram.math.benchmark;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.actram.math.RangeMap;
+
+/**
+ * Benchmarks for {@link RangeMap} lookups, compared with a {@link TreeMap}
+ * keyed by the minimums of the ranges.
+ *
+ * @author Peter André Johansen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeMapBenchmark {
+	/** The number of keys looked up. Must be a power of two. */
+	private static final int KEYS = 1 << 12;
+
+	@Param({ "64", "65536", "1048576" }) public int size;
+
+	private RangeMap<Integer> rangeMap;
+	private TreeMap<Long, long[]> treeMap;
+	private long[] keys;
+	private int index;
+
+	@Benchmark
+	public Integer get() {
+		return rangeMap.get(next());
+	}
+
+	private long next() {
+		return keys[index = (index + 1) & (KEYS - 1)];
+	}
+
+	@Setup
+	public void setup() {
+		Random random = new Random(size);
+		RangeMap.Builder<Integer> builder = new RangeMap.Builder<>();
+		treeMap = new TreeMap<>();
+		long from = 0;
+		for (int i = 0; i < size; i++) {
+			long to = from + random.nextInt(100);
+			builder.put(from, to, i);
+			treeMap.put(from, new long[] { to, i });
+			from = to + 1 + random.nextInt(10);
+		}
+		rangeMap = builder.build();
+
+		keys = new long[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			keys[i] = (long) (random.nextDouble() * from);
+		}
+	}
+
+	@Benchmark
+	public long treeMapGet() {
+		long key = next();
+		Map.Entry<Long, long[]> entry = treeMap.floorEntry(key);
+		return (entry != null && key <= entry.getValue()[0] ? entry.getValue()[1] : -1);
+	}
+}
\ No newline at end of file
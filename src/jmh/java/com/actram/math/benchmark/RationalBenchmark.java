@@ -0,0 +1,182 @@
+package com.actram.math.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.actram.math.BigRational;
+import com.actram.math.PackedRational;
+import com.actram.math.Rational;
+import com.actram.math.RationalAccumulator;
+
+/**
+ * Benchmarks for the arithmetic of {@link Rational}, {@link BigRational} and
+ * {@link PackedRational}.
+ * <p>
+ * The operands are drawn from the given distribution so that every result is
+ * representable: added operands share a denominator and the right operand of
+ * a multiplication cancels the denominator of the left one.
+ *
+ * @author Peter André Johansen
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RationalBenchmark {
+	@Param({ "SMALL", "MEDIUM", "LARGE" }) public Distribution distribution;
+
+	/** The number of operands. Must be a power of two. */
+	@Param({ "16", "65536" }) public int size;
+
+	private Rational[] left;
+	private Rational[] right;
+	private Rational[] factors;
+	private BigRational[] bigLeft;
+	private BigRational[] bigRight;
+	private BigRational[] bigFactors;
+	private double[] doubles;
+	private long[] packedLeft;
+	private long[] packedRight;
+	private long[] packedFactors;
+	private RationalAccumulator accumulator;
+	private int index;
+
+	/**
+	 * Adds the next left operand to a running sum, which starts over once all
+	 * operands have been added.
+	 */
+	@Benchmark
+	public RationalAccumulator accumulate() {
+		int i = next();
+		if (i == 0) {
+			accumulator.reset();
+		}
+		return accumulator.add(left[i]);
+	}
+
+	@Benchmark
+	public Rational add() {
+		int i = next();
+		return left[i].add(right[i]);
+	}
+
+	@Benchmark
+	public long approximate() {
+		return PackedRational.approximate(doubles[next()], Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public BigRational bigAdd() {
+		int i = next();
+		return bigLeft[i].add(bigRight[i]);
+	}
+
+	@Benchmark
+	public int bigCompareTo() {
+		int i = next();
+		return bigLeft[i].compareTo(bigRight[i]);
+	}
+
+	@Benchmark
+	public BigRational bigMultiply() {
+		int i = next();
+		return bigLeft[i].multiply(bigFactors[i]);
+	}
+
+	@Benchmark
+	public int compareTo() {
+		int i = next();
+		return left[i].compareTo(right[i]);
+	}
+
+	@Benchmark
+	public Rational construct() {
+		int i = next();
+		return new Rational(left[i].getNumerator(), right[i].getDenominator());
+	}
+
+	@Benchmark
+	public Rational multiply() {
+		int i = next();
+		return left[i].multiply(factors[i]);
+	}
+
+	@Benchmark
+	public long packedAdd() {
+		int i = next();
+		return PackedRational.add(packedLeft[i], packedRight[i]);
+	}
+
+	@Benchmark
+	public int packedCompare() {
+		int i = next();
+		return PackedRational.compare(packedLeft[i], packedRight[i]);
+	}
+
+	@Benchmark
+	public long packedMultiply() {
+		int i = next();
+		return PackedRational.multiply(packedLeft[i], packedFactors[i]);
+	}
+
+	private int next() {
+		return (index = (index + 1) & (size - 1));
+	}
+
+	@Setup
+	public void setup() {
+		Random random = new Random(size);
+		left = new Rational[size];
+		right = new Rational[size];
+		factors = new Rational[size];
+		bigLeft = new BigRational[size];
+		bigRight = new BigRational[size];
+		bigFactors = new BigRational[size];
+		doubles = new double[size];
+		packedLeft = new long[size];
+		packedRight = new long[size];
+		packedFactors = new long[size];
+		accumulator = new RationalAccumulator();
+		for (int i = 0; i < size; i++) {
+			int q = distribution.nextPositive(random);
+			int p1 = distribution.nextSigned(random) / 2;
+			int p2 = distribution.nextSigned(random) / 2;
+			left[i] = new Rational(p1, q);
+			right[i] = new Rational(p2, q);
+			factors[i] = new Rational(left[i].getDenominator(), distribution.nextPositive(random));
+			bigLeft[i] = BigRational.valueOf(left[i]);
+			bigRight[i] = BigRational.valueOf(right[i]);
+			bigFactors[i] = BigRational.valueOf(factors[i]);
+			doubles[i] = left[i].toDouble();
+			packedLeft[i] = PackedRational.pack(left[i]);
+			packedRight[i] = PackedRational.pack(right[i]);
+			packedFactors[i] = PackedRational.pack(factors[i]);
+		}
+	}
+
+	@Benchmark
+	public Rational subtract() {
+		int i = next();
+		return left[i].subtract(right[i]);
+	}
+
+	@Benchmark
+	public Rational valueOf() {
+		int i = next();
+		return Rational.valueOf(left[i].getNumerator(), right[i].getDenominator());
+	}
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.actram.math;
 
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Abstract class for immutable ranges with a countable type (e.g. numbers). All
@@ -94,7 +95,7 @@ public abstract class AbstractCountableRange<T extends Comparable<T>> extends Ab
 	 * @return a random value from the range (inclusively)
 	 */
 	public T randomValue() {
-		return this.randomValue(new Random());
+		return this.randomValue(ThreadLocalRandom.current());
 	}
 
 	/**
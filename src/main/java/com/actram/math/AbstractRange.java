@@ -31,6 +31,16 @@ public abstract class AbstractRange<T extends Comparable<T>> {
 		this.to = to;
 	}
 
+	/**
+	 * Appends this range, in the format of {@link #toString()}, to the given
+	 * builder.
+	 *
+	 * @return the builder
+	 */
+	public StringBuilder appendTo(StringBuilder builder) {
+		return builder.append(getClass().getSimpleName()).append('[').append(from).append(", ").append(to).append(']');
+	}
+
 	/**
 	 * Performs a downcast on the given range to the desired type of range.
 	 * Extracted to a method to reduce {@code @SuppressWarnings("unchecked")}
@@ -207,6 +217,6 @@ public abstract class AbstractRange<T extends Comparable<T>> {
 
 	@Override
 	public String toString() {
-		return String.format("%s[%s, %s]", getClass().getSimpleName(), from, to);
+		return this.appendTo(new StringBuilder()).toString();
 	}
 }
\ No newline at end of file
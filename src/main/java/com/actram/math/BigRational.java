@@ -0,0 +1,367 @@
+package com.actram.math;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * Immutable arbitrary-precision rational number with chainable methods.
+ * <p>
+ * Expressed as: {@code a/b, b!= 0}
+ * <p>
+ * Fractions whose reduced numerator and denominator fit in a {@code long} are
+ * stored and computed as {@code long}s. An operation is only repeated with
+ * {@link BigInteger}s when the {@code long} arithmetic overflows, so results
+ * are always exact while small values avoid allocating big integers.
+ *
+ * @author Peter André Johansen
+ */
+public class BigRational implements Comparable<BigRational> {
+	public static final BigRational NEGATIVE_ONE = new BigRational(-1, 1);
+	public static final BigRational ZERO = new BigRational(0, 1);
+	public static final BigRational ONE = new BigRational(1, 1);
+
+	/**
+	 * Adds two reduced {@code long} fractions without reducing the result
+	 * afterwards (Knuth, TAOCP 4.5.1).
+	 *
+	 * @throws ArithmeticException if the arithmetic overflows
+	 */
+	private static BigRational add(long p1, long q1, long p2, long q2) {
+		long d1 = MathUtil.binaryGcd(q1, q2);
+		if (d1 == 1) {
+			return new BigRational(Math.addExact(Math.multiplyExact(p1, q2), Math.multiplyExact(p2, q1)), Math.multiplyExact(q1, q2));
+		}
+
+		long t = Math.addExact(Math.multiplyExact(p1, q2 / d1), Math.multiplyExact(p2, q1 / d1));
+		if (t == 0) {
+			return ZERO;
+		}
+		long d2 = MathUtil.binaryGcd(t, d1);
+		return new BigRational(t / d2, Math.multiplyExact(q1 / d1, q2 / d2));
+	}
+
+	/**
+	 * @return the given reduced fraction, stored as {@code long}s if possible
+	 */
+	private static BigRational fromReduced(BigInteger p, BigInteger q) {
+		if (p.bitLength() < Long.SIZE && q.bitLength() < Long.SIZE) {
+			return new BigRational(p.longValue(), q.longValue());
+		}
+		return new BigRational(p, q);
+	}
+
+	/**
+	 * Multiplies two reduced {@code long} fractions by cancelling common
+	 * factors first, so the result is already reduced.
+	 *
+	 * @throws ArithmeticException if the arithmetic overflows
+	 */
+	private static BigRational multiply(long p1, long q1, long p2, long q2) {
+		if (p1 == 0 || p2 == 0) {
+			return ZERO;
+		}
+		long g1 = MathUtil.binaryGcd(p1, q2);
+		long g2 = MathUtil.binaryGcd(p2, q1);
+		return new BigRational(Math.multiplyExact(p1 / g1, p2 / g2), Math.multiplyExact(q1 / g2, q2 / g1));
+	}
+
+	public static BigRational valueOf(BigInteger p, BigInteger q) {
+		Objects.requireNonNull(p, "numerator cannot be null");
+		Objects.requireNonNull(q, "denominator cannot be null");
+		if (q.signum() == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+
+		// Store the sign in the numerator
+		if (q.signum() < 0) {
+			p = p.negate();
+			q = q.negate();
+		}
+
+		// Reduce the fraction as much as possible
+		BigInteger gcd = MathUtil.gcd(p, q);
+		if (!gcd.equals(BigInteger.ONE)) {
+			p = p.divide(gcd);
+			q = q.divide(gcd);
+		}
+		return fromReduced(p, q);
+	}
+
+	public static BigRational valueOf(long p) {
+		return new BigRational(p, 1);
+	}
+
+	public static BigRational valueOf(long p, long q) {
+		if (q == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+
+		// Store the sign in the numerator
+		if (q < 0) {
+			if (p == Long.MIN_VALUE || q == Long.MIN_VALUE) {
+				return valueOf(BigInteger.valueOf(p), BigInteger.valueOf(q));
+			}
+			p = -p;
+			q = -q;
+		}
+
+		// Reduce the fraction as much as possible
+		long gcd = MathUtil.binaryGcd(p, q);
+		return new BigRational(p / gcd, q / gcd);
+	}
+
+	public static BigRational valueOf(Rational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		return new BigRational(r.signedNumerator(), r.getDenominator());
+	}
+
+	/** The numerator if the fraction fits in {@code long}s. Contains the sign. */
+	private final long p;
+
+	/** The denominator if the fraction fits in {@code long}s. Always positive. */
+	private final long q;
+
+	/** The numerator, or {@code null} if the fraction fits in {@code long}s. */
+	private final BigInteger bigP;
+
+	/** The denominator, or {@code null} if the fraction fits in {@code long}s. */
+	private final BigInteger bigQ;
+
+	private BigRational(BigInteger p, BigInteger q) {
+		this.p = 0;
+		this.q = 0;
+		this.bigP = p;
+		this.bigQ = q;
+	}
+
+	private BigRational(long p, long q) {
+		this.p = p;
+		this.q = q;
+		this.bigP = null;
+		this.bigQ = null;
+	}
+
+	public BigRational absolute() {
+		return (isNegative() ? negate() : this);
+	}
+
+	public BigRational add(BigRational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		if (bigP == null && r.bigP == null) {
+			try {
+				return add(p, q, r.p, r.q);
+			} catch (ArithmeticException e) {
+				// Overflow, fall back to arbitrary precision
+			}
+		}
+		return valueOf(numerator().multiply(r.denominator()).add(r.numerator().multiply(denominator())), denominator().multiply(r.denominator()));
+	}
+
+	public BigRational add(long n) {
+		return this.add(valueOf(n));
+	}
+
+	@Override
+	public int compareTo(BigRational r) {
+		int sign = Integer.compare(signum(), r.signum());
+		if (sign != 0) {
+			return sign;
+		}
+		if (bigP == null && r.bigP == null) {
+			if (q == r.q) {
+				return Long.compare(p, r.p);
+			}
+			try {
+				return Long.compare(Math.multiplyExact(p, r.q), Math.multiplyExact(r.p, q));
+			} catch (ArithmeticException e) {
+				// Overflow, fall back to arbitrary precision
+			}
+		}
+		return numerator().multiply(r.denominator()).compareTo(r.numerator().multiply(denominator()));
+	}
+
+	/**
+	 * @return the denominator as a big integer
+	 */
+	private BigInteger denominator() {
+		return (bigQ != null ? bigQ : BigInteger.valueOf(q));
+	}
+
+	public BigRational divide(BigRational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		if (r.signum() == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+		if (bigP == null && r.bigP == null) {
+			try {
+				return r.p < 0 ? multiply(p, q, -r.q, Math.negateExact(r.p)) : multiply(p, q, r.q, r.p);
+			} catch (ArithmeticException e) {
+				// Overflow, fall back to arbitrary precision
+			}
+		}
+		return valueOf(numerator().multiply(r.denominator()), denominator().multiply(r.numerator()));
+	}
+
+	public BigRational divide(long n) {
+		return this.divide(valueOf(n));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		BigRational other = (BigRational) obj;
+		if (p != other.p) return false;
+		if (q != other.q) return false;
+		if (!Objects.equals(bigP, other.bigP)) return false;
+		if (!Objects.equals(bigQ, other.bigQ)) return false;
+		return true;
+	}
+
+	public BigInteger getDenominator() {
+		return denominator();
+	}
+
+	public BigInteger getNumerator() {
+		return numerator().abs();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(p);
+		result = prime * result + Long.hashCode(q);
+		result = prime * result + Objects.hashCode(bigP);
+		result = prime * result + Objects.hashCode(bigQ);
+		return result;
+	}
+
+	public BigRational inverse() {
+		if (signum() == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+		if (bigP == null && p != Long.MIN_VALUE) {
+			return (p < 0 ? new BigRational(-q, -p) : new BigRational(q, p));
+		}
+		return valueOf(denominator(), numerator());
+	}
+
+	public boolean isNegative() {
+		return (signum() < 0);
+	}
+
+	/**
+	 * @return whether the numerator and denominator fit in {@code long}s, as
+	 *         returned by {@link #longNumerator()} and
+	 *         {@link #longDenominator()}
+	 */
+	boolean isLong() {
+		return (bigP == null);
+	}
+
+	/**
+	 * @return the denominator, if it fits in a {@code long}
+	 */
+	long longDenominator() {
+		return q;
+	}
+
+	/**
+	 * @return the numerator, including the sign, if it fits in a {@code long}
+	 */
+	long longNumerator() {
+		return p;
+	}
+
+	public BigRational multiply(BigRational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		if (bigP == null && r.bigP == null) {
+			try {
+				return multiply(p, q, r.p, r.q);
+			} catch (ArithmeticException e) {
+				// Overflow, fall back to arbitrary precision
+			}
+		}
+		return valueOf(numerator().multiply(r.numerator()), denominator().multiply(r.denominator()));
+	}
+
+	public BigRational multiply(long n) {
+		return this.multiply(valueOf(n));
+	}
+
+	public BigRational negate() {
+		if (bigP == null && p != Long.MIN_VALUE) {
+			return new BigRational(-p, q);
+		}
+		return fromReduced(numerator().negate(), denominator());
+	}
+
+	/**
+	 * @return the numerator as a big integer, including the sign
+	 */
+	private BigInteger numerator() {
+		return (bigP != null ? bigP : BigInteger.valueOf(p));
+	}
+
+	public int signum() {
+		return (bigP != null ? bigP.signum() : Long.signum(p));
+	}
+
+	public BigRational subtract(BigRational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		if (bigP == null && r.bigP == null) {
+			try {
+				return add(p, q, Math.negateExact(r.p), r.q);
+			} catch (ArithmeticException e) {
+				// Overflow, fall back to arbitrary precision
+			}
+		}
+		return valueOf(numerator().multiply(r.denominator()).subtract(r.numerator().multiply(denominator())), denominator().multiply(r.denominator()));
+	}
+
+	public BigRational subtract(long n) {
+		return this.subtract(valueOf(n));
+	}
+
+	/**
+	 * @return this rational rounded according to the given context
+	 */
+	public BigDecimal toBigDecimal(MathContext mc) {
+		Objects.requireNonNull(mc, "math context cannot be null");
+		return new BigDecimal(numerator()).divide(new BigDecimal(denominator()), mc);
+	}
+
+	public double toDouble() {
+		final long exact = (1L << 53);
+		if (bigP == null && -exact <= p && p <= exact && q <= exact) {
+
+			// Both values are exact doubles, so the
+			// quotient is correctly rounded
+			return (((double) p) / q);
+		}
+		return toBigDecimal(MathContext.DECIMAL128).doubleValue();
+	}
+
+	/**
+	 * @return this value as a {@link Rational}
+	 * @throws ArithmeticException if the numerator or denominator does not fit
+	 *             in an {@code int}
+	 */
+	public Rational toRational() {
+		if (bigP != null || (int) p != p || (int) q != q) {
+			throw new ArithmeticException(this + " does not fit in a Rational");
+		}
+		return new Rational((int) p, (int) q);
+	}
+
+	public String toString() {
+		if (bigP != null) {
+			return getClass().getSimpleName() + "[" + bigP + "/" + bigQ + "]";
+		}
+		return getClass().getSimpleName() + "[" + p + "/" + q + "]";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,389 @@
+package com.actram.math;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Static methods for writing rationals and ranges to, and reading them from,
+ * {@link ByteBuffer}s in a compact binary format.
+ * <p>
+ * Integers are written as varints: seven bits per byte, least significant
+ * group first, with the high bit set on every byte but the last. Signed
+ * integers are zig-zag encoded first ({@code 0, -1, 1, -2, ...} become
+ * {@code 0, 1, 2, 3, ...}), so that values of small magnitude take few bytes.
+ * <ul>
+ * <li>A rational is its signed numerator followed by its denominator.</li>
+ * <li>An integer or long range is its minimum followed by its distance, which
+ * is never negative.</li>
+ * <li>A double range is its minimum and maximum as eight bytes each.</li>
+ * <li>An array is its length followed by its elements. In arrays of integer
+ * and long ranges, each minimum is written as the difference from the
+ * previous one, so that sorted ranges take few bytes.</li>
+ * </ul>
+ * The {@code put} methods throw a {@link BufferOverflowException} and the
+ * {@code get} methods a {@link BufferUnderflowException} if the buffer runs
+ * out. See {@link BinaryWriter} and {@link BinaryReader} for streaming over
+ * channels.
+ *
+ * @author Peter André Johansen
+ */
+public class BinaryCodec {
+	/** The largest number of bytes of a varint. */
+	public static final int MAX_VARINT_BYTES = 10;
+
+	/** The largest number of bytes of a rational. */
+	static final int MAX_RATIONAL_BYTES = 10;
+
+	/** The largest number of bytes of a range. */
+	static final int MAX_RANGE_BYTES = 2 * MAX_VARINT_BYTES;
+
+	/** The number of bytes of a double range. */
+	static final int DOUBLE_RANGE_BYTES = 2 * Double.BYTES;
+
+	/**
+	 * The smallest number of bytes of a rational or an integer or long range:
+	 * two varints of one byte.
+	 */
+	static final int MIN_ELEMENT_BYTES = 2;
+
+	/**
+	 * @return the double range at the position of the buffer
+	 */
+	public static DoubleRange getDoubleRange(ByteBuffer buffer) {
+		return new DoubleRange(buffer.getDouble(), buffer.getDouble());
+	}
+
+	/**
+	 * @return the array of double ranges at the position of the buffer
+	 */
+	public static DoubleRange[] getDoubleRanges(ByteBuffer buffer) {
+		DoubleRange[] ranges = new DoubleRange[getLength(buffer, DOUBLE_RANGE_BYTES)];
+		for (int i = 0; i < ranges.length; i++) {
+			ranges[i] = getDoubleRange(buffer);
+		}
+		return ranges;
+	}
+
+	/**
+	 * @return the integer range with its minimum written as the difference
+	 *         from the given previous minimum
+	 */
+	static IntegerRange getIntegerDelta(ByteBuffer buffer, int previousFrom) {
+		long from = previousFrom + getVarLong(buffer);
+		return new IntegerRange(toInt(from), toInt(toTo(from, getUnsignedVarLong(buffer))));
+	}
+
+	/**
+	 * @return the integer range at the position of the buffer
+	 * @throws IllegalArgumentException if the data is not an integer range
+	 */
+	public static IntegerRange getIntegerRange(ByteBuffer buffer) {
+		int from = getVarInt(buffer);
+		return new IntegerRange(from, toInt(toTo(from, getUnsignedVarLong(buffer))));
+	}
+
+	/**
+	 * @return the array of integer ranges at the position of the buffer
+	 * @throws IllegalArgumentException if the data is not an array of integer
+	 *             ranges
+	 */
+	public static IntegerRange[] getIntegerRanges(ByteBuffer buffer) {
+		IntegerRange[] ranges = new IntegerRange[getLength(buffer, MIN_ELEMENT_BYTES)];
+		int previous = 0;
+		for (int i = 0; i < ranges.length; i++) {
+			ranges[i] = getIntegerDelta(buffer, previous);
+			previous = ranges[i].getFrom();
+		}
+		return ranges;
+	}
+
+	/**
+	 * @return the length of an array
+	 * @throws IllegalArgumentException if the length is negative or does not
+	 *             fit in an {@code int}
+	 */
+	static int getLength(ByteBuffer buffer) {
+		long length = getUnsignedVarLong(buffer);
+		if (length < 0 || length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("invalid array length: " + Long.toUnsignedString(length));
+		}
+		return (int) length;
+	}
+
+	/**
+	 * Reads the length of an array whose elements are all in the buffer, so
+	 * that a corrupt length fails before an array of that length is created.
+	 *
+	 * @return the length of an array
+	 * @throws BufferUnderflowException if the remaining bytes are too few for
+	 *             the given number of elements of the given smallest size
+	 */
+	static int getLength(ByteBuffer buffer, int minElementBytes) {
+		int length = getLength(buffer);
+		if (length > buffer.remaining() / minElementBytes) {
+			throw new BufferUnderflowException();
+		}
+		return length;
+	}
+
+	/**
+	 * @return the long range with its minimum written as the difference from
+	 *         the given previous minimum
+	 */
+	static LongRange getLongDelta(ByteBuffer buffer, long previousFrom) {
+		long from = previousFrom + getVarLong(buffer);
+		return new LongRange(from, toTo(from, getUnsignedVarLong(buffer)));
+	}
+
+	/**
+	 * @return the long range at the position of the buffer
+	 * @throws IllegalArgumentException if the data is not a long range
+	 */
+	public static LongRange getLongRange(ByteBuffer buffer) {
+		long from = getVarLong(buffer);
+		return new LongRange(from, toTo(from, getUnsignedVarLong(buffer)));
+	}
+
+	/**
+	 * @return the array of long ranges at the position of the buffer
+	 * @throws IllegalArgumentException if the data is not an array of long
+	 *             ranges
+	 */
+	public static LongRange[] getLongRanges(ByteBuffer buffer) {
+		LongRange[] ranges = new LongRange[getLength(buffer, MIN_ELEMENT_BYTES)];
+		long previous = 0;
+		for (int i = 0; i < ranges.length; i++) {
+			ranges[i] = getLongDelta(buffer, previous);
+			previous = ranges[i].getFrom();
+		}
+		return ranges;
+	}
+
+	/**
+	 * @return the rational at the position of the buffer
+	 * @throws IllegalArgumentException if the data is not a rational
+	 */
+	public static Rational getRational(ByteBuffer buffer) {
+		int p = getVarInt(buffer);
+		return Rational.valueOf(p, toInt(getUnsignedVarLong(buffer)));
+	}
+
+	/**
+	 * @return the array of rationals at the position of the buffer
+	 * @throws IllegalArgumentException if the data is not an array of
+	 *             rationals
+	 */
+	public static RationalArray getRationals(ByteBuffer buffer) {
+		RationalArray rationals = new RationalArray(getLength(buffer, MIN_ELEMENT_BYTES));
+		for (int i = 0; i < rationals.length(); i++) {
+			getRational(buffer, rationals, i);
+		}
+		return rationals;
+	}
+
+	/**
+	 * Reads the rational at the position of the buffer into the given index
+	 * of the array.
+	 */
+	static void getRational(ByteBuffer buffer, RationalArray rationals, int index) {
+		int p = getVarInt(buffer);
+		rationals.set(index, p, toInt(getUnsignedVarLong(buffer)));
+	}
+
+	/**
+	 * @return the varint at the position of the buffer, as an unsigned value
+	 * @throws IllegalArgumentException if the varint is longer than
+	 *             {@link #MAX_VARINT_BYTES}, or its last byte has bits beyond
+	 *             the 64th
+	 */
+	static long getUnsignedVarLong(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < Long.SIZE; shift += 7) {
+			byte b = buffer.get();
+
+			// Only the lowest bit of the tenth byte fits in a long
+			if (shift == 63 && (b & 0x7E) != 0) {
+				throw new IllegalArgumentException("varint does not fit in 64 bits");
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("varint is longer than " + MAX_VARINT_BYTES + " bytes");
+	}
+
+	/**
+	 * @return the zig-zag encoded varint at the position of the buffer
+	 * @throws IllegalArgumentException if the value does not fit in an
+	 *             {@code int}
+	 */
+	public static int getVarInt(ByteBuffer buffer) {
+		return toInt(getVarLong(buffer));
+	}
+
+	/**
+	 * @return the zig-zag encoded varint at the position of the buffer
+	 * @throws IllegalArgumentException if the varint is longer than
+	 *             {@link #MAX_VARINT_BYTES}
+	 */
+	public static long getVarLong(ByteBuffer buffer) {
+		long value = getUnsignedVarLong(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Writes the given range at the position of the buffer.
+	 */
+	public static void put(ByteBuffer buffer, DoubleRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		buffer.putDouble(range.getFrom()).putDouble(range.getTo());
+	}
+
+	/**
+	 * Writes the given range at the position of the buffer.
+	 */
+	public static void put(ByteBuffer buffer, IntegerRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		putRange(buffer, range.getFrom(), range.getTo());
+	}
+
+	/**
+	 * Writes the given range at the position of the buffer.
+	 */
+	public static void put(ByteBuffer buffer, LongRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		putRange(buffer, range.getFrom(), range.getTo());
+	}
+
+	/**
+	 * Writes the given rational at the position of the buffer.
+	 */
+	public static void put(ByteBuffer buffer, Rational rational) {
+		Objects.requireNonNull(rational, "rational cannot be null");
+		putRational(buffer, rational.signedNumerator(), rational.getDenominator());
+	}
+
+	/**
+	 * Writes the given range with its minimum as the difference from the given
+	 * previous minimum.
+	 */
+	static void putDelta(ByteBuffer buffer, long previousFrom, long from, long to) {
+		putVarLong(buffer, from - previousFrom);
+		putUnsignedVarLong(buffer, to - from);
+	}
+
+	static void putRange(ByteBuffer buffer, long from, long to) {
+		putVarLong(buffer, from);
+		putUnsignedVarLong(buffer, to - from);
+	}
+
+	static void putRational(ByteBuffer buffer, int p, int q) {
+		putVarLong(buffer, p);
+		putUnsignedVarLong(buffer, q);
+	}
+
+	/**
+	 * Writes the given array of ranges at the position of the buffer.
+	 */
+	public static void putRanges(ByteBuffer buffer, DoubleRange[] ranges) {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		putUnsignedVarLong(buffer, ranges.length);
+		for (DoubleRange range : ranges) {
+			put(buffer, range);
+		}
+	}
+
+	/**
+	 * Writes the given array of ranges at the position of the buffer. The
+	 * array takes the fewest bytes if it is sorted by the minimums.
+	 */
+	public static void putRanges(ByteBuffer buffer, IntegerRange[] ranges) {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		putUnsignedVarLong(buffer, ranges.length);
+		long previous = 0;
+		for (IntegerRange range : ranges) {
+			Objects.requireNonNull(range, "range cannot be null");
+			putDelta(buffer, previous, range.getFrom(), range.getTo());
+			previous = range.getFrom();
+		}
+	}
+
+	/**
+	 * Writes the given array of ranges at the position of the buffer. The
+	 * array takes the fewest bytes if it is sorted by the minimums.
+	 */
+	public static void putRanges(ByteBuffer buffer, LongRange[] ranges) {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		putUnsignedVarLong(buffer, ranges.length);
+		long previous = 0;
+		for (LongRange range : ranges) {
+			Objects.requireNonNull(range, "range cannot be null");
+			putDelta(buffer, previous, range.getFrom(), range.getTo());
+			previous = range.getFrom();
+		}
+	}
+
+	/**
+	 * Writes the given array of rationals at the position of the buffer.
+	 */
+	public static void putRationals(ByteBuffer buffer, RationalArray rationals) {
+		Objects.requireNonNull(rationals, "rationals cannot be null");
+		putUnsignedVarLong(buffer, rationals.length());
+		for (int i = 0; i < rationals.length(); i++) {
+			putRational(buffer, rationals.signedNumerator(i), rationals.denominator(i));
+		}
+	}
+
+	/**
+	 * Writes the given value as an unsigned varint.
+	 */
+	static void putUnsignedVarLong(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Writes the given value as a zig-zag encoded varint.
+	 */
+	public static void putVarInt(ByteBuffer buffer, int value) {
+		putVarLong(buffer, value);
+	}
+
+	/**
+	 * Writes the given value as a zig-zag encoded varint.
+	 */
+	public static void putVarLong(ByteBuffer buffer, long value) {
+		putUnsignedVarLong(buffer, (value << 1) ^ (value >> 63));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the value does not fit in an
+	 *             {@code int}
+	 */
+	private static int toInt(long value) {
+		if (value != (int) value) {
+			throw new IllegalArgumentException(value + " is out of the int range");
+		}
+		return (int) value;
+	}
+
+	/**
+	 * @return the maximum of a range with the given minimum and distance
+	 * @throws IllegalArgumentException if the maximum overflows
+	 */
+	private static long toTo(long from, long distance) {
+		if (Long.compareUnsigned(distance, Long.MAX_VALUE - from) > 0) {
+			throw new IllegalArgumentException("distance=" + Long.toUnsignedString(distance) + " from minimum=" + from + " is out of the long range");
+		}
+		return from + distance;
+	}
+
+	/** Prevent instantiation. */
+	private BinaryCodec() {}
+}
\ No newline at end of file
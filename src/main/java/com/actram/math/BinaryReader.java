@@ -0,0 +1,286 @@
+package com.actram.math;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Reads rationals and ranges from a channel in the format of
+ * {@link BinaryCodec}.
+ * <p>
+ * The channel is read into one buffer, which is reused and only refilled when
+ * the next element may not fit in the remaining bytes. Apart from the
+ * returned objects, reading an element does not allocate. This class is not
+ * thread-safe.
+ * <p>
+ * The channel must be blocking: a read that returns no bytes fails with an
+ * {@link IOException} instead of being retried.
+ *
+ * @author Peter André Johansen
+ * @see BinaryWriter
+ */
+public class BinaryReader implements Closeable {
+	/** The default size of the buffer, in bytes. */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	/** The largest capacity of an array before its elements are read. */
+	private static final int INITIAL_ARRAY_CAPACITY = 1 << 10;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	/** Whether the end of the channel has been reached. */
+	private boolean ended;
+
+	public BinaryReader(ReadableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the buffer size is less than the
+	 *             size of the largest element, or the channel is in
+	 *             non-blocking mode
+	 */
+	public BinaryReader(ReadableByteChannel channel, int bufferSize) {
+		this.channel = Objects.requireNonNull(channel, "channel cannot be null");
+		if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+			throw new IllegalArgumentException("channel must be blocking");
+		}
+		if (bufferSize < BinaryCodec.MAX_RANGE_BYTES) {
+			throw new IllegalArgumentException("buffer size must be at least " + BinaryCodec.MAX_RANGE_BYTES);
+		}
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		this.buffer.flip();
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Reads from the channel until the buffer has at least the given number
+	 * of bytes, or the channel ends.
+	 *
+	 * @throws IOException if the channel returns no bytes, as only a
+	 *             non-blocking channel does while the buffer has room
+	 */
+	private ByteBuffer ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes && !ended) {
+			buffer.compact();
+			while (buffer.position() < bytes && !ended) {
+				int read = channel.read(buffer);
+				if (read == 0) {
+					buffer.flip();
+					throw new IOException("channel returned no bytes; it must be blocking");
+				}
+				ended = (read < 0);
+			}
+			buffer.flip();
+		}
+		return buffer;
+	}
+
+	/**
+	 * @return whether there are more bytes to read
+	 */
+	public boolean hasRemaining() throws IOException {
+		return ensure(1).hasRemaining();
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the range
+	 */
+	public DoubleRange readDoubleRange() throws IOException {
+		try {
+			return BinaryCodec.getDoubleRange(ensure(BinaryCodec.MAX_RANGE_BYTES));
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the ranges
+	 * @see BinaryCodec#getDoubleRanges(ByteBuffer)
+	 */
+	public DoubleRange[] readDoubleRanges() throws IOException {
+		int length = readLength();
+		DoubleRange[] ranges = new DoubleRange[initialCapacity(length)];
+		for (int i = 0; i < length; i++) {
+			if (i == ranges.length) {
+				ranges = Arrays.copyOf(ranges, grow(i, length));
+			}
+			ranges[i] = readDoubleRange();
+		}
+		return ranges;
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the range
+	 * @throws IllegalArgumentException if the data is not an integer range
+	 */
+	public IntegerRange readIntegerRange() throws IOException {
+		try {
+			return BinaryCodec.getIntegerRange(ensure(BinaryCodec.MAX_RANGE_BYTES));
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the ranges
+	 * @see BinaryCodec#getIntegerRanges(ByteBuffer)
+	 */
+	public IntegerRange[] readIntegerRanges() throws IOException {
+		int length = readLength();
+		IntegerRange[] ranges = new IntegerRange[initialCapacity(length)];
+		int previous = 0;
+		try {
+			for (int i = 0; i < length; i++) {
+				if (i == ranges.length) {
+					ranges = Arrays.copyOf(ranges, grow(i, length));
+				}
+				ranges[i] = BinaryCodec.getIntegerDelta(ensure(BinaryCodec.MAX_RANGE_BYTES), previous);
+				previous = ranges[i].getFrom();
+			}
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+		return ranges;
+	}
+
+	/**
+	 * @return a copy of the given array with the given length
+	 */
+	private static RationalArray copyOf(RationalArray rationals, int length) {
+		RationalArray copy = new RationalArray(length);
+		for (int i = 0; i < rationals.length(); i++) {
+			copy.set(i, rationals.signedNumerator(i), rationals.denominator(i));
+		}
+		return copy;
+	}
+
+	/**
+	 * @return the capacity to grow an array to, which has the given number of
+	 *         elements of the given total
+	 */
+	private static int grow(int size, int length) {
+		return (int) Math.min((long) size * 2, length);
+	}
+
+	/**
+	 * @return the capacity of an array of the given length to start with,
+	 *         which is grown as elements are read, so that a corrupt length
+	 *         does not create a huge array before the channel ends
+	 */
+	private static int initialCapacity(int length) {
+		return Math.min(length, INITIAL_ARRAY_CAPACITY);
+	}
+
+	private int readLength() throws IOException {
+		try {
+			return BinaryCodec.getLength(ensure(BinaryCodec.MAX_VARINT_BYTES));
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the range
+	 * @throws IllegalArgumentException if the data is not a long range
+	 */
+	public LongRange readLongRange() throws IOException {
+		try {
+			return BinaryCodec.getLongRange(ensure(BinaryCodec.MAX_RANGE_BYTES));
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the ranges
+	 * @see BinaryCodec#getLongRanges(ByteBuffer)
+	 */
+	public LongRange[] readLongRanges() throws IOException {
+		int length = readLength();
+		LongRange[] ranges = new LongRange[initialCapacity(length)];
+		long previous = 0;
+		try {
+			for (int i = 0; i < length; i++) {
+				if (i == ranges.length) {
+					ranges = Arrays.copyOf(ranges, grow(i, length));
+				}
+				ranges[i] = BinaryCodec.getLongDelta(ensure(BinaryCodec.MAX_RANGE_BYTES), previous);
+				previous = ranges[i].getFrom();
+			}
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+		return ranges;
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the rational
+	 * @throws IllegalArgumentException if the data is not a rational
+	 */
+	public Rational readRational() throws IOException {
+		try {
+			return BinaryCodec.getRational(ensure(BinaryCodec.MAX_RATIONAL_BYTES));
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * Reads an array of rationals without creating a {@link Rational} for each
+	 * element.
+	 *
+	 * @throws EOFException if the channel ends before the rationals
+	 * @see BinaryCodec#getRationals(ByteBuffer)
+	 */
+	public RationalArray readRationals() throws IOException {
+		int length = readLength();
+		RationalArray rationals = new RationalArray(initialCapacity(length));
+		try {
+			for (int i = 0; i < length; i++) {
+				if (i == rationals.length()) {
+					rationals = copyOf(rationals, grow(i, length));
+				}
+				BinaryCodec.getRational(ensure(BinaryCodec.MAX_RATIONAL_BYTES), rationals, i);
+			}
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+		return rationals;
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the value
+	 * @throws IllegalArgumentException if the value does not fit in an
+	 *             {@code int}
+	 */
+	public int readVarInt() throws IOException {
+		try {
+			return BinaryCodec.getVarInt(ensure(BinaryCodec.MAX_VARINT_BYTES));
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+
+	/**
+	 * @throws EOFException if the channel ends before the value
+	 */
+	public long readVarLong() throws IOException {
+		try {
+			return BinaryCodec.getVarLong(ensure(BinaryCodec.MAX_VARINT_BYTES));
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+	}
+}
\ No newline at end of file
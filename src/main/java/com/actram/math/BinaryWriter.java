@@ -0,0 +1,163 @@
+package com.actram.math;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Writes rationals and ranges to a channel in the format of
+ * {@link BinaryCodec}.
+ * <p>
+ * The values are encoded into one buffer, which is reused and only written to
+ * the channel when it is full, on {@link #flush()} and on {@link #close()}.
+ * Writing an element does not allocate. This class is not thread-safe.
+ *
+ * @author Peter André Johansen
+ * @see BinaryReader
+ */
+public class BinaryWriter implements Closeable, Flushable {
+	/** The default size of the buffer, in bytes. */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	public BinaryWriter(WritableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the buffer size is less than the
+	 *             size of the largest element
+	 */
+	public BinaryWriter(WritableByteChannel channel, int bufferSize) {
+		this.channel = Objects.requireNonNull(channel, "channel cannot be null");
+		if (bufferSize < BinaryCodec.MAX_RANGE_BYTES) {
+			throw new IllegalArgumentException("buffer size must be at least " + BinaryCodec.MAX_RANGE_BYTES);
+		}
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+	}
+
+	/**
+	 * Flushes the buffer and closes the channel.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Makes room in the buffer for the given number of bytes.
+	 */
+	private ByteBuffer ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+		return buffer;
+	}
+
+	/**
+	 * Writes the buffered bytes to the channel.
+	 */
+	@Override
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	public void write(DoubleRange range) throws IOException {
+		BinaryCodec.put(ensure(BinaryCodec.MAX_RANGE_BYTES), range);
+	}
+
+	public void write(IntegerRange range) throws IOException {
+		BinaryCodec.put(ensure(BinaryCodec.MAX_RANGE_BYTES), range);
+	}
+
+	public void write(LongRange range) throws IOException {
+		BinaryCodec.put(ensure(BinaryCodec.MAX_RANGE_BYTES), range);
+	}
+
+	public void write(Rational rational) throws IOException {
+		BinaryCodec.put(ensure(BinaryCodec.MAX_RATIONAL_BYTES), rational);
+	}
+
+	/**
+	 * Writes a long range with the given bounds.
+	 *
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public void writeRange(long from, long to) throws IOException {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		BinaryCodec.putRange(ensure(BinaryCodec.MAX_RANGE_BYTES), from, to);
+	}
+
+	/**
+	 * @see BinaryCodec#putRanges(ByteBuffer, DoubleRange[])
+	 */
+	public void writeRanges(DoubleRange[] ranges) throws IOException {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		BinaryCodec.putUnsignedVarLong(ensure(BinaryCodec.MAX_VARINT_BYTES), ranges.length);
+		for (DoubleRange range : ranges) {
+			write(range);
+		}
+	}
+
+	/**
+	 * @see BinaryCodec#putRanges(ByteBuffer, IntegerRange[])
+	 */
+	public void writeRanges(IntegerRange[] ranges) throws IOException {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		BinaryCodec.putUnsignedVarLong(ensure(BinaryCodec.MAX_VARINT_BYTES), ranges.length);
+		long previous = 0;
+		for (IntegerRange range : ranges) {
+			Objects.requireNonNull(range, "range cannot be null");
+			BinaryCodec.putDelta(ensure(BinaryCodec.MAX_RANGE_BYTES), previous, range.getFrom(), range.getTo());
+			previous = range.getFrom();
+		}
+	}
+
+	/**
+	 * @see BinaryCodec#putRanges(ByteBuffer, LongRange[])
+	 */
+	public void writeRanges(LongRange[] ranges) throws IOException {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		BinaryCodec.putUnsignedVarLong(ensure(BinaryCodec.MAX_VARINT_BYTES), ranges.length);
+		long previous = 0;
+		for (LongRange range : ranges) {
+			Objects.requireNonNull(range, "range cannot be null");
+			BinaryCodec.putDelta(ensure(BinaryCodec.MAX_RANGE_BYTES), previous, range.getFrom(), range.getTo());
+			previous = range.getFrom();
+		}
+	}
+
+	/**
+	 * @see BinaryCodec#putRationals(ByteBuffer, RationalArray)
+	 */
+	public void writeRationals(RationalArray rationals) throws IOException {
+		Objects.requireNonNull(rationals, "rationals cannot be null");
+		BinaryCodec.putUnsignedVarLong(ensure(BinaryCodec.MAX_VARINT_BYTES), rationals.length());
+		for (int i = 0; i < rationals.length(); i++) {
+			BinaryCodec.putRational(ensure(BinaryCodec.MAX_RATIONAL_BYTES), rationals.signedNumerator(i), rationals.denominator(i));
+		}
+	}
+
+	public void writeVarInt(int value) throws IOException {
+		BinaryCodec.putVarInt(ensure(BinaryCodec.MAX_VARINT_BYTES), value);
+	}
+
+	public void writeVarLong(long value) throws IOException {
+		BinaryCodec.putVarLong(ensure(BinaryCodec.MAX_VARINT_BYTES), value);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,407 @@
+package com.actram.math;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe, mutable set of {@code long} values, expressed as sorted
+ * ranges.
+ * <p>
+ * The values are split into stripes: contiguous parts of a domain, where the
+ * first stripe also takes the values before the domain and the last those
+ * after it. The domain must be given, and should be the values that are
+ * written most: values outside of it all fall in the first or last stripe,
+ * where their writes wait for each other.
+ * <p>
+ * Each stripe holds its values in an immutable {@link LongRangeSet}, which
+ * coalesces overlapping and adjacent ranges. A write computes the new sets of
+ * its stripes under their locks, taken in ascending order, so writes to
+ * different stripes do the work of the write in parallel. The sets of all
+ * stripes are kept in an immutable array, and a write publishes its new sets
+ * with a compare-and-set of a copy of the array, which only copies one
+ * reference per stripe. Every write therefore takes effect atomically, even
+ * when it spans several stripes.
+ * <p>
+ * No query locks: each reads the array once, which holds the sets of all
+ * stripes at one point in time. A {@link #snapshot()} joins the stripes,
+ * coalescing the ranges across their bounds, and is cached until the next
+ * write, so repeated snapshots cost nothing while the set does not change.
+ *
+ * @author Peter André Johansen
+ */
+public class ConcurrentLongRangeSet implements Iterable<LongRange> {
+	/**
+	 * The values of this set, joined from the sets of the stripes.
+	 */
+	private static class Snapshot {
+		final LongRangeSet[] sets;
+		final LongRangeSet values;
+
+		Snapshot(LongRangeSet[] sets, LongRangeSet values) {
+			this.sets = sets;
+			this.values = values;
+		}
+	}
+
+	/** The default number of stripes. */
+	public static final int DEFAULT_STRIPES = 16;
+
+	/** The lock of each stripe, which is held while its set is replaced. */
+	private final ReentrantLock[] locks;
+
+	/** The minimums of the stripes, for binary searches. */
+	private final long[] starts;
+
+	/** The maximums of the stripes. */
+	private final long[] ends;
+
+	/** The sets of the stripes, in an array that each write replaces. */
+	private final AtomicReference<LongRangeSet[]> sets;
+
+	/** The last snapshot and the sets it was joined from. */
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Creates an empty set whose writes are striped over the given domain,
+	 * with {@link #DEFAULT_STRIPES} stripes.
+	 */
+	public ConcurrentLongRangeSet(LongRange domain) {
+		this(LongRangeSet.EMPTY, domain, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates an empty set whose writes are striped over the given domain.
+	 *
+	 * @throws IllegalArgumentException if the number of stripes is not
+	 *             positive
+	 */
+	public ConcurrentLongRangeSet(LongRange domain, int stripes) {
+		this(LongRangeSet.EMPTY, domain, stripes);
+	}
+
+	/**
+	 * Creates a set with the values of the given set, whose writes are striped
+	 * over the given domain.
+	 *
+	 * @param domain the values that the stripes split evenly, which should be
+	 *            the values that are written most
+	 * @param stripes the number of stripes, which is reduced to the number of
+	 *            values of the domain if that is smaller
+	 * @throws IllegalArgumentException if the number of stripes is not
+	 *             positive
+	 */
+	public ConcurrentLongRangeSet(LongRangeSet set, LongRange domain, int stripes) {
+		Objects.requireNonNull(set, "set cannot be null");
+		Objects.requireNonNull(domain, "domain cannot be null");
+		if (stripes <= 0) {
+			throw new IllegalArgumentException("stripes must be positive");
+		}
+		LongRange[] parts = domain.split(stripes);
+		this.locks = new ReentrantLock[parts.length];
+		this.starts = new long[parts.length];
+		this.ends = new long[parts.length];
+		LongRangeSet[] sets = new LongRangeSet[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			this.locks[i] = new ReentrantLock();
+			this.starts[i] = (i == 0 ? Long.MIN_VALUE : parts[i].getFrom());
+			this.ends[i] = (i == parts.length - 1 ? Long.MAX_VALUE : parts[i].getTo());
+			sets[i] = set.intersect(LongRangeSet.of(starts[i], ends[i]));
+		}
+		this.sets = new AtomicReference<>(sets);
+		this.snapshot = new Snapshot(sets, set);
+	}
+
+	/**
+	 * Adds the values of the given range.
+	 *
+	 * @return whether any of the values were not in this set
+	 */
+	public boolean add(LongRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return this.write(range.getFrom(), range.getTo(), (set, part) -> (set.contains(part) ? set : set.add(part)));
+	}
+
+	/**
+	 * Adds the values between the given bounds (inclusively).
+	 *
+	 * @return whether any of the values were not in this set
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public boolean add(long from, long to) {
+		return this.add(new LongRange(from, to));
+	}
+
+	/**
+	 * Adds the values of the given set.
+	 *
+	 * @return whether any of the values were not in this set
+	 */
+	public boolean addAll(LongRangeSet values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		if (values.isEmpty()) {
+			return false;
+		}
+		return this.write(values.getFrom(), values.getTo(), (set, part) -> {
+			LongRangeSet result = set.union(values.intersect(LongRangeSet.of(part.getFrom(), part.getTo())));
+			return (result.equals(set) ? set : result);
+		});
+	}
+
+	/**
+	 * Removes all values.
+	 */
+	public void clear() {
+		this.lock(0, locks.length - 1);
+		try {
+			LongRangeSet[] results = new LongRangeSet[locks.length];
+			Arrays.fill(results, LongRangeSet.EMPTY);
+			this.publish(0, results);
+		} finally {
+			this.unlock(0, locks.length - 1);
+		}
+	}
+
+	/**
+	 * @return whether all values of the given range are in this set
+	 */
+	public boolean contains(LongRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		LongRangeSet[] sets = this.sets.get();
+		int last = this.stripeOf(range.getTo());
+		for (int i = this.stripeOf(range.getFrom()); i <= last; i++) {
+			if (!sets[i].contains(this.part(range, i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether the given value is in this set
+	 */
+	public boolean contains(long value) {
+		return sets.get()[this.stripeOf(value)].contains(value);
+	}
+
+	/**
+	 * @return whether this set has no values
+	 */
+	public boolean isEmpty() {
+		for (LongRangeSet set : sets.get()) {
+			if (!set.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return an iterator over the ranges of a snapshot of this set, in
+	 *         ascending order, which is not affected by later changes
+	 */
+	@Override
+	public Iterator<LongRange> iterator() {
+		return this.snapshot().iterator();
+	}
+
+	/**
+	 * Locks the stripes with the given indices (inclusively), in ascending
+	 * order.
+	 */
+	private void lock(int first, int last) {
+		for (int i = first; i <= last; i++) {
+			locks[i].lock();
+		}
+	}
+
+	/**
+	 * @return whether any value of the given range is in this set
+	 */
+	public boolean overlaps(LongRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		LongRangeSet[] sets = this.sets.get();
+		int last = this.stripeOf(range.getTo());
+		for (int i = this.stripeOf(range.getFrom()); i <= last; i++) {
+			if (sets[i].overlaps(this.part(range, i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the part of the given range in the stripe with the given index,
+	 *         which the range must overlap
+	 */
+	private LongRange part(LongRange range, int index) {
+		if (range.getFrom() >= starts[index] && range.getTo() <= ends[index]) {
+			return range;
+		}
+		return new LongRange(Math.max(range.getFrom(), starts[index]), Math.min(range.getTo(), ends[index]));
+	}
+
+	/**
+	 * Replaces the sets of the stripes from the given index on with the given
+	 * sets, which all take effect at once. The locks of the stripes must be
+	 * held, so only the sets of other stripes can change while the array is
+	 * copied.
+	 */
+	private void publish(int first, LongRangeSet[] results) {
+		while (true) {
+			LongRangeSet[] sets = this.sets.get();
+			LongRangeSet[] copy = sets.clone();
+			System.arraycopy(results, 0, copy, first, results.length);
+			if (this.sets.compareAndSet(sets, copy)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes the values of the given range.
+	 *
+	 * @return whether any of the values were in this set
+	 */
+	public boolean remove(LongRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return this.write(range.getFrom(), range.getTo(), (set, part) -> (set.overlaps(part) ? set.remove(part) : set));
+	}
+
+	/**
+	 * Removes the values between the given bounds (inclusively).
+	 *
+	 * @return whether any of the values were in this set
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public boolean remove(long from, long to) {
+		return this.remove(new LongRange(from, to));
+	}
+
+	/**
+	 * Removes the values of the given set.
+	 *
+	 * @return whether any of the values were in this set
+	 */
+	public boolean removeAll(LongRangeSet values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		if (values.isEmpty()) {
+			return false;
+		}
+		return this.write(values.getFrom(), values.getTo(), (set, part) -> {
+			LongRangeSet result = set.subtract(values);
+			return (result.equals(set) ? set : result);
+		});
+	}
+
+	/**
+	 * @return the number of ranges in this set
+	 */
+	public int size() {
+		return this.snapshot().size();
+	}
+
+	/**
+	 * @return the current values, which are not affected by later changes
+	 */
+	public LongRangeSet snapshot() {
+		LongRangeSet[] sets = this.sets.get();
+		Snapshot snapshot = this.snapshot;
+		if (snapshot.sets != sets) {
+			// Racing threads may join the same sets, which is harmless
+			this.snapshot = snapshot = new Snapshot(sets, LongRangeSet.concat(sets));
+		}
+		return snapshot.values;
+	}
+
+	/**
+	 * @return the index of the stripe of the given value
+	 */
+	private int stripeOf(long value) {
+		int index = Arrays.binarySearch(starts, value);
+		return (index >= 0 ? index : -index - 2);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(getClass().getSimpleName()).append('[');
+		for (LongRange range : this.snapshot()) {
+			if (builder.charAt(builder.length() - 1) != '[') {
+				builder.append(", ");
+			}
+			builder.append('[').append(range.getFrom()).append(", ").append(range.getTo()).append(']');
+		}
+		return builder.append(']').toString();
+	}
+
+	/**
+	 * Unlocks the stripes with the given indices (inclusively).
+	 */
+	private void unlock(int first, int last) {
+		for (int i = last; i >= first; i--) {
+			locks[i].unlock();
+		}
+	}
+
+	/**
+	 * Replaces the values with the result of the given function, atomically.
+	 * The function is called under the locks of all stripes, so it should be
+	 * fast and must not change this set.
+	 *
+	 * @return whether the values changed
+	 */
+	public boolean update(UnaryOperator<LongRangeSet> function) {
+		Objects.requireNonNull(function, "function cannot be null");
+		this.lock(0, locks.length - 1);
+		try {
+			LongRangeSet set = this.snapshot();
+			LongRangeSet result = Objects.requireNonNull(function.apply(set), "result cannot be null");
+			if (result.equals(set)) {
+				return false;
+			}
+			LongRangeSet[] results = new LongRangeSet[locks.length];
+			for (int i = 0; i < results.length; i++) {
+				results[i] = result.intersect(LongRangeSet.of(starts[i], ends[i]));
+			}
+			this.publish(0, results);
+			snapshot = new Snapshot(sets.get(), result);
+			return true;
+		} finally {
+			this.unlock(0, locks.length - 1);
+		}
+	}
+
+	/**
+	 * Replaces the set of each stripe that has values between the given
+	 * bounds with the result of the given function, which is passed the set
+	 * and the part of the bounds in the stripe, under the locks of all of
+	 * these stripes.
+	 *
+	 * @return whether any set changed, which the function tells by returning
+	 *         another instance
+	 */
+	private boolean write(long from, long to, BiFunction<LongRangeSet, LongRange, LongRangeSet> function) {
+		int first = this.stripeOf(from);
+		int last = this.stripeOf(to);
+		this.lock(first, last);
+		try {
+			LongRangeSet[] sets = this.sets.get();
+			LongRangeSet[] results = new LongRangeSet[last - first + 1];
+			boolean changed = false;
+			for (int i = first; i <= last; i++) {
+				results[i - first] = function.apply(sets[i], new LongRange(Math.max(from, starts[i]), Math.min(to, ends[i])));
+				changed |= (results[i - first] != sets[i]);
+			}
+			if (changed) {
+				this.publish(first, results);
+			}
+			return changed;
+		} finally {
+			this.unlock(first, last);
+		}
+	}
+}
\ No newline at end of file
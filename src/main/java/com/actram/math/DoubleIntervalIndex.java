@@ -0,0 +1,184 @@
+package com.actram.math;
+
+import java.util.Objects;
+
+/**
+ * Immutable index of possibly overlapping {@code double} ranges, for finding the
+ * ranges that contain a value or overlap another range.
+ * <p>
+ * The ranges are sorted by their minimums and stored in primitive arrays. A
+ * query finds the ranges that start before its end by binary search, and
+ * then finds each of them that ends after its start through a
+ * {@link RangeMaximum} of their maximums, which takes constant time per
+ * result. A query for {@code k} results thus takes {@code O(log n + k)} time,
+ * and passes the results to a {@link Visitor} instead of collecting them.
+ * <p>
+ * The minimums and maximums cannot be NaN, and queries for NaN find nothing.
+ *
+ * @author Peter André Johansen
+ * @see IntervalIndex
+ */
+public class DoubleIntervalIndex {
+
+	/**
+	 * Receives the ranges found by a query.
+	 */
+	@FunctionalInterface
+	public interface Visitor {
+		/**
+		 * @param index the position of the range in the arrays or ranges the
+		 *            index was created from
+		 */
+		void visit(int index, double from, double to);
+	}
+
+	/** The minimums, in ascending order. */
+	private final double[] from;
+
+	/** The maximums, in the same order as the minimums. */
+	private final double[] to;
+
+	/** The largest maximums of the ranges between any two positions. */
+	private final RangeMaximum maxima;
+
+	/** The original position of each range. */
+	private final int[] indices;
+
+	/**
+	 * Creates an index of the ranges with the given minimums and maximums.
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths,
+	 *             a maximum is less than its minimum or either is NaN
+	 */
+	public DoubleIntervalIndex(double[] from, double[] to) {
+		Objects.requireNonNull(from, "minimums cannot be null");
+		Objects.requireNonNull(to, "maximums cannot be null");
+		if (from.length != to.length) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+		for (int i = 0; i < from.length; i++) {
+			if (!(to[i] >= from[i])) {
+				throw new IllegalArgumentException("maximum=" + to[i] + " cannot be less than minimum=" + from[i]);
+			}
+		}
+
+		long[] keys = new long[from.length];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = SortUtil.sortableBits(from[i]);
+		}
+		this.indices = SortUtil.sortedIndices(keys);
+		this.from = new double[from.length];
+		this.to = new double[from.length];
+		for (int i = 0; i < indices.length; i++) {
+			this.from[i] = from[indices[i]];
+			this.to[i] = to[indices[i]];
+		}
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = SortUtil.sortableBits(this.to[i]);
+		}
+		this.maxima = new RangeMaximum(keys);
+	}
+
+	/**
+	 * Creates an index of the given ranges.
+	 */
+	public DoubleIntervalIndex(DoubleRange... ranges) {
+		this(minimums(ranges), maximums(ranges));
+	}
+
+	private static double[] maximums(DoubleRange[] ranges) {
+		double[] values = new double[ranges.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = ranges[i].getTo();
+		}
+		return values;
+	}
+
+	private static double[] minimums(DoubleRange[] ranges) {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		double[] values = new double[ranges.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Objects.requireNonNull(ranges[i], "range cannot be null").getFrom();
+		}
+		return values;
+	}
+
+	/**
+	 * @return the number of ranges in this index
+	 */
+	public int size() {
+		return from.length;
+	}
+
+	/**
+	 * Passes each range that contains the given value to the visitor, in
+	 * ascending order of their minimums.
+	 *
+	 * @return the number of ranges visited
+	 */
+	public int visitContaining(double value, Visitor visitor) {
+		return visitOverlapping(value, value, visitor);
+	}
+
+	/**
+	 * Passes each range that overlaps the given range (inclusively) to the
+	 * visitor, in ascending order of their minimums.
+	 *
+	 * @return the number of ranges visited
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public int visitOverlapping(double from, double to, Visitor visitor) {
+		Objects.requireNonNull(visitor, "visitor cannot be null");
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		if (Double.isNaN(from) || Double.isNaN(to)) {
+			return 0;
+		}
+		return visit(from, to, visitor);
+	}
+
+	private int visit(double queryFrom, double queryTo, Visitor visitor) {
+		// The ranges that start after the query are at the end
+		int low = 0;
+		int high = from.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (from[mid] <= queryTo) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		int end = low;
+
+		/*
+		 * Reads the ranges as a tree where each range is the last largest
+		 * maximum of its subtree. The first result from an index on is found
+		 * by descending to the left while the largest maximum reaches the
+		 * query. After visiting it, its right subtree reaches up to the next
+		 * range with a maximum at least as large, which is its nearest
+		 * ancestor to the right.
+		 */
+		int count = 0;
+		int index = 0;
+		int stop = end;
+		while (true) {
+			int last = stop;
+			while (index < last) {
+				int max = maxima.max(index, last - 1);
+				if (to[max] < queryFrom) {
+					break;
+				}
+				last = max;
+			}
+			if (last >= end) {
+				return count;
+			}
+			visitor.visit(indices[last], from[last], to[last]);
+			count++;
+			index = last + 1;
+			stop = Math.min(maxima.next(last), end);
+		}
+	}
+}
\ No newline at end of file
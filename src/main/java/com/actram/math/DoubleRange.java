@@ -1,6 +1,11 @@
 package com.actram.math;
 
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Objects;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Immutable {@code double} range with chainable methods.
@@ -8,6 +13,46 @@ import java.util.Random;
  * @author Peter André Johansen
  */
 public class DoubleRange extends AbstractCountableRange<Double> {
+	/**
+	 * Parses a range in the format of {@link #toString()}, such as
+	 * {@code DoubleRange[0.5, 1.0E10]}. The type name is optional.
+	 *
+	 * @return the range
+	 * @throws NumberFormatException if the text is not a range
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public static DoubleRange parse(CharSequence text) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, 0, text.length());
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the bytes (as ASCII) of
+	 * the buffer from the first index (inclusively) to the second
+	 * (exclusively). The position of the buffer is not used or changed.
+	 */
+	public static DoubleRange parse(ByteBuffer buffer, int from, int to) {
+		Objects.requireNonNull(buffer, "buffer cannot be null");
+		return parseRegion(buffer, from, to);
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the characters from the
+	 * first index (inclusively) to the second (exclusively).
+	 */
+	public static DoubleRange parse(CharSequence text, int from, int to) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, from, to);
+	}
+
+	private static DoubleRange parseRegion(Object source, int from, int to) {
+		TextParser.checkRegion(source, from, to);
+		int open = TextParser.openBracket(source, from, to);
+		int close = TextParser.closeBracket(source, open, to);
+		int comma = TextParser.indexOf(source, ',', open, close);
+		return new DoubleRange(TextParser.parseDouble(source, open, comma), TextParser.parseDouble(source, comma + 1, close));
+	}
+
 	public DoubleRange() {
 		this(0);
 	}
@@ -30,6 +75,87 @@ public class DoubleRange extends AbstractCountableRange<Double> {
 		return cast(this.set(from + distance() / 2));
 	}
 
+	/**
+	 * Stores each of the given values, clamped to this range, in the result
+	 * array (which may be the values array).
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void clamp(double[] values, double[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.clamp(values, from, to, result);
+	}
+
+	/**
+	 * Classifies each of the given values as below ({@code -1}), inside
+	 * ({@code 0}) or above ({@code 1}) this range. NaN is classified as
+	 * above.
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void classify(double[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.classify(values, from, to, result);
+	}
+
+	/**
+	 * Sets the bit of each of the given values that is inside (inclusive)
+	 * this range, and clears all other bits of the result.
+	 */
+	public void contains(double[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(double[], BitSet)}, but stores the bit of the value
+	 * at index {@code i} as bit {@code i % 64} of word {@code i / 64} of the
+	 * given words, without allocating.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void contains(double[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * @return the number of the given values that are inside (inclusive) this
+	 *         range
+	 */
+	public int count(double[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.count(values, from, to);
+	}
+
+	/**
+	 * @return the given number of random values from the range (inclusively),
+	 *         drawn from the {@link ThreadLocalRandom}
+	 * @throws IllegalArgumentException if the count is negative
+	 */
+	public double[] doubles(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count cannot be negative");
+		}
+		double[] values = new double[count];
+		RandomUtil.fill(values, ThreadLocalRandom.current(), from, to);
+		return values;
+	}
+
+	/**
+	 * Fills the given array with random values from the range (inclusively).
+	 */
+	public void fill(double[] values, SplittableRandom random) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(random, "random cannot be null");
+		RandomUtil.fill(values, random, from, to);
+	}
+
 	@Override
 	protected Double half(Double value) {
 		return (value / 2);
@@ -40,9 +166,61 @@ public class DoubleRange extends AbstractCountableRange<Double> {
 		return (value < 0);
 	}
 
+	/**
+	 * Like {@link #clamp(double[], double[])}, but splits the work over multiple
+	 * threads for large arrays.
+	 */
+	public void parallelClamp(double[] values, double[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClamp(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #classify(double[], byte[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelClassify(double[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClassify(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(double[], BitSet)}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelContains(double[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(double[], long[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void parallelContains(double[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #count(double[])}, but splits the work over multiple threads
+	 * for large arrays.
+	 */
+	public int parallelCount(double[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.parallelCount(values, from, to);
+	}
+
 	@Override
 	protected Double random(Random random) {
-		return random.nextDouble() * (to - from) + from;
+		return RandomUtil.scale(random.nextDouble(), from, to);
 	}
 
 	@Override
@@ -0,0 +1,247 @@
+package com.actram.math;
+
+import java.util.Objects;
+
+/**
+ * Mutable {@code double} range for chains of transformations.
+ * <p>
+ * Offers the same operations as {@link PrimitiveDoubleRange}, with the same
+ * results and exceptions, but changes this builder in place and returns it
+ * instead of creating a new range at every step. An immutable range is only
+ * created by {@link #build()} or {@link #buildPrimitive()}. If an operation
+ * throws an exception, the builder is left unchanged.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Peter André Johansen
+ */
+public class DoubleRangeBuilder {
+	private double from;
+	private double to;
+
+	public DoubleRangeBuilder() {
+		this(0, 0);
+	}
+
+	public DoubleRangeBuilder(AbstractRange<Double> range) {
+		this(Objects.requireNonNull(range, "range cannot be null").getFrom(), range.getTo());
+	}
+
+	public DoubleRangeBuilder(double from, double to) {
+		this.set(from, to);
+	}
+
+	/**
+	 * @return a range with the current boundaries
+	 */
+	public DoubleRange build() {
+		return new DoubleRange(from, to);
+	}
+
+	/**
+	 * @return a primitive range with the current boundaries
+	 */
+	public PrimitiveDoubleRange buildPrimitive() {
+		return new PrimitiveDoubleRange(from, to);
+	}
+
+	/**
+	 * Sets this range to its center.
+	 *
+	 * @return this builder
+	 */
+	public DoubleRangeBuilder center() {
+		return this.set(from + distance() / 2);
+	}
+
+	/**
+	 * @return the distance the range covers
+	 */
+	public double distance() {
+		return (to - from);
+	}
+
+	/**
+	 * Subtracts and adds the given amount to the minimum and maximum value,
+	 * respectively.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public DoubleRangeBuilder extend(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.set(from - amount, to + amount);
+	}
+
+	/**
+	 * Adds the given amount to the maximum value.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public DoubleRangeBuilder extendMaximum(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setTo(to + amount);
+	}
+
+	/**
+	 * Subtracts the given amount from the minimum value.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public DoubleRangeBuilder extendMinimum(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setFrom(from - amount);
+	}
+
+	/**
+	 * @return the smallest value (the minimum) of the range
+	 */
+	public double getFrom() {
+		return from;
+	}
+
+	/**
+	 * @return the largest value (the maximum) of the range
+	 */
+	public double getTo() {
+		return to;
+	}
+
+	/**
+	 * Sets the boundaries to the given values. The smallest value will be used
+	 * as the minimum and the largest will be used as the maximum.
+	 *
+	 * @return this builder
+	 */
+	public DoubleRangeBuilder safeSet(double value1, double value2) {
+		return this.set(Math.min(value1, value2), Math.max(value1, value2));
+	}
+
+	/**
+	 * Sets both the minimum and maximum to the given value.
+	 *
+	 * @return this builder
+	 */
+	public DoubleRangeBuilder set(double value) {
+		return this.set(value, value);
+	}
+
+	/**
+	 * Sets the boundaries to the given values.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the minimum is larger than the
+	 *             maximum, or either is NaN
+	 */
+	public DoubleRangeBuilder set(double from, double to) {
+		if (Double.isNaN(from) || Double.isNaN(to)) {
+			throw new IllegalArgumentException("minimum=" + from + " and maximum=" + to + " cannot be NaN");
+		}
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+
+		this.from = from;
+		this.to = to;
+		return this;
+	}
+
+	/**
+	 * Sets the minimum to the given value.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the given value is larger than the
+	 *             maximum
+	 */
+	public DoubleRangeBuilder setFrom(double from) {
+		return this.set(from, this.to);
+	}
+
+	/**
+	 * Sets the maximum to the given value.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the given value is smaller than the
+	 *             minimum
+	 */
+	public DoubleRangeBuilder setTo(double to) {
+		return this.set(this.from, to);
+	}
+
+	/**
+	 * Moves the range by the given amount.
+	 *
+	 * @return this builder
+	 */
+	public DoubleRangeBuilder shift(double amount) {
+		return this.set(from + amount, to + amount);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + from + ", " + to + "]";
+	}
+
+	/**
+	 * Adds and subtracts the given amount to the minimum and maximum value,
+	 * respectively.
+	 * <p>
+	 * If the result of this operation would be an illegal range, both the
+	 * minimum and maximum are set to the center value of the range instead.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public DoubleRangeBuilder trim(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+
+		double min = from + amount;
+		double max = to - amount;
+		if (min > max) {
+			min = max = from + (to - from) / 2;
+		}
+		return this.set(min, max);
+	}
+
+	/**
+	 * Subtracts the given amount from the maximum value.
+	 * <p>
+	 * If the result of this operation would be an illegal range, the maximum
+	 * is set to the minimum instead.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public DoubleRangeBuilder trimMaximum(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setTo(Math.max(to - amount, from));
+	}
+
+	/**
+	 * Adds the given amount to the minimum value.
+	 * <p>
+	 * If the result of this operation would be an illegal range, the minimum
+	 * is set to the maximum instead.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public DoubleRangeBuilder trimMinimum(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setFrom(Math.min(from + amount, to));
+	}
+}
\ No newline at end of file
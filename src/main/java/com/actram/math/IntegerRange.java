@@ -1,6 +1,15 @@
 package com.actram.math;
 
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
 import java.util.Random;
+import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Immutable {@code int} range with chainable methods.
@@ -8,6 +17,46 @@ import java.util.Random;
  * @author Peter André Johansen
  */
 public class IntegerRange extends AbstractCountableRange<Integer> {
+	/**
+	 * Parses a range in the format of {@link #toString()}, such as
+	 * {@code IntegerRange[5, 10]}. The type name is optional.
+	 *
+	 * @return the range
+	 * @throws NumberFormatException if the text is not a range
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public static IntegerRange parse(CharSequence text) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, 0, text.length());
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the bytes (as ASCII) of
+	 * the buffer from the first index (inclusively) to the second
+	 * (exclusively). The position of the buffer is not used or changed.
+	 */
+	public static IntegerRange parse(ByteBuffer buffer, int from, int to) {
+		Objects.requireNonNull(buffer, "buffer cannot be null");
+		return parseRegion(buffer, from, to);
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the characters from the
+	 * first index (inclusively) to the second (exclusively).
+	 */
+	public static IntegerRange parse(CharSequence text, int from, int to) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, from, to);
+	}
+
+	private static IntegerRange parseRegion(Object source, int from, int to) {
+		TextParser.checkRegion(source, from, to);
+		int open = TextParser.openBracket(source, from, to);
+		int close = TextParser.closeBracket(source, open, to);
+		int comma = TextParser.indexOf(source, ',', open, close);
+		return new IntegerRange(TextParser.parseInt(source, open, comma), TextParser.parseInt(source, comma + 1, close));
+	}
+
 	public IntegerRange() {
 		this(0);
 	}
@@ -35,19 +84,176 @@ public class IntegerRange extends AbstractCountableRange<Integer> {
 		return cast(this.set(min, max));
 	}
 
+	/**
+	 * Stores each of the given values, clamped to this range, in the result
+	 * array (which may be the values array).
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void clamp(int[] values, int[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.clamp(values, from, to, result);
+	}
+
+	/**
+	 * Classifies each of the given values as below ({@code -1}), inside
+	 * ({@code 0}) or above ({@code 1}) this range.
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void classify(int[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.classify(values, from, to, result);
+	}
+
+	/**
+	 * Sets the bit of each of the given values that is inside (inclusive)
+	 * this range, and clears all other bits of the result.
+	 */
+	public void contains(int[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(int[], BitSet)}, but stores the bit of the value
+	 * at index {@code i} as bit {@code i % 64} of word {@code i / 64} of the
+	 * given words, without allocating.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void contains(int[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * @return the number of the given values that are inside (inclusive) this
+	 *         range
+	 */
+	public int count(int[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.count(values, from, to);
+	}
+
+	/**
+	 * Fills the given array with random values from the range (inclusively).
+	 */
+	public void fill(int[] values, SplittableRandom random) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(random, "random cannot be null");
+		RandomUtil.fill(values, random, from, to);
+	}
+
 	@Override
 	protected Integer half(Integer value) {
 		return (value / 2);
 	}
 
+	/**
+	 * @return the given number of random values from the range (inclusively),
+	 *         drawn from the {@link ThreadLocalRandom}
+	 * @throws IllegalArgumentException if the count is negative
+	 */
+	public int[] ints(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count cannot be negative");
+		}
+		int[] values = new int[count];
+		RandomUtil.fill(values, ThreadLocalRandom.current(), from, to);
+		return values;
+	}
+
 	@Override
 	protected boolean isNegative(Integer value) {
 		return (value < 0);
 	}
 
+	/**
+	 * @return an iterator over all values of this range, in ascending order
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		return this.iterator(1);
+	}
+
+	/**
+	 * @return an iterator over every {@code step}-th value of this range,
+	 *         starting at the minimum if the step is positive and at the
+	 *         maximum if it is negative
+	 * @throws IllegalArgumentException if the step is zero
+	 */
+	public PrimitiveIterator.OfInt iterator(int step) {
+		return Spliterators.iterator(IntegerRangeSpliterator.of(from, to, step));
+	}
+
+	/**
+	 * Like {@link #clamp(int[], int[])}, but splits the work over multiple
+	 * threads for large arrays.
+	 */
+	public void parallelClamp(int[] values, int[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClamp(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #classify(int[], byte[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelClassify(int[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClassify(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(int[], BitSet)}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelContains(int[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(int[], long[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void parallelContains(int[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #count(int[])}, but splits the work over multiple threads
+	 * for large arrays.
+	 */
+	public int parallelCount(int[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.parallelCount(values, from, to);
+	}
+
+	/**
+	 * @return a parallel stream of all values of this range, in ascending
+	 *         order
+	 */
+	public IntStream parallelStream() {
+		return StreamSupport.intStream(IntegerRangeSpliterator.of(from, to, 1), true);
+	}
+
 	@Override
 	protected Integer random(Random random) {
-		return (int) (random.nextDouble() * (to - from) + from);
+		return RandomUtil.nextInt(random, from, to);
 	}
 
 	@Override
@@ -55,6 +261,23 @@ public class IntegerRange extends AbstractCountableRange<Integer> {
 		return cast(new IntegerRange(from, to));
 	}
 
+	/**
+	 * @return a stream of all values of this range, in ascending order
+	 */
+	public IntStream stream() {
+		return this.stream(1);
+	}
+
+	/**
+	 * @return a stream of every {@code step}-th value of this range,
+	 *         starting at the minimum if the step is positive and at the
+	 *         maximum if it is negative
+	 * @throws IllegalArgumentException if the step is zero
+	 */
+	public IntStream stream(int step) {
+		return StreamSupport.intStream(IntegerRangeSpliterator.of(from, to, step), false);
+	}
+
 	@Override
 	protected Integer subtract(Integer value1, Integer value2) {
 		return (value1 - value2);
@@ -0,0 +1,250 @@
+package com.actram.math;
+
+import java.util.Objects;
+
+/**
+ * Mutable {@code int} range for chains of transformations.
+ * <p>
+ * Offers the same operations as {@link PrimitiveIntegerRange}, with the same
+ * results and exceptions, but changes this builder in place and returns it
+ * instead of creating a new range at every step. An immutable range is only
+ * created by {@link #build()} or {@link #buildPrimitive()}. If an operation
+ * throws an exception, the builder is left unchanged.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Peter André Johansen
+ */
+public class IntegerRangeBuilder {
+	private int from;
+	private int to;
+
+	public IntegerRangeBuilder() {
+		this(0, 0);
+	}
+
+	public IntegerRangeBuilder(AbstractRange<Integer> range) {
+		this(Objects.requireNonNull(range, "range cannot be null").getFrom(), range.getTo());
+	}
+
+	public IntegerRangeBuilder(int from, int to) {
+		this.set(from, to);
+	}
+
+	/**
+	 * @return a range with the current boundaries
+	 */
+	public IntegerRange build() {
+		return new IntegerRange(from, to);
+	}
+
+	/**
+	 * @return a primitive range with the current boundaries
+	 */
+	public PrimitiveIntegerRange buildPrimitive() {
+		return new PrimitiveIntegerRange(from, to);
+	}
+
+	/**
+	 * Sets this range to its center.
+	 *
+	 * @return this builder
+	 */
+	public IntegerRangeBuilder center() {
+		int distance = distance();
+		int min = (from + distance / 2);
+		int max = min;
+		if (distance % 2 != 0) {
+			max++;
+		}
+		return this.set(min, max);
+	}
+
+	/**
+	 * @return the distance the range covers
+	 */
+	public int distance() {
+		return (to - from);
+	}
+
+	/**
+	 * Subtracts and adds the given amount to the minimum and maximum value,
+	 * respectively.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public IntegerRangeBuilder extend(int amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.set(from - amount, to + amount);
+	}
+
+	/**
+	 * Adds the given amount to the maximum value.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public IntegerRangeBuilder extendMaximum(int amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setTo(to + amount);
+	}
+
+	/**
+	 * Subtracts the given amount from the minimum value.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public IntegerRangeBuilder extendMinimum(int amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setFrom(from - amount);
+	}
+
+	/**
+	 * @return the smallest value (the minimum) of the range
+	 */
+	public int getFrom() {
+		return from;
+	}
+
+	/**
+	 * @return the largest value (the maximum) of the range
+	 */
+	public int getTo() {
+		return to;
+	}
+
+	/**
+	 * Sets the boundaries to the given values. The smallest value will be used
+	 * as the minimum and the largest will be used as the maximum.
+	 *
+	 * @return this builder
+	 */
+	public IntegerRangeBuilder safeSet(int value1, int value2) {
+		return this.set(Math.min(value1, value2), Math.max(value1, value2));
+	}
+
+	/**
+	 * Sets both the minimum and maximum to the given value.
+	 *
+	 * @return this builder
+	 */
+	public IntegerRangeBuilder set(int value) {
+		return this.set(value, value);
+	}
+
+	/**
+	 * Sets the boundaries to the given values.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the minimum is larger than the
+	 *             maximum
+	 */
+	public IntegerRangeBuilder set(int from, int to) {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+
+		this.from = from;
+		this.to = to;
+		return this;
+	}
+
+	/**
+	 * Sets the minimum to the given value.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the given value is larger than the
+	 *             maximum
+	 */
+	public IntegerRangeBuilder setFrom(int from) {
+		return this.set(from, this.to);
+	}
+
+	/**
+	 * Sets the maximum to the given value.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the given value is smaller than the
+	 *             minimum
+	 */
+	public IntegerRangeBuilder setTo(int to) {
+		return this.set(this.from, to);
+	}
+
+	/**
+	 * Moves the range by the given amount.
+	 *
+	 * @return this builder
+	 */
+	public IntegerRangeBuilder shift(int amount) {
+		return this.set(from + amount, to + amount);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + from + ", " + to + "]";
+	}
+
+	/**
+	 * Adds and subtracts the given amount to the minimum and maximum value,
+	 * respectively.
+	 * <p>
+	 * If the result of this operation would be an illegal range, both the
+	 * minimum and maximum are set to the center value of the range instead.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public IntegerRangeBuilder trim(int amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+
+		int min = from + amount;
+		int max = to - amount;
+		if (min > max) {
+			min = max = from + (to - from) / 2;
+		}
+		return this.set(min, max);
+	}
+
+	/**
+	 * Subtracts the given amount from the maximum value.
+	 * <p>
+	 * If the result of this operation would be an illegal range, the maximum
+	 * is set to the minimum instead.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public IntegerRangeBuilder trimMaximum(int amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setTo(Math.max(to - amount, from));
+	}
+
+	/**
+	 * Adds the given amount to the minimum value.
+	 * <p>
+	 * If the result of this operation would be an illegal range, the minimum
+	 * is set to the maximum instead.
+	 *
+	 * @return this builder
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public IntegerRangeBuilder trimMinimum(int amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setFrom(Math.min(from + amount, to));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,358 @@
+package com.actram.math;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable set of {@code int} values, expressed as sorted ranges, with
+ * chainable methods.
+ * <p>
+ * The ranges are stored as one array of alternating minimums and maximums.
+ * Overlapping and adjacent ranges are always coalesced, so every set has
+ * exactly one representation. Lookups are binary searches, and the set
+ * operations merge the two arrays in linear time.
+ *
+ * @author Peter André Johansen
+ */
+public class IntegerRangeSet implements Iterable<IntegerRange> {
+	public static final IntegerRangeSet EMPTY = new IntegerRangeSet(new int[0]);
+
+	/**
+	 * Appends ranges to an array of bounds, coalescing each range with the
+	 * previous one if they overlap or are adjacent. The ranges must be
+	 * appended in order of their minimums.
+	 */
+	private static class Appender {
+		private int[] bounds;
+		private int length;
+
+		Appender(int capacity) {
+			this.bounds = new int[Math.max(2, capacity * 2)];
+		}
+
+		void append(int from, int to) {
+			// Compare before subtracting, as from - 1 overflows at the minimum
+			if (length > 0 && (from <= bounds[length - 1] || from - 1 <= bounds[length - 1])) {
+				bounds[length - 1] = Math.max(bounds[length - 1], to);
+				return;
+			}
+			if (length == bounds.length) {
+				bounds = Arrays.copyOf(bounds, length * 2);
+			}
+			bounds[length++] = from;
+			bounds[length++] = to;
+		}
+
+		IntegerRangeSet toSet() {
+			return (length == 0 ? EMPTY : new IntegerRangeSet(length == bounds.length ? bounds : Arrays.copyOf(bounds, length)));
+		}
+	}
+
+	/**
+	 * @return a set with the values of the given ranges
+	 */
+	public static IntegerRangeSet of(IntegerRange... ranges) {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		IntegerRange[] sorted = ranges.clone();
+		Arrays.sort(sorted, (a, b) -> Integer.compare(a.getFrom(), b.getFrom()));
+
+		Appender appender = new Appender(sorted.length);
+		for (IntegerRange range : sorted) {
+			appender.append(range.getFrom(), range.getTo());
+		}
+		return appender.toSet();
+	}
+
+	/**
+	 * @return a set with the values of the given range
+	 */
+	public static IntegerRangeSet of(int from, int to) {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		return new IntegerRangeSet(new int[] { from, to });
+	}
+
+	/**
+	 * The sorted, coalesced ranges: the minimum of range {@code i} is at
+	 * {@code 2 * i} and the maximum at {@code 2 * i + 1}.
+	 */
+	private final int[] bounds;
+
+	private IntegerRangeSet(int[] bounds) {
+		this.bounds = bounds;
+	}
+
+	/**
+	 * @return a set with the values of this set and the given range
+	 */
+	public IntegerRangeSet add(IntegerRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return this.union(of(range.getFrom(), range.getTo()));
+	}
+
+	/**
+	 * @return whether all values of the given range are in this set
+	 */
+	public boolean contains(IntegerRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		int index = indexOf(range.getFrom());
+		return (index >= 0 && range.getTo() <= bounds[2 * index + 1]);
+	}
+
+	/**
+	 * @return whether the given value is in this set
+	 */
+	public boolean contains(int value) {
+		return (indexOf(value) >= 0);
+	}
+
+	/**
+	 * @return the total number of values in this set
+	 */
+	public long count() {
+		long count = 0;
+		for (int i = 0; i < bounds.length; i += 2) {
+			count += (long) bounds[i + 1] - bounds[i] + 1;
+		}
+		return count;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		IntegerRangeSet other = (IntegerRangeSet) obj;
+		return Arrays.equals(bounds, other.bounds);
+	}
+
+	/**
+	 * @return the range with the given index, in ascending order
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public IntegerRange get(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("index=" + index + ", size=" + size());
+		}
+		return new IntegerRange(bounds[2 * index], bounds[2 * index + 1]);
+	}
+
+	/**
+	 * @return the smallest value of this set
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	public int getFrom() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("the set is empty");
+		}
+		return bounds[0];
+	}
+
+	/**
+	 * @return the largest value of this set
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	public int getTo() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("the set is empty");
+		}
+		return bounds[bounds.length - 1];
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(bounds);
+	}
+
+	/**
+	 * @return the index of the range containing the given value, or
+	 *         {@code -1} if no range contains it
+	 */
+	private int indexOf(int value) {
+		int low = 0;
+		int high = size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (bounds[2 * mid + 1] < value) {
+				low = mid + 1;
+			} else if (bounds[2 * mid] > value) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return a set with the values that are in both this and the given set
+	 */
+	public IntegerRangeSet intersect(IntegerRangeSet set) {
+		Objects.requireNonNull(set, "set cannot be null");
+		final int[] a = this.bounds;
+		final int[] b = set.bounds;
+		Appender appender = new Appender(this.size() + set.size());
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			int from = Math.max(a[i], b[j]);
+			int to = Math.min(a[i + 1], b[j + 1]);
+			if (from <= to) {
+				appender.append(from, to);
+			}
+
+			// Continue with the range that ends last
+			if (a[i + 1] < b[j + 1]) {
+				i += 2;
+			} else {
+				j += 2;
+			}
+		}
+		return appender.toSet();
+	}
+
+	public boolean isEmpty() {
+		return (bounds.length == 0);
+	}
+
+	@Override
+	public Iterator<IntegerRange> iterator() {
+		return new Iterator<IntegerRange>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return (index < size());
+			}
+
+			@Override
+			public IntegerRange next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(index++);
+			}
+		};
+	}
+
+	/**
+	 * @return whether any value of the given range is in this set
+	 */
+	public boolean overlaps(IntegerRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+
+		// Find the first range that ends at or after the minimum
+		int low = 0;
+		int high = size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (bounds[2 * mid + 1] < range.getFrom()) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return (low < size() && bounds[2 * low] <= range.getTo());
+	}
+
+	/**
+	 * @return a set with the values of this set that are not in the given
+	 *         range
+	 */
+	public IntegerRangeSet remove(IntegerRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return this.subtract(of(range.getFrom(), range.getTo()));
+	}
+
+	/**
+	 * @return the number of ranges in this set
+	 */
+	public int size() {
+		return (bounds.length / 2);
+	}
+
+	/**
+	 * @return a set with the values of this set that are not in the given set
+	 */
+	public IntegerRangeSet subtract(IntegerRangeSet set) {
+		Objects.requireNonNull(set, "set cannot be null");
+		final int[] a = this.bounds;
+		final int[] b = set.bounds;
+		Appender appender = new Appender(this.size() + set.size());
+		int j = 0;
+		for (int i = 0; i < a.length; i += 2) {
+			int from = a[i];
+			final int to = a[i + 1];
+
+			// Skip the ranges that end before this one
+			while (j < b.length && b[j + 1] < from) {
+				j += 2;
+			}
+
+			// Cut out the ranges that overlap this one
+			boolean remaining = true;
+			for (int k = j; k < b.length && b[k] <= to; k += 2) {
+				if (b[k] > from) {
+					appender.append(from, b[k] - 1);
+				}
+				if (b[k + 1] >= to) {
+					remaining = false;
+					break;
+				}
+				from = b[k + 1] + 1;
+			}
+			if (remaining) {
+				appender.append(from, to);
+			}
+		}
+		return appender.toSet();
+	}
+
+	/**
+	 * @return the ranges of this set, in ascending order
+	 */
+	public IntegerRange[] toArray() {
+		IntegerRange[] ranges = new IntegerRange[size()];
+		for (int i = 0; i < ranges.length; i++) {
+			ranges[i] = get(i);
+		}
+		return ranges;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(getClass().getSimpleName()).append('[');
+		for (int i = 0; i < bounds.length; i += 2) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append('[').append(bounds[i]).append(", ").append(bounds[i + 1]).append(']');
+		}
+		return builder.append(']').toString();
+	}
+
+	/**
+	 * @return a set with the values of this and the given set
+	 */
+	public IntegerRangeSet union(IntegerRangeSet set) {
+		Objects.requireNonNull(set, "set cannot be null");
+		final int[] a = this.bounds;
+		final int[] b = set.bounds;
+		Appender appender = new Appender(this.size() + set.size());
+		int i = 0;
+		int j = 0;
+		while (i < a.length || j < b.length) {
+			if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+				appender.append(a[i], a[i + 1]);
+				i += 2;
+			} else {
+				appender.append(b[j], b[j + 1]);
+				j += 2;
+			}
+		}
+		return appender.toSet();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.actram.math;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Spliterator over the values of a {@code int} range with a fixed step.
+ * <p>
+ * The values are addressed by their index, so splitting halves the remaining
+ * indices exactly and every part knows its size.
+ *
+ * @author Peter André Johansen
+ */
+class IntegerRangeSpliterator implements Spliterator.OfInt {
+
+	/**
+	 * Returns a spliterator over every {@code step}-th value of the given
+	 * (inclusive) range. A positive step starts at the minimum, a negative step
+	 * starts at the maximum.
+	 *
+	 * @throws IllegalArgumentException if the step is zero
+	 */
+	static IntegerRangeSpliterator of(int from, int to, int step) {
+		if (step == 0) {
+			throw new IllegalArgumentException("step cannot be zero");
+		}
+		long steps = ((long) to - from) / Math.abs((long) step);
+		return new IntegerRangeSpliterator((step > 0 ? from : to), step, 0, steps + 1);
+	}
+
+	private final int first;
+	private final int step;
+	private long index;
+	private final long fence;
+
+	private IntegerRangeSpliterator(int first, int step, long index, long fence) {
+		this.first = first;
+		this.step = step;
+		this.index = index;
+		this.fence = fence;
+	}
+
+	@Override
+	public int characteristics() {
+		int characteristics = ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+		return (step > 0 ? characteristics | SORTED : characteristics);
+	}
+
+	@Override
+	public long estimateSize() {
+		return (fence - index);
+	}
+
+	@Override
+	public void forEachRemaining(IntConsumer action) {
+		int value = (int) (first + index * step);
+		long remaining = fence - index;
+		index = fence;
+		for (long i = 0; i < remaining; i++, value += step) {
+			action.accept(value);
+		}
+	}
+
+	@Override
+	public Comparator<? super Integer> getComparator() {
+		if (step > 0) {
+			return null;
+		}
+		throw new IllegalStateException();
+	}
+
+	@Override
+	public boolean tryAdvance(IntConsumer action) {
+		if (index >= fence) {
+			return false;
+		}
+		action.accept((int) (first + index++ * step));
+		return true;
+	}
+
+	@Override
+	public IntegerRangeSpliterator trySplit() {
+		long mid = index + ((fence - index) >>> 1);
+		if (mid <= index) {
+			return null;
+		}
+		IntegerRangeSpliterator prefix = new IntegerRangeSpliterator(first, step, index, mid);
+		index = mid;
+		return prefix;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.actram.math;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Immutable index of possibly overlapping ranges, for finding the ranges that
+ * contain a value or overlap another range.
+ * <p>
+ * The ranges are sorted by their minimums. A query finds the ranges that
+ * start before its end by binary search, and then finds each of them that
+ * ends after its start through a {@link RangeMaximum} of the ranks of their
+ * maximums, which takes constant time per result. A query for {@code k}
+ * results thus takes {@code O(log n + k)} time, and passes the results to a
+ * {@link Consumer} instead of collecting them.
+ * <p>
+ * See {@link LongIntervalIndex} and {@link DoubleIntervalIndex} for indexes
+ * backed by primitive arrays.
+ *
+ * @author Peter André Johansen
+ *
+ * @param <T> the type the ranges contain
+ * @param <R> the type of the ranges
+ */
+public class IntervalIndex<T extends Comparable<T>, R extends AbstractRange<T>> {
+	/** The ranges, in ascending order of their minimums. */
+	private final Object[] ranges;
+
+	/** The largest maximums of the ranges between any two positions. */
+	private final RangeMaximum maxima;
+
+	/**
+	 * Creates an index of the given ranges.
+	 */
+	public IntervalIndex(Collection<? extends R> ranges) {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		this.ranges = ranges.toArray();
+		for (Object range : this.ranges) {
+			Objects.requireNonNull(range, "range cannot be null");
+		}
+		Arrays.sort(this.ranges, (a, b) -> range(a).getFrom().compareTo(range(b).getFrom()));
+
+		// Rank the maximums, giving equal maximums the same rank
+		Integer[] order = new Integer[this.ranges.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> range((int) a).getTo().compareTo(range((int) b).getTo()));
+		long[] ranks = new long[order.length];
+		for (int i = 1; i < order.length; i++) {
+			boolean equal = range((int) order[i]).getTo().compareTo(range((int) order[i - 1]).getTo()) == 0;
+			ranks[order[i]] = (equal ? ranks[order[i - 1]] : i);
+		}
+		this.maxima = new RangeMaximum(ranks);
+	}
+
+	@SuppressWarnings("unchecked")
+	private R range(int index) {
+		return (R) ranges[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	private R range(Object range) {
+		return (R) range;
+	}
+
+	/**
+	 * @return the number of ranges in this index
+	 */
+	public int size() {
+		return ranges.length;
+	}
+
+	/**
+	 * Passes each range that contains the given value to the visitor, in
+	 * ascending order of their minimums.
+	 *
+	 * @return the number of ranges visited
+	 */
+	public int visitContaining(T value, Consumer<? super R> visitor) {
+		Objects.requireNonNull(value, "value cannot be null");
+		Objects.requireNonNull(visitor, "visitor cannot be null");
+		return visit(value, value, visitor);
+	}
+
+	/**
+	 * Passes each range that overlaps the given range to the visitor, in
+	 * ascending order of their minimums.
+	 *
+	 * @return the number of ranges visited
+	 */
+	public int visitOverlapping(AbstractRange<T> range, Consumer<? super R> visitor) {
+		Objects.requireNonNull(range, "range cannot be null");
+		Objects.requireNonNull(visitor, "visitor cannot be null");
+		return visit(range.getFrom(), range.getTo(), visitor);
+	}
+
+	private int visit(T queryFrom, T queryTo, Consumer<? super R> visitor) {
+		// The ranges that start after the query are at the end
+		int low = 0;
+		int high = ranges.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (range(mid).getFrom().compareTo(queryTo) <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		int end = low;
+
+		// See LongIntervalIndex.visit for how the results are found
+		int count = 0;
+		int index = 0;
+		int stop = end;
+		while (true) {
+			int last = stop;
+			while (index < last) {
+				int max = maxima.max(index, last - 1);
+				if (range(max).getTo().compareTo(queryFrom) < 0) {
+					break;
+				}
+				last = max;
+			}
+			if (last >= end) {
+				return count;
+			}
+			visitor.accept(range(last));
+			count++;
+			index = last + 1;
+			stop = Math.min(maxima.next(last), end);
+		}
+	}
+}
\ No newline at end of file
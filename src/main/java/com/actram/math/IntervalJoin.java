@@ -0,0 +1,134 @@
+package com.actram.math;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Static methods for joining two streams of ranges on overlap.
+ * <p>
+ * Both inputs must be sorted by their minimums. The join merges them like a
+ * sort-merge join: it takes the range with the smallest minimum from either
+ * input, drops the ranges that end before it (no later range can overlap
+ * them), and pairs it with the remaining ranges of the other input, which all
+ * overlap it. Only the ranges that may still overlap a later range are kept,
+ * so the memory used is bounded by the number of simultaneously active
+ * ranges rather than the size of the inputs.
+ *
+ * @author Peter André Johansen
+ */
+public class IntervalJoin {
+
+	/**
+	 * Passes the intersection of each pair of overlapping ranges from the two
+	 * inputs to the consumer. The intersections are created with
+	 * {@link AbstractRange#set} on the range from the left input.
+	 *
+	 * @throws IllegalArgumentException if an input is not sorted by the
+	 *             minimums of its ranges
+	 * @see #join(Iterator, Iterator, BiConsumer)
+	 */
+	public static <T extends Comparable<T>, R extends AbstractRange<T>> void intersect(Iterator<? extends R> left, Iterator<? extends R> right, Consumer<? super R> consumer) {
+		Objects.requireNonNull(consumer, "consumer cannot be null");
+		join(left, right, (R a, R b) -> {
+			T from = (a.getFrom().compareTo(b.getFrom()) < 0 ? b.getFrom() : a.getFrom());
+			T to = (a.getTo().compareTo(b.getTo()) < 0 ? a.getTo() : b.getTo());
+			consumer.accept(a.set(from, to));
+		});
+	}
+
+	/**
+	 * Passes each pair of overlapping ranges from the two inputs to the
+	 * consumer, with the range from the left input first. The pairs are passed
+	 * as soon as the later of the two ranges is read.
+	 *
+	 * @throws IllegalArgumentException if an input is not sorted by the
+	 *             minimums of its ranges
+	 */
+	public static <T extends Comparable<T>, A extends AbstractRange<T>, B extends AbstractRange<T>> void join(Iterator<? extends A> left, Iterator<? extends B> right, BiConsumer<? super A, ? super B> consumer) {
+		Objects.requireNonNull(left, "left cannot be null");
+		Objects.requireNonNull(right, "right cannot be null");
+		Objects.requireNonNull(consumer, "consumer cannot be null");
+
+		List<A> activeLeft = new ArrayList<>();
+		List<B> activeRight = new ArrayList<>();
+		A nextLeft = next(left, null);
+		B nextRight = next(right, null);
+		while (nextLeft != null && nextRight != null) {
+			if (nextLeft.getFrom().compareTo(nextRight.getFrom()) <= 0) {
+				A range = nextLeft;
+				prune(activeLeft, range.getFrom());
+				prune(activeRight, range.getFrom());
+				for (B active : activeRight) {
+					consumer.accept(range, active);
+				}
+				activeLeft.add(range);
+				nextLeft = next(left, range);
+			} else {
+				B range = nextRight;
+				prune(activeLeft, range.getFrom());
+				prune(activeRight, range.getFrom());
+				for (A active : activeLeft) {
+					consumer.accept(active, range);
+				}
+				activeRight.add(range);
+				nextRight = next(right, range);
+			}
+		}
+
+		// One input has ended, so the rest of the other only meets active ranges
+		while (nextLeft != null && !activeRight.isEmpty()) {
+			A range = nextLeft;
+			prune(activeRight, range.getFrom());
+			for (B active : activeRight) {
+				consumer.accept(range, active);
+			}
+			nextLeft = next(left, range);
+		}
+		while (nextRight != null && !activeLeft.isEmpty()) {
+			B range = nextRight;
+			prune(activeLeft, range.getFrom());
+			for (A active : activeLeft) {
+				consumer.accept(active, range);
+			}
+			nextRight = next(right, range);
+		}
+	}
+
+	/**
+	 * @return the next range of the given input, or {@code null} if it has
+	 *         ended
+	 * @throws IllegalArgumentException if the range starts before the
+	 *             previous one
+	 */
+	private static <T extends Comparable<T>, R extends AbstractRange<T>> R next(Iterator<? extends R> input, R previous) {
+		if (!input.hasNext()) {
+			return null;
+		}
+		R range = Objects.requireNonNull(input.next(), "range cannot be null");
+		if (previous != null && range.getFrom().compareTo(previous.getFrom()) < 0) {
+			throw new IllegalArgumentException("ranges must be sorted by their minimums: " + range + " follows " + previous);
+		}
+		return range;
+	}
+
+	/**
+	 * Removes the ranges that end before the given value.
+	 */
+	private static <T extends Comparable<T>, R extends AbstractRange<T>> void prune(List<R> ranges, T value) {
+		int size = 0;
+		for (int i = 0; i < ranges.size(); i++) {
+			R range = ranges.get(i);
+			if (range.getTo().compareTo(value) >= 0) {
+				ranges.set(size++, range);
+			}
+		}
+		ranges.subList(size, ranges.size()).clear();
+	}
+
+	/** Prevent instantiation. */
+	private IntervalJoin() {}
+}
\ No newline at end of file
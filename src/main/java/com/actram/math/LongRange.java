@@ -1,6 +1,15 @@
 package com.actram.math;
 
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
 import java.util.Random;
+import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Immutable {@code long} range with chainable methods.
@@ -8,6 +17,46 @@ import java.util.Random;
  * @author Peter André Johansen
  */
 public class LongRange extends AbstractCountableRange<Long> {
+	/**
+	 * Parses a range in the format of {@link #toString()}, such as
+	 * {@code LongRange[5, 10]}. The type name is optional.
+	 *
+	 * @return the range
+	 * @throws NumberFormatException if the text is not a range
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public static LongRange parse(CharSequence text) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, 0, text.length());
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the bytes (as ASCII) of
+	 * the buffer from the first index (inclusively) to the second
+	 * (exclusively). The position of the buffer is not used or changed.
+	 */
+	public static LongRange parse(ByteBuffer buffer, int from, int to) {
+		Objects.requireNonNull(buffer, "buffer cannot be null");
+		return parseRegion(buffer, from, to);
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the characters from the
+	 * first index (inclusively) to the second (exclusively).
+	 */
+	public static LongRange parse(CharSequence text, int from, int to) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, from, to);
+	}
+
+	private static LongRange parseRegion(Object source, int from, int to) {
+		TextParser.checkRegion(source, from, to);
+		int open = TextParser.openBracket(source, from, to);
+		int close = TextParser.closeBracket(source, open, to);
+		int comma = TextParser.indexOf(source, ',', open, close);
+		return new LongRange(TextParser.parseLong(source, open, comma), TextParser.parseLong(source, comma + 1, close));
+	}
+
 	public LongRange() {
 		this(0);
 	}
@@ -35,6 +84,72 @@ public class LongRange extends AbstractCountableRange<Long> {
 		return cast(this.set(min, max));
 	}
 
+	/**
+	 * Stores each of the given values, clamped to this range, in the result
+	 * array (which may be the values array).
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void clamp(long[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.clamp(values, from, to, result);
+	}
+
+	/**
+	 * Classifies each of the given values as below ({@code -1}), inside
+	 * ({@code 0}) or above ({@code 1}) this range.
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void classify(long[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.classify(values, from, to, result);
+	}
+
+	/**
+	 * Sets the bit of each of the given values that is inside (inclusive)
+	 * this range, and clears all other bits of the result.
+	 */
+	public void contains(long[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(long[], BitSet)}, but stores the bit of the value
+	 * at index {@code i} as bit {@code i % 64} of word {@code i / 64} of the
+	 * given words, without allocating.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void contains(long[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * @return the number of the given values that are inside (inclusive) this
+	 *         range
+	 */
+	public int count(long[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.count(values, from, to);
+	}
+
+	/**
+	 * Fills the given array with random values from the range (inclusively).
+	 */
+	public void fill(long[] values, SplittableRandom random) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(random, "random cannot be null");
+		RandomUtil.fill(values, random, from, to);
+	}
+
 	@Override
 	protected Long half(Long value) {
 		return (value / 2);
@@ -45,9 +160,106 @@ public class LongRange extends AbstractCountableRange<Long> {
 		return (value < 0);
 	}
 
+	/**
+	 * @return an iterator over all values of this range, in ascending order
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public PrimitiveIterator.OfLong iterator() {
+		return this.iterator(1);
+	}
+
+	/**
+	 * @return an iterator over every {@code step}-th value of this range,
+	 *         starting at the minimum if the step is positive and at the
+	 *         maximum if it is negative
+	 * @throws IllegalArgumentException if the step is zero
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public PrimitiveIterator.OfLong iterator(long step) {
+		return Spliterators.iterator(LongRangeSpliterator.of(from, to, step));
+	}
+
+	/**
+	 * @return the given number of random values from the range (inclusively),
+	 *         drawn from the {@link ThreadLocalRandom}
+	 * @throws IllegalArgumentException if the count is negative
+	 */
+	public long[] longs(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count cannot be negative");
+		}
+		long[] values = new long[count];
+		RandomUtil.fill(values, ThreadLocalRandom.current(), from, to);
+		return values;
+	}
+
+	/**
+	 * Like {@link #clamp(long[], long[])}, but splits the work over multiple
+	 * threads for large arrays.
+	 */
+	public void parallelClamp(long[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClamp(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #classify(long[], byte[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelClassify(long[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClassify(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(long[], BitSet)}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelContains(long[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(long[], long[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void parallelContains(long[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #count(long[])}, but splits the work over multiple threads
+	 * for large arrays.
+	 */
+	public int parallelCount(long[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.parallelCount(values, from, to);
+	}
+
+	/**
+	 * @return a parallel stream of all values of this range, in ascending
+	 *         order
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public LongStream parallelStream() {
+		return StreamSupport.longStream(LongRangeSpliterator.of(from, to, 1), true);
+	}
+
 	@Override
 	protected Long random(Random random) {
-		return (long) (random.nextDouble() * (to - from) + from);
+		return RandomUtil.nextLong(random, from, to);
 	}
 
 	@Override
@@ -55,6 +267,88 @@ public class LongRange extends AbstractCountableRange<Long> {
 		return cast(new LongRange(from, to));
 	}
 
+	/**
+	 * Splits this range into the given number of contiguous ranges, in
+	 * ascending order, whose numbers of values differ by at most one. If the
+	 * range has fewer values than the number of parts, each value becomes a
+	 * range of its own.
+	 *
+	 * @return the parts, which together cover exactly the values of this range
+	 * @throws IllegalArgumentException if the number of parts is not positive
+	 */
+	public LongRange[] split(int parts) {
+		if (parts <= 0) {
+			throw new IllegalArgumentException("parts must be positive");
+		}
+
+		// The number of values is distance + 1, which may be 2^64, so it is
+		// divided as quotient * parts + remainder without computing it
+		long distance = to - from;
+		if (Long.compareUnsigned(distance, parts) < 0) {
+			parts = (int) distance + 1;
+		}
+		long quotient = Long.divideUnsigned(distance, parts);
+		long remainder = Long.remainderUnsigned(distance, parts) + 1;
+		if (remainder == parts) {
+			quotient++;
+			remainder = 0;
+		}
+
+		LongRange[] ranges = new LongRange[parts];
+		long min = from;
+		for (int i = 0; i < parts; i++) {
+			long max = min + quotient - (i < remainder ? 0 : 1);
+			ranges[i] = new LongRange(min, max);
+			min = max + 1;
+		}
+		return ranges;
+	}
+
+	/**
+	 * Splits this range into the fewest contiguous ranges, in ascending
+	 * order, that have at most the given number of values each. The numbers
+	 * of values of the parts differ by at most one.
+	 *
+	 * @return the parts, which together cover exactly the values of this range
+	 * @throws IllegalArgumentException if the chunk size is not positive, or
+	 *             so small that there would be more than
+	 *             {@link Integer#MAX_VALUE} parts
+	 */
+	public LongRange[] splitBySize(long chunk) {
+		if (chunk <= 0) {
+			throw new IllegalArgumentException("chunk size must be positive");
+		}
+
+		// ceil((distance + 1) / chunk), without overflowing distance + 1
+		long distance = to - from;
+		long parts = Long.divideUnsigned(distance, chunk) + 1;
+		if (parts <= 0 || parts > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("chunk size=" + chunk + " splits " + this + " into more than " + Integer.MAX_VALUE + " parts");
+		}
+		return this.split((int) parts);
+	}
+
+	/**
+	 * @return a stream of all values of this range, in ascending order
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public LongStream stream() {
+		return this.stream(1);
+	}
+
+	/**
+	 * @return a stream of every {@code step}-th value of this range,
+	 *         starting at the minimum if the step is positive and at the
+	 *         maximum if it is negative
+	 * @throws IllegalArgumentException if the step is zero
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public LongStream stream(long step) {
+		return StreamSupport.longStream(LongRangeSpliterator.of(from, to, step), false);
+	}
+
 	@Override
 	protected Long subtract(Long value1, Long value2) {
 		return (value1 - value2);
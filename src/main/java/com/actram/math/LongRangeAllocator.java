@@ -0,0 +1,302 @@
+package com.actram.math;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe allocator of blocks of values from a {@code long} range, such
+ * as blocks of IDs.
+ * <p>
+ * Blocks are taken from the start of the unallocated part of the range by
+ * advancing a cursor with compare-and-set, so allocations never lock. Single
+ * values, and blocks of fewer values than the cache size, are handed out from
+ * a block cached by each thread, so the cursor is only touched about once per
+ * {@code cacheSize} values. When the cached block is too small for a block,
+ * its values are released, unless the next cached block directly follows it.
+ * <p>
+ * Released blocks are kept in a {@link ConcurrentSkipListMap} from the
+ * minimum to the maximum of each free block, and are only reused once the
+ * cursor has reached the end of the range. A release adds its block and
+ * merges it with its free neighbours, removing and replacing their entries
+ * with compare-and-set, and a reuse takes the values of the first free block
+ * that is large enough from its end, the same way. Neither locks, and
+ * releases of different parts of the range do not contend. Values cached by a thread stay
+ * allocated until the thread calls {@link #releaseCache()}.
+ * <p>
+ * A range with {@code 2^64} values cannot be counted in a {@code long}, so of
+ * the range of all {@code long} values, the maximum is never allocated.
+ *
+ * @author Peter André Johansen
+ */
+public class LongRangeAllocator {
+	/** The default number of values cached by each thread. */
+	public static final long DEFAULT_CACHE_SIZE = 1 << 10;
+
+	private final LongRange range;
+	private final long cacheSize;
+
+	/** The number of values that can be allocated, as an unsigned value. */
+	private final long capacity;
+
+	/**
+	 * The number of values before the cursor, as an unsigned value. The
+	 * values from the minimum up to the cursor have been allocated at some
+	 * point.
+	 */
+	private final AtomicLong cursor = new AtomicLong();
+
+	/**
+	 * The next value and the number of remaining values of the block cached by
+	 * each thread.
+	 */
+	private final ThreadLocal<long[]> cache = ThreadLocal.withInitial(() -> new long[2]);
+
+	/** The maximum of each released block, by its minimum. */
+	private final ConcurrentSkipListMap<Long, Long> free = new ConcurrentSkipListMap<>();
+
+	/** The number of released values. */
+	private final LongAdder released = new LongAdder();
+
+	public LongRangeAllocator(LongRange range) {
+		this(range, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * @param cacheSize the number of values that each thread takes at a time
+	 *            for {@link #next()}
+	 * @throws IllegalArgumentException if the cache size is not positive
+	 */
+	public LongRangeAllocator(LongRange range, long cacheSize) {
+		this.range = Objects.requireNonNull(range, "range cannot be null");
+		if (cacheSize <= 0) {
+			throw new IllegalArgumentException("cache size must be positive");
+		}
+		this.cacheSize = cacheSize;
+		long distance = range.getTo() - range.getFrom();
+		this.capacity = (distance == -1 ? distance : distance + 1);
+	}
+
+	/**
+	 * Allocates a block of the given number of contiguous values.
+	 *
+	 * @return the block, or {@code null} if there is no such block left
+	 * @throws IllegalArgumentException if the count is not positive
+	 */
+	public LongRange allocate(long count) {
+		if (count <= 0) {
+			throw new IllegalArgumentException("count must be positive");
+		}
+		if (count < cacheSize) {
+			long[] cache = this.cache.get();
+			if (Long.compareUnsigned(cache[1], count) < 0) {
+				this.fill(cache);
+			}
+			if (Long.compareUnsigned(cache[1], count) >= 0) {
+				LongRange block = new LongRange(cache[0], cache[0] + count - 1);
+				cache[0] += count;
+				cache[1] -= count;
+				return block;
+			}
+		}
+		LongRange block = this.take(count, false);
+		return (block != null ? block : this.reuse(count, false));
+	}
+
+	/**
+	 * Caches a new block for the current thread. The remaining values of the
+	 * cached block are kept if the new block directly follows them, and
+	 * released otherwise.
+	 *
+	 * @return whether a block was cached
+	 */
+	private boolean fill(long[] cache) {
+		LongRange block = this.take(cacheSize, true);
+		if (block == null && (block = this.reuse(cacheSize, true)) == null) {
+			return false;
+		}
+		long size = block.getTo() - block.getFrom() + 1;
+		if (cache[1] != 0 && block.getFrom() == cache[0] + cache[1]) {
+			cache[1] += size;
+		} else {
+			this.releaseCache();
+			cache[0] = block.getFrom();
+			cache[1] = size;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the range that values are allocated from
+	 */
+	public LongRange getRange() {
+		return range;
+	}
+
+	/**
+	 * Merges the free block with the given minimum with the free blocks next
+	 * to it, until it has none. Each merge removes one of two entries and then
+	 * extends the other, both with compare-and-set, and adds the removed block
+	 * again if the other entry changed in between. As each thread checks both
+	 * neighbours after adding its block, two adjacent blocks added at once are
+	 * always merged by at least one of the threads.
+	 */
+	private void merge(long from) {
+		while (true) {
+			Long to = free.get(from);
+			if (to == null) {
+				// Merged into the block before it, or reused
+				return;
+			}
+			Map.Entry<Long, Long> before = free.lowerEntry(from);
+			if (before != null && before.getValue() == from - 1) {
+				if (free.remove(from, to)) {
+					if (free.replace(before.getKey(), from - 1, to)) {
+						from = before.getKey();
+					} else {
+						free.put(from, to);
+					}
+				}
+				continue;
+			}
+			Long after = (to == Long.MAX_VALUE ? null : free.get(to + 1));
+			if (after == null) {
+				return;
+			}
+			if (free.remove(to + 1, after) && !free.replace(from, to, after)) {
+				free.put(to + 1, after);
+				this.merge(to + 1);
+			}
+		}
+	}
+
+	/**
+	 * Allocates a single value from the block cached by the current thread,
+	 * and caches a new block if it is empty.
+	 *
+	 * @return the value
+	 * @throws NoSuchElementException if all values are allocated
+	 */
+	public long next() {
+		long[] cache = this.cache.get();
+		if (cache[1] == 0 && !this.fill(cache)) {
+			throw new NoSuchElementException("all values of " + range + " are allocated");
+		}
+		cache[1]--;
+		return cache[0]++;
+	}
+
+	/**
+	 * Releases the given block, so that it can be allocated again.
+	 *
+	 * @throws IllegalArgumentException if the block is not allocated
+	 */
+	public void release(LongRange block) {
+		Objects.requireNonNull(block, "block cannot be null");
+		this.release(block.getFrom(), block.getTo());
+	}
+
+	/**
+	 * Releases the values between the given bounds (inclusively), so that they
+	 * can be allocated again.
+	 *
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 *             or any of the values is not allocated
+	 */
+	public void release(long from, long to) {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		LongRange block = new LongRange(from, to);
+		if (from < range.getFrom() || Long.compareUnsigned(to - range.getFrom(), cursor.get()) >= 0) {
+			throw new IllegalArgumentException(block + " has not been allocated from " + range);
+		}
+
+		Map.Entry<Long, Long> before = free.floorEntry(to);
+		if ((before != null && before.getValue() >= from) || free.putIfAbsent(from, to) != null) {
+			throw new IllegalArgumentException(block + " has already been released");
+		}
+		released.add(to - from + 1);
+		this.merge(from);
+	}
+
+	/**
+	 * Releases the values cached by the current thread for {@link #next()}
+	 * and {@link #allocate(long)}.
+	 * Threads that stop using the allocator should call this to not lose the
+	 * values.
+	 */
+	public void releaseCache() {
+		long[] cache = this.cache.get();
+		if (cache[1] != 0) {
+			this.release(cache[0], cache[0] + cache[1] - 1);
+			cache[1] = 0;
+		}
+	}
+
+	/**
+	 * @return the number of values that are not allocated, as an unsigned
+	 *         value
+	 */
+	public long remaining() {
+		return (capacity - cursor.get()) + released.sum();
+	}
+
+	/**
+	 * Takes a block from the released blocks, using the end of the first that
+	 * is large enough.
+	 *
+	 * @param partial whether to take a smaller block if there is no block of
+	 *            the given size
+	 * @return the block, or {@code null} if there is none
+	 */
+	private LongRange reuse(long count, boolean partial) {
+		search: while (true) {
+			for (Map.Entry<Long, Long> entry : free.entrySet()) {
+				long from = entry.getKey();
+				long to = entry.getValue();
+				long size = to - from + 1;
+				if (partial || Long.compareUnsigned(size, count) >= 0) {
+					// Take the values from the end, so the entry keeps its key
+					long take = (Long.compareUnsigned(size, count) < 0 ? size : count);
+					if (take == size ? !free.remove(from, to) : !free.replace(from, to, to - take)) {
+						continue search;
+					}
+					released.add(-take);
+					return new LongRange(to - take + 1, to);
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Takes a block from the start of the unallocated part of the range.
+	 *
+	 * @param partial whether to take the remaining values if there are fewer
+	 *            than the given number
+	 * @return the block, or {@code null} if there is none
+	 */
+	private LongRange take(long count, boolean partial) {
+		while (true) {
+			long offset = cursor.get();
+			long available = capacity - offset;
+			if (available == 0 || (!partial && Long.compareUnsigned(available, count) < 0)) {
+				return null;
+			}
+			long take = (Long.compareUnsigned(available, count) < 0 ? available : count);
+			if (cursor.compareAndSet(offset, offset + take)) {
+				long from = range.getFrom() + offset;
+				return new LongRange(from, from + take - 1);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[range=" + range + ", remaining=" + Long.toUnsignedString(remaining()) + "]";
+	}
+}
\ No newline at end of file
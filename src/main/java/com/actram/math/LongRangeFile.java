@@ -0,0 +1,254 @@
+package com.actram.math;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Read-only table of sorted, disjoint {@code long} ranges in a memory-mapped
+ * file, for tables that are too large for the heap or that are shared by
+ * several processes.
+ * <p>
+ * The file consists of a header of {@value #HEADER_BYTES} bytes followed by
+ * one entry of {@value #ENTRY_BYTES} bytes per range: the minimum and the
+ * maximum as big-endian {@code long}s. The ranges are sorted by their
+ * minimums and do not overlap, so the maximums are sorted as well. Files are
+ * created with a {@link LongRangeFileWriter}.
+ * <p>
+ * The file is mapped in segments of at most 1 GiB, since a
+ * {@link ByteBuffer} cannot hold more. Queries binary-search the entries in
+ * place and read them with absolute gets, so they do not create range
+ * objects, and opening a file only reads its header: the operating system
+ * pages the entries in as they are searched, and shares the pages between
+ * processes. Instances are immutable and can be used by several threads at
+ * once. The mapping stays valid until the instance is garbage collected.
+ *
+ * @author Peter André Johansen
+ * @see LongRangeFileWriter
+ */
+public class LongRangeFile {
+
+	/**
+	 * Receives the ranges found by a query.
+	 */
+	@FunctionalInterface
+	public interface Visitor {
+		/**
+		 * @param index the position of the range in the file
+		 */
+		void visit(long index, long from, long to);
+	}
+
+	/** The number of bytes of one range. */
+	public static final int ENTRY_BYTES = 16;
+
+	/** The number of bytes before the first range. */
+	public static final int HEADER_BYTES = 64;
+
+	/** The first four bytes of every file ({@code "LRNG"}). */
+	static final int MAGIC = 0x4C524E47;
+
+	/** The version of the format. */
+	static final int VERSION = 1;
+
+	/**
+	 * The binary logarithm of the segment size. Segments are a multiple of
+	 * the entry size, so no entry spans two segments.
+	 */
+	private static final int SEGMENT_SHIFT = 30;
+
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	private final ByteBuffer[] segments;
+	private final long size;
+
+	/**
+	 * Maps the given file.
+	 *
+	 * @throws IOException if the file cannot be read or is not a range file
+	 */
+	public LongRangeFile(Path path) throws IOException {
+		Objects.requireNonNull(path, "path cannot be null");
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long length = channel.size();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+				// Read the whole header
+			}
+			if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+				throw new IOException("not a range file: " + path);
+			}
+			if (header.getInt(4) != VERSION) {
+				throw new IOException("unsupported version=" + header.getInt(4) + " of range file: " + path);
+			}
+			this.size = header.getLong(8);
+			if (size < 0 || size > (length - HEADER_BYTES) / ENTRY_BYTES || HEADER_BYTES + size * ENTRY_BYTES != length) {
+				throw new IOException("size=" + size + " does not match length=" + length + " of range file: " + path);
+			}
+
+			this.segments = new ByteBuffer[(int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+			for (int i = 0; i < segments.length; i++) {
+				long position = (long) i << SEGMENT_SHIFT;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(length - position, 1L << SEGMENT_SHIFT));
+			}
+		}
+	}
+
+	/**
+	 * @return whether any range contains the given value
+	 */
+	public boolean contains(long value) {
+		return (indexOf(value) >= 0);
+	}
+
+	/**
+	 * @return the number of ranges that overlap the given range
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public long countOverlapping(long from, long to) {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		return Math.max(0, firstFromAfter(to) - firstToFrom(from));
+	}
+
+	/**
+	 * @return the range at the given index
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public LongRange get(long index) {
+		return new LongRange(getFrom(index), getTo(index));
+	}
+
+	/**
+	 * @return the minimum of the range at the given index
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public long getFrom(long index) {
+		checkIndex(index);
+		return from(index);
+	}
+
+	/**
+	 * @return the maximum of the range at the given index
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public long getTo(long index) {
+		checkIndex(index);
+		return to(index);
+	}
+
+	/**
+	 * @return the index of the range that contains the given value, or
+	 *         {@code -1} if no range contains it
+	 */
+	public long indexOf(long value) {
+		long index = firstToFrom(value);
+		return (index < size && from(index) <= value ? index : -1);
+	}
+
+	/**
+	 * @return whether any range overlaps the given range
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public boolean overlaps(long from, long to) {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		long index = firstToFrom(from);
+		return (index < size && from(index) <= to);
+	}
+
+	/**
+	 * @return the number of ranges in the file
+	 */
+	public long size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[size=" + size + "]";
+	}
+
+	/**
+	 * Passes the ranges that overlap the given range to the visitor, in
+	 * ascending order.
+	 *
+	 * @return the number of ranges visited
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public long visitOverlapping(long from, long to, Visitor visitor) {
+		Objects.requireNonNull(visitor, "visitor cannot be null");
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		long start = firstToFrom(from);
+		long index = start;
+		for (; index < size; index++) {
+			long entryFrom = from(index);
+			if (entryFrom > to) {
+				break;
+			}
+			visitor.visit(index, entryFrom, to(index));
+		}
+		return (index - start);
+	}
+
+	private void checkIndex(long index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+		}
+	}
+
+	/**
+	 * @return the index of the first range whose minimum is larger than the
+	 *         given value, or the size if there is none
+	 */
+	private long firstFromAfter(long value) {
+		long low = 0;
+		long high = size;
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if (from(middle) <= value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return the index of the first range whose maximum is at least the
+	 *         given value, or the size if there is none
+	 */
+	private long firstToFrom(long value) {
+		long low = 0;
+		long high = size;
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if (to(middle) < value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private long from(long index) {
+		return read(HEADER_BYTES + index * ENTRY_BYTES);
+	}
+
+	private long read(long offset) {
+		return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK));
+	}
+
+	private long to(long index) {
+		return read(HEADER_BYTES + index * ENTRY_BYTES + Long.BYTES);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.actram.math;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Writes sorted, disjoint {@code long} ranges to a file in the format of
+ * {@link LongRangeFile}.
+ * <p>
+ * The ranges are written one at a time, so the table never has to be in
+ * memory as a whole. The header is written last, on {@link #close()}, so a
+ * file whose writer was not closed cannot be opened. Neither can a file whose
+ * writer was {@link #abort() aborted} or failed to write a range, so that a
+ * writer used in a {@code try}-with-resources statement that ends with an
+ * exception does not leave a valid file with only some of the ranges. This
+ * class is not thread-safe.
+ *
+ * @author Peter André Johansen
+ * @see LongRangeFile
+ */
+public class LongRangeFileWriter implements Closeable {
+	/** The default size of the buffer, in bytes. */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+
+	/** The number of ranges written so far. */
+	private long size;
+
+	/** The maximum of the last range written. */
+	private long previousTo;
+
+	/** Whether a write failed or the writer was aborted. */
+	private boolean failed;
+
+	private boolean closed;
+
+	/**
+	 * Creates the given file, replacing any existing file.
+	 */
+	public LongRangeFileWriter(Path path) throws IOException {
+		this(path, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates the given file, replacing any existing file.
+	 *
+	 * @throws IllegalArgumentException if the buffer size is less than the
+	 *             size of a range
+	 */
+	public LongRangeFileWriter(Path path, int bufferSize) throws IOException {
+		Objects.requireNonNull(path, "path cannot be null");
+		if (bufferSize < LongRangeFile.ENTRY_BYTES) {
+			throw new IllegalArgumentException("buffer size must be at least " + LongRangeFile.ENTRY_BYTES);
+		}
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		this.channel.position(LongRangeFile.HEADER_BYTES);
+	}
+
+	/**
+	 * Closes the file without writing the header, so that it cannot be opened.
+	 * Does nothing if the writer is closed.
+	 */
+	public void abort() throws IOException {
+		failed = true;
+		close();
+	}
+
+	private void append(long from, long to) throws IOException {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		if (size > 0 && from <= previousTo) {
+			throw new IllegalArgumentException("ranges must be sorted and disjoint: [" + from + ", " + to + "] follows a range ending at " + previousTo);
+		}
+		if (buffer.remaining() < LongRangeFile.ENTRY_BYTES) {
+			flush();
+		}
+		buffer.putLong(from).putLong(to);
+		previousTo = to;
+		size++;
+	}
+
+	/**
+	 * Writes the buffered ranges and the header, and closes the file. If a
+	 * write failed, the file is closed without the header, as by
+	 * {@link #abort()}. Does nothing if the writer is closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (!failed) {
+				flush();
+				ByteBuffer header = ByteBuffer.allocate(LongRangeFile.HEADER_BYTES);
+				header.putInt(LongRangeFile.MAGIC).putInt(LongRangeFile.VERSION).putLong(size).clear();
+				while (header.hasRemaining()) {
+					channel.write(header, header.position());
+				}
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * @return the number of ranges written so far
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Writes all ranges of the given iterator. If this throws an exception,
+	 * including one of the iterator, the header is not written on
+	 * {@link #close()}.
+	 *
+	 * @throws IllegalArgumentException if the ranges are not sorted or
+	 *             overlap
+	 */
+	public void write(Iterator<? extends LongRange> ranges) throws IOException {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		try {
+			while (ranges.hasNext()) {
+				write(ranges.next());
+			}
+		} catch (IOException | RuntimeException e) {
+			failed = true;
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the given range.
+	 *
+	 * @throws IllegalArgumentException if the range does not start after the
+	 *             previous one
+	 */
+	public void write(LongRange range) throws IOException {
+		Objects.requireNonNull(range, "range cannot be null");
+		write(range.getFrom(), range.getTo());
+	}
+
+	/**
+	 * Writes a range with the given bounds. If this throws an exception, the
+	 * header is not written on {@link #close()}.
+	 *
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 *             or the range does not start after the previous one
+	 * @throws ClosedChannelException if the writer is closed
+	 */
+	public void write(long from, long to) throws IOException {
+		if (closed) {
+			throw new ClosedChannelException();
+		}
+		try {
+			append(from, to);
+		} catch (IOException | RuntimeException e) {
+			failed = true;
+			throw e;
+		}
+	}
+}
\ No newline at end of file
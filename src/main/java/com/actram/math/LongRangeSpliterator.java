@@ -0,0 +1,100 @@
+package com.actram.math;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Spliterator over the values of a {@code long} range with a fixed step.
+ * <p>
+ * The values are addressed by their index, so splitting halves the remaining
+ * indices exactly and every part knows its size.
+ *
+ * @author Peter André Johansen
+ */
+class LongRangeSpliterator implements Spliterator.OfLong {
+
+	/**
+	 * Returns a spliterator over every {@code step}-th value of the given
+	 * (inclusive) range. A positive step starts at the minimum, a negative step
+	 * starts at the maximum.
+	 *
+	 * @throws IllegalArgumentException if the step is zero
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	static LongRangeSpliterator of(long from, long to, long step) {
+		if (step == 0) {
+			throw new IllegalArgumentException("step cannot be zero");
+		}
+
+		// The span and step magnitude are unsigned, since
+		// both may be larger than Long.MAX_VALUE
+		long steps = Long.divideUnsigned(to - from, (step > 0 ? step : -step));
+		if (steps == Long.MAX_VALUE || steps < 0) {
+			throw new ArithmeticException("the range has more than " + Long.MAX_VALUE + " values");
+		}
+		return new LongRangeSpliterator((step > 0 ? from : to), step, 0, steps + 1);
+	}
+
+	private final long first;
+	private final long step;
+	private long index;
+	private final long fence;
+
+	private LongRangeSpliterator(long first, long step, long index, long fence) {
+		this.first = first;
+		this.step = step;
+		this.index = index;
+		this.fence = fence;
+	}
+
+	@Override
+	public int characteristics() {
+		int characteristics = ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+		return (step > 0 ? characteristics | SORTED : characteristics);
+	}
+
+	@Override
+	public long estimateSize() {
+		return (fence - index);
+	}
+
+	@Override
+	public void forEachRemaining(LongConsumer action) {
+		long value = first + index * step;
+		long remaining = fence - index;
+		index = fence;
+		for (long i = 0; i < remaining; i++, value += step) {
+			action.accept(value);
+		}
+	}
+
+	@Override
+	public Comparator<? super Long> getComparator() {
+		if (step > 0) {
+			return null;
+		}
+		throw new IllegalStateException();
+	}
+
+	@Override
+	public boolean tryAdvance(LongConsumer action) {
+		if (index >= fence) {
+			return false;
+		}
+		action.accept(first + index++ * step);
+		return true;
+	}
+
+	@Override
+	public LongRangeSpliterator trySplit() {
+		long mid = index + ((fence - index) >>> 1);
+		if (mid <= index) {
+			return null;
+		}
+		LongRangeSpliterator prefix = new LongRangeSpliterator(first, step, index, mid);
+		index = mid;
+		return prefix;
+	}
+}
\ No newline at end of file
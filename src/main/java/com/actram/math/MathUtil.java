@@ -1,11 +1,117 @@
 package com.actram.math;
 
+import java.math.BigInteger;
+
 /**
  * Static utility methods for mathematical operations.
  *
  * @author Peter André Johansen
  */
 public class MathUtil {
+	/** The number of leading bits used by each step of Lehmer's algorithm. */
+	private static final int LEHMER_BITS = Long.SIZE - 3;
+
+	/**
+	 * The bit length below which {@link BigInteger#gcd(BigInteger)} is faster
+	 * than Lehmer's algorithm.
+	 */
+	private static final int LEHMER_THRESHOLD = 384;
+
+	/**
+	 * Calculates the greatest common divisor by using the
+	 * <a href="https://en.wikipedia.org/wiki/Binary_GCD_algorithm">binary GCD
+	 * algorithm</a> (Stein's algorithm), which replaces the divisions of the
+	 * Euclidean algorithm with shifts and subtractions.
+	 * <p>
+	 * The result is never negative, except when it is {@code 2^31}, which
+	 * overflows to {@link Integer#MIN_VALUE} (like {@link Math#abs(int)}).
+	 *
+	 * @return the greatest common divisor
+	 */
+	public static int binaryGcd(int a, int b) {
+		if (a == 0) return Math.abs(b);
+		if (b == 0) return Math.abs(a);
+
+		a = Math.abs(a);
+		b = Math.abs(b);
+		int aTwos = Integer.numberOfTrailingZeros(a);
+		int bTwos = Integer.numberOfTrailingZeros(b);
+		a >>>= aTwos;
+		b >>>= bTwos;
+
+		// Both values are odd, so their difference is even. The
+		// difference and minimum are computed without branches.
+		while (a != b) {
+			int delta = a - b;
+			int minDeltaOrZero = delta & (delta >> (Integer.SIZE - 1));
+			a = delta - minDeltaOrZero - minDeltaOrZero;
+			b += minDeltaOrZero;
+			a >>>= Integer.numberOfTrailingZeros(a);
+		}
+		return a << Math.min(aTwos, bTwos);
+	}
+
+	/**
+	 * Calculates the greatest common divisor by using the
+	 * <a href="https://en.wikipedia.org/wiki/Binary_GCD_algorithm">binary GCD
+	 * algorithm</a>.
+	 * <p>
+	 * The result is never negative, except when it is {@code 2^63}, which
+	 * overflows to {@link Long#MIN_VALUE} (like {@link Math#abs(long)}).
+	 *
+	 * @return the greatest common divisor
+	 * @see #binaryGcd(int, int)
+	 */
+	public static long binaryGcd(long a, long b) {
+		if (a == 0) return Math.abs(b);
+		if (b == 0) return Math.abs(a);
+
+		a = Math.abs(a);
+		b = Math.abs(b);
+		int aTwos = Long.numberOfTrailingZeros(a);
+		int bTwos = Long.numberOfTrailingZeros(b);
+		a >>>= aTwos;
+		b >>>= bTwos;
+		while (a != b) {
+			long delta = a - b;
+			long minDeltaOrZero = delta & (delta >> (Long.SIZE - 1));
+			a = delta - minDeltaOrZero - minDeltaOrZero;
+			b += minDeltaOrZero;
+			a >>>= Long.numberOfTrailingZeros(a);
+		}
+		return a << Math.min(aTwos, bTwos);
+	}
+
+	/**
+	 * Calculates the greatest common divisor and the Bézout coefficients by
+	 * using the
+	 * <a href="https://en.wikipedia.org/wiki/Extended_Euclidean_algorithm">
+	 * extended Euclidean algorithm</a>.
+	 *
+	 * @return the array {@code {gcd, x, y}} where {@code a*x + b*y = gcd} and
+	 *         {@code gcd} is not negative
+	 */
+	public static long[] extendedGcd(long a, long b) {
+		long x = 1, y = 0;
+		long nextX = 0, nextY = 1;
+		while (b != 0) {
+			long quotient = a / b;
+			long r = a - quotient * b;
+			a = b;
+			b = r;
+
+			long t = x - quotient * nextX;
+			x = nextX;
+			nextX = t;
+			t = y - quotient * nextY;
+			y = nextY;
+			nextY = t;
+		}
+		if (a < 0) {
+			return new long[] { -a, -x, -y };
+		}
+		return new long[] { a, x, y };
+	}
 
 	/**
 	 * Calculates the greatest common divisor by using the
@@ -25,6 +131,122 @@ public class MathUtil {
 		return p;
 	}
 
+	/**
+	 * Calculates the greatest common divisor by using the
+	 * <a href="https://en.wikipedia.org/wiki/Euclidean_algorithm">Euclidean
+	 * algorithm</a>.
+	 * 
+	 * @param p the numerator
+	 * @param q the denominator
+	 * @return the greatest common divisor
+	 */
+	public static long gcd(long p, long q) {
+		while (q != 0) {
+			long r = q;
+			q = p % q;
+			p = r;
+		}
+		return p;
+	}
+
+	/**
+	 * Calculates the greatest common divisor of each pair {@code a[i], b[i]}
+	 * with {@link #binaryGcd(int, int)} and stores it in {@code out[i]}.
+	 *
+	 * @throws IllegalArgumentException if the arrays do not have the same
+	 *             length
+	 */
+	public static void gcd(int[] a, int[] b, int[] out) {
+		if (a.length != b.length || a.length != out.length) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+		for (int i = 0; i < out.length; i++) {
+			out[i] = binaryGcd(a[i], b[i]);
+		}
+	}
+
+	/**
+	 * Calculates the greatest common divisor by using
+	 * <a href="https://en.wikipedia.org/wiki/Lehmer%27s_GCD_algorithm">Lehmer's
+	 * algorithm</a>. While the operands are large, several Euclidean steps are
+	 * simulated on their leading bits and then applied to the full values at
+	 * once. Small operands are finished with {@link BigInteger#gcd(BigInteger)}.
+	 *
+	 * @return the greatest common divisor, which is never negative
+	 * @throws NullPointerException if either value is null
+	 */
+	public static BigInteger gcd(BigInteger a, BigInteger b) {
+		a = a.abs();
+		b = b.abs();
+		if (a.compareTo(b) < 0) {
+			BigInteger temp = a;
+			a = b;
+			b = temp;
+		}
+
+		while (b.bitLength() >= LEHMER_THRESHOLD) {
+			int shift = a.bitLength() - LEHMER_BITS;
+			long x = a.shiftRight(shift).longValue();
+			long y = b.shiftRight(shift).longValue();
+
+			// Run the Euclidean algorithm on the leading bits for as long
+			// as the quotients are guaranteed to match the full values
+			long ca = 1, cb = 0, cc = 0, cd = 1;
+			while (y + cc != 0 && y + cd != 0) {
+				long q = Math.floorDiv(x + ca, y + cc);
+				if (q != Math.floorDiv(x + cb, y + cd)) {
+					break;
+				}
+				long t = ca - q * cc;
+				ca = cc;
+				cc = t;
+				t = cb - q * cd;
+				cb = cd;
+				cd = t;
+				t = x - q * y;
+				x = y;
+				y = t;
+			}
+
+			if (cb == 0) {
+
+				// No step could be simulated, so do a full one
+				BigInteger r = a.mod(b);
+				a = b;
+				b = r;
+			} else {
+				BigInteger nextA = a.multiply(BigInteger.valueOf(ca)).add(b.multiply(BigInteger.valueOf(cb)));
+				BigInteger nextB = a.multiply(BigInteger.valueOf(cc)).add(b.multiply(BigInteger.valueOf(cd)));
+				a = nextA;
+				b = nextB;
+			}
+		}
+
+		return a.gcd(b);
+	}
+
+	/**
+	 * @return the least common multiple, which is never negative
+	 * @throws ArithmeticException if the result does not fit in an
+	 *             {@code int}
+	 */
+	public static int lcm(int a, int b) {
+		return Math.toIntExact(lcm((long) a, (long) b));
+	}
+
+	/**
+	 * @return the least common multiple, which is never negative
+	 * @throws ArithmeticException if the result does not fit in a
+	 *             {@code long}
+	 */
+	public static long lcm(long a, long b) {
+		if (a == 0 || b == 0) {
+			return 0;
+		}
+		long lcm = Math.multiplyExact(a / binaryGcd(a, b), b);
+		return (lcm < 0 ? Math.negateExact(lcm) : lcm);
+	}
+
 	/** Prevent instantiation. */
 	private MathUtil() {}
 }
\ No newline at end of file
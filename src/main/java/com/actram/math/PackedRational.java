@@ -0,0 +1,235 @@
+package com.actram.math;
+
+import java.util.Objects;
+
+/**
+ * Static methods for rational numbers packed into a single {@code long}.
+ * <p>
+ * The upper 32 bits hold the numerator (including the sign) and the lower 32
+ * bits hold the denominator, which is always positive. Every packed value
+ * produced by this class is reduced, so two packed rationals are equal if and
+ * only if the {@code long}s are equal. The value {@code 0L} has a zero
+ * denominator and is therefore not a valid packed rational; zero is
+ * {@link #ZERO}.
+ * <p>
+ * All methods give the same results as the corresponding methods of
+ * {@link Rational}, including the exceptions, but never allocate. This allows
+ * rationals to be stored in {@code long[]}s and other primitive structures.
+ *
+ * @author Peter André Johansen
+ */
+public class PackedRational {
+	public static final long NEGATIVE_ONE = pack(-1, 1);
+	public static final long ZERO = pack(0, 1);
+	public static final long ONE = pack(1, 1);
+
+	public static long absolute(long a) {
+		return (numerator(a) < 0 ? negate(a) : a);
+	}
+
+	/**
+	 * Returns the closest rational to the given value whose denominator is at
+	 * most the given maximum.
+	 * <p>
+	 * The value is expanded into a continued fraction, which is the
+	 * Stern–Brocot search for the value with the runs of equal steps taken at
+	 * once. The expansion stops once a convergent equals the value (as a
+	 * {@code double}) or the next convergent exceeds the bounds, in which case
+	 * the best semiconvergent is considered as well.
+	 *
+	 * @return the packed rational
+	 * @throws IllegalArgumentException if the value is not finite or the
+	 *             maximum denominator is not positive
+	 * @throws ArithmeticException if the value is out of the {@code int} range
+	 */
+	public static long approximate(double value, int maxDenominator) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			throw new IllegalArgumentException("value must be finite: " + value);
+		}
+		if (maxDenominator < 1) {
+			throw new IllegalArgumentException("maximum denominator must be positive");
+		}
+		if (Math.abs(value) > Integer.MAX_VALUE) {
+			throw new ArithmeticException(value + " is out of the int range");
+		}
+
+		final double target = Math.abs(value);
+		final long maxNumerator = Integer.MAX_VALUE;
+
+		// The two latest convergents
+		long h0 = 0, h1 = 1;
+		long k0 = 1, k1 = 0;
+
+		double x = target;
+		while (true) {
+			double floor = Math.floor(x);
+			long a = (long) floor;
+
+			// The limit on the next term for the bounds to hold
+			long limit = (k1 == 0 ? Long.MAX_VALUE : (maxDenominator - k0) / k1);
+			if (h1 != 0) {
+				limit = Math.min(limit, (maxNumerator - h0) / h1);
+			}
+			if (a > limit) {
+
+				// Compare the best semiconvergent with the last convergent
+				long h = h0 + limit * h1;
+				long k = k0 + limit * k1;
+				if (Math.abs(target - (double) h / k) < Math.abs(target - (double) h1 / k1)) {
+					h1 = h;
+					k1 = k;
+				}
+				break;
+			}
+
+			long h2 = a * h1 + h0;
+			long k2 = a * k1 + k0;
+			h0 = h1;
+			h1 = h2;
+			k0 = k1;
+			k1 = k2;
+			if ((double) h1 / k1 == target || x == floor) {
+				break;
+			}
+			x = 1 / (x - floor);
+		}
+		return packReduced((int) (value < 0 ? -h1 : h1), (int) k1);
+	}
+
+	public static long add(long a, long b) {
+		final long q1 = denominator(a);
+		final long q2 = denominator(b);
+		if (q1 == q2) {
+			return reduce((long) numerator(a) + numerator(b), q1);
+		}
+		return reduce(numerator(a) * q2 + numerator(b) * q1, q1 * q2);
+	}
+
+	/**
+	 * @return a negative value, zero or a positive value if the first rational
+	 *         is less than, equal to or greater than the second rational
+	 */
+	public static int compare(long a, long b) {
+		return Long.compare((long) numerator(a) * denominator(b), (long) numerator(b) * denominator(a));
+	}
+
+	/**
+	 * @return the denominator of the given packed rational, which is always
+	 *         positive
+	 */
+	public static int denominator(long a) {
+		return (int) a;
+	}
+
+	public static long divide(long a, long b) {
+		return reduce((long) numerator(a) * denominator(b), (long) denominator(a) * numerator(b));
+	}
+
+	public static long inverse(long a) {
+		return reduce(denominator(a), numerator(a));
+	}
+
+	public static boolean isNegative(long a) {
+		return (a < 0);
+	}
+
+	public static long multiply(long a, long b) {
+		return reduce((long) numerator(a) * numerator(b), (long) denominator(a) * denominator(b));
+	}
+
+	/**
+	 * @throws ArithmeticException if the numerator is {@link Integer#MIN_VALUE}
+	 */
+	public static long negate(long a) {
+		return packReduced(Math.negateExact(numerator(a)), denominator(a));
+	}
+
+	/**
+	 * @return the numerator of the given packed rational, including the sign
+	 */
+	public static int numerator(long a) {
+		return (int) (a >> Integer.SIZE);
+	}
+
+	/**
+	 * @return the reduced packed rational with the given value
+	 * @throws IllegalArgumentException if the denominator is zero
+	 * @throws ArithmeticException if the reduced fraction does not fit in an
+	 *             {@code int}
+	 */
+	public static long pack(int p, int q) {
+		return reduce(p, q);
+	}
+
+	/**
+	 * @return the given rational as a packed rational
+	 */
+	public static long pack(Rational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		return packReduced(r.signedNumerator(), r.getDenominator());
+	}
+
+	/**
+	 * Packs the given fraction, which must already be reduced and have a
+	 * positive denominator.
+	 */
+	private static long packReduced(int p, int q) {
+		return (((long) p) << Integer.SIZE) | (q & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Reduces the given fraction, which may be the result of {@code long}
+	 * arithmetic, and packs it.
+	 *
+	 * @return the packed rational
+	 * @throws IllegalArgumentException if the denominator is zero
+	 * @throws ArithmeticException if the reduced fraction does not fit in an
+	 *             {@code int}
+	 */
+	public static long reduce(long p, long q) {
+		if (q == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+
+		// Store the sign in the numerator
+		if (q < 0) {
+			p = -p;
+			q = -q;
+		}
+
+		// Reduce the fraction as much as possible
+		long gcd = MathUtil.binaryGcd(p, q);
+		return packReduced(Math.toIntExact(p / gcd), Math.toIntExact(q / gcd));
+	}
+
+	public static int signum(long a) {
+		return Integer.signum(numerator(a));
+	}
+
+	public static long subtract(long a, long b) {
+		final long q1 = denominator(a);
+		final long q2 = denominator(b);
+		if (q1 == q2) {
+			return reduce((long) numerator(a) - numerator(b), q1);
+		}
+		return reduce(numerator(a) * q2 - numerator(b) * q1, q1 * q2);
+	}
+
+	public static double toDouble(long a) {
+		return (((double) numerator(a)) / denominator(a));
+	}
+
+	public static String toString(long a) {
+		return numerator(a) + "/" + denominator(a);
+	}
+
+	/**
+	 * @return the given packed rational as a {@link Rational}
+	 */
+	public static Rational unpack(long a) {
+		return Rational.valueOf(numerator(a), denominator(a));
+	}
+
+	/** Prevent instantiation. */
+	private PackedRational() {}
+}
\ No newline at end of file
@@ -0,0 +1,537 @@
+package com.actram.math;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable {@code double} range with chainable methods, backed by primitive
+ * fields.
+ * <p>
+ * Offers the same operations as {@link DoubleRange}, but never boxes its
+ * values. Use {@link #PrimitiveDoubleRange(AbstractRange)} and
+ * {@link #toRange()} to convert between the two.
+ * <p>
+ * Values are compared with the primitive operators, so {@code NaN} is never
+ * contained in a range and {@code -0.0} equals {@code 0.0} when checking
+ * boundaries.
+ *
+ * @author Peter André Johansen
+ */
+public class PrimitiveDoubleRange {
+	protected final double from;
+	protected final double to;
+
+	/**
+	 * Parses a range in the format of {@link #toString()}, such as
+	 * {@code PrimitiveDoubleRange[0.5, 1.0E10]}. The type name is optional.
+	 *
+	 * @return the range
+	 * @throws NumberFormatException if the text is not a range
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public static PrimitiveDoubleRange parse(CharSequence text) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, 0, text.length());
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the bytes (as ASCII) of
+	 * the buffer from the first index (inclusively) to the second
+	 * (exclusively). The position of the buffer is not used or changed.
+	 */
+	public static PrimitiveDoubleRange parse(ByteBuffer buffer, int from, int to) {
+		Objects.requireNonNull(buffer, "buffer cannot be null");
+		return parseRegion(buffer, from, to);
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the characters from the
+	 * first index (inclusively) to the second (exclusively).
+	 */
+	public static PrimitiveDoubleRange parse(CharSequence text, int from, int to) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, from, to);
+	}
+
+	private static PrimitiveDoubleRange parseRegion(Object source, int from, int to) {
+		TextParser.checkRegion(source, from, to);
+		int open = TextParser.openBracket(source, from, to);
+		int close = TextParser.closeBracket(source, open, to);
+		int comma = TextParser.indexOf(source, ',', open, close);
+		return new PrimitiveDoubleRange(TextParser.parseDouble(source, open, comma), TextParser.parseDouble(source, comma + 1, close));
+	}
+
+	public PrimitiveDoubleRange() {
+		this(0);
+	}
+
+	public PrimitiveDoubleRange(AbstractRange<Double> range) {
+		this(Objects.requireNonNull(range, "range cannot be null").getFrom(), range.getTo());
+	}
+
+	public PrimitiveDoubleRange(double value) {
+		this(value, value);
+	}
+
+	public PrimitiveDoubleRange(double from, double to) {
+		if (Double.isNaN(from) || Double.isNaN(to)) {
+			throw new IllegalArgumentException("minimum=" + from + " and maximum=" + to + " cannot be NaN");
+		}
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Appends this range, in the format of {@link #toString()}, to the given
+	 * builder.
+	 *
+	 * @return the builder
+	 */
+	public StringBuilder appendTo(StringBuilder builder) {
+		return builder.append(getClass().getSimpleName()).append('[').append(from).append(", ").append(to).append(']');
+	}
+
+	/**
+	 * @return the center, expressed as a range
+	 */
+	public PrimitiveDoubleRange center() {
+		return this.set(from + distance() / 2);
+	}
+
+	/**
+	 * Stores each of the given values, clamped to this range, in the result
+	 * array (which may be the values array).
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void clamp(double[] values, double[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.clamp(values, from, to, result);
+	}
+
+	/**
+	 * Classifies each of the given values as below ({@code -1}), inside
+	 * ({@code 0}) or above ({@code 1}) this range. NaN is classified as
+	 * above.
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void classify(double[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.classify(values, from, to, result);
+	}
+
+	/**
+	 * @return whether this range completely encompasses the given range
+	 */
+	public boolean contains(AbstractRange<Double> range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return (this.contains(range.getFrom().doubleValue()) && this.contains(range.getTo().doubleValue()));
+	}
+
+	/**
+	 * @return whether the given value is inside (inclusive) this range
+	 */
+	public boolean contains(double value) {
+		return (value >= from && value <= to);
+	}
+
+	/**
+	 * @return whether this range completely encompasses the given range
+	 */
+	public boolean contains(PrimitiveDoubleRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return (range.from >= this.from && range.to <= this.to);
+	}
+
+	/**
+	 * Sets the bit of each of the given values that is inside (inclusive)
+	 * this range, and clears all other bits of the result.
+	 */
+	public void contains(double[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(double[], BitSet)}, but stores the bit of the value
+	 * at index {@code i} as bit {@code i % 64} of word {@code i / 64} of the
+	 * given words, without allocating.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void contains(double[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * @return the number of the given values that are inside (inclusive) this
+	 *         range
+	 */
+	public int count(double[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.count(values, from, to);
+	}
+
+	/**
+	 * @return the distance the range covers
+	 */
+	public double distance() {
+		return (to - from);
+	}
+
+	/**
+	 * @return the given number of random values from the range (inclusively),
+	 *         drawn from the {@link ThreadLocalRandom}
+	 * @throws IllegalArgumentException if the count is negative
+	 */
+	public double[] doubles(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count cannot be negative");
+		}
+		double[] values = new double[count];
+		RandomUtil.fill(values, ThreadLocalRandom.current(), from, to);
+		return values;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		PrimitiveDoubleRange other = (PrimitiveDoubleRange) obj;
+		if (Double.compare(from, other.from) != 0) return false;
+		if (Double.compare(to, other.to) != 0) return false;
+		return true;
+	}
+
+	/**
+	 * @return a range with the given amount subtracted and added to the minimum
+	 *         and maximum value, respectively, of this range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveDoubleRange extend(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.set(from - amount, to + amount);
+	}
+
+	/**
+	 * @return a range with the given amount added to the maximum value of this
+	 *         range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveDoubleRange extendMaximum(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setTo(to + amount);
+	}
+
+	/**
+	 * @return a range with the given amount subtracted from the minimum value
+	 *         of this range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveDoubleRange extendMinimum(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setFrom(from - amount);
+	}
+
+	/**
+	 * Fills the given array with random values from the range (inclusively).
+	 */
+	public void fill(double[] values, SplittableRandom random) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(random, "random cannot be null");
+		RandomUtil.fill(values, random, from, to);
+	}
+
+	/**
+	 * @return the smallest value (the minimum) of this range
+	 */
+	public double getFrom() {
+		return from;
+	}
+
+	/**
+	 * @return the largest value (the maximum) of this range
+	 */
+	public double getTo() {
+		return to;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Double.hashCode(from);
+		result = prime * result + Double.hashCode(to);
+		return result;
+	}
+
+	/**
+	 * @return whether the given value is exactly on either end of this range
+	 */
+	public boolean isBoundary(double value) {
+		return (from == value || to == value);
+	}
+
+	/**
+	 * @return whether the minimum of this range is larger than the given value
+	 */
+	public boolean isOver(double value) {
+		return (from > value);
+	}
+
+	/**
+	 * @return whether the maximum of this range is smaller than the given value
+	 */
+	public boolean isUnder(double value) {
+		return (to < value);
+	}
+
+	/**
+	 * @return the largest maximum of this and the given range
+	 * @throws NullPointerException if the given range is null
+	 */
+	public double maximum(PrimitiveDoubleRange range) {
+		return Math.max(this.to, range.to);
+	}
+
+	/**
+	 * @return the smallest minimum of this and the given range
+	 * @throws NullPointerException if the given range is null
+	 */
+	public double minimum(PrimitiveDoubleRange range) {
+		return Math.min(this.from, range.from);
+	}
+
+	/**
+	 * @return whether the given range overlaps this range
+	 * @throws NullPointerException if the given range is null
+	 */
+	public boolean overlaps(AbstractRange<Double> range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return !(this.to < range.getFrom() || range.getTo() < this.from);
+	}
+
+	/**
+	 * @return whether the given range overlaps this range
+	 * @throws NullPointerException if the given range is null
+	 */
+	public boolean overlaps(PrimitiveDoubleRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return !(this.to < range.from || range.to < this.from);
+	}
+
+	/**
+	 * Like {@link #clamp(double[], double[])}, but splits the work over multiple
+	 * threads for large arrays.
+	 */
+	public void parallelClamp(double[] values, double[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClamp(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #classify(double[], byte[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelClassify(double[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClassify(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(double[], BitSet)}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelContains(double[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(double[], long[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void parallelContains(double[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #count(double[])}, but splits the work over multiple threads
+	 * for large arrays.
+	 */
+	public int parallelCount(double[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.parallelCount(values, from, to);
+	}
+
+	/**
+	 * @return a random value from the range (inclusively)
+	 */
+	public double randomValue() {
+		return this.randomValue(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * @return a random value from the range (inclusively)
+	 */
+	public double randomValue(Random random) {
+		Objects.requireNonNull(random, "random cannot be null");
+		return RandomUtil.scale(random.nextDouble(), from, to);
+	}
+
+	/**
+	 * Returns a range with the given values. The smallest value will be used as
+	 * the minimum and the largest will be used as the maximum.
+	 * <p>
+	 * This method will never produce an illegal range (i.e. one where the
+	 * maximum is smaller than the minimum).
+	 *
+	 * @return the new range
+	 */
+	public PrimitiveDoubleRange safeSet(double value1, double value2) {
+		return this.set(Math.min(value1, value2), Math.max(value1, value2));
+	}
+
+	/**
+	 * @return this range with the given value as both the minimum and maximum
+	 */
+	public PrimitiveDoubleRange set(double value) {
+		return this.set(value, value);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the minimum is larger than the
+	 *             maximum
+	 * @return a range with the given boundaries
+	 */
+	public PrimitiveDoubleRange set(double from, double to) {
+		return new PrimitiveDoubleRange(from, to);
+	}
+
+	/**
+	 * @return this range with the given minimum
+	 * @throws IllegalArgumentException if the given value is larger than the
+	 *             maximum
+	 */
+	public PrimitiveDoubleRange setFrom(double from) {
+		return this.set(from, this.to);
+	}
+
+	/**
+	 * @return this range with the given maximum
+	 * @throws IllegalArgumentException if the given value is smaller than the
+	 *             minimum
+	 */
+	public PrimitiveDoubleRange setTo(double to) {
+		return this.set(this.from, to);
+	}
+
+	/**
+	 * @return a range moved by the given amount
+	 */
+	public PrimitiveDoubleRange shift(double amount) {
+		return this.set(from + amount, to + amount);
+	}
+
+	/**
+	 * @return this range as a {@link DoubleRange}
+	 */
+	public DoubleRange toRange() {
+		return new DoubleRange(from, to);
+	}
+
+	@Override
+	public String toString() {
+		return this.appendTo(new StringBuilder()).toString();
+	}
+
+	/**
+	 * Returns a range with the given amount added and subtracted to the minimum
+	 * and maximum value, respectively, of this range.
+	 * <p>
+	 * If the result of this operation creates an illegal range, a range with
+	 * equal minimum and maximum values will be returned instead. The values
+	 * will be equal the center value of the range.
+	 *
+	 * @return the new range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveDoubleRange trim(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+
+		double min = from + amount;
+		double max = to - amount;
+		if (min > max) {
+			min = max = from + (to - from) / 2;
+		}
+		return this.set(min, max);
+	}
+
+	/**
+	 * Returns a range with the given amount subtracted from the maximum value
+	 * of this range.
+	 * <p>
+	 * If the result of this operation creates an illegal range, a range with
+	 * equal minimum and maximum values will be returned instead. The values
+	 * will equal to the minimum value of this range.
+	 *
+	 * @return the new range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveDoubleRange trimMaximum(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setTo(Math.max(to - amount, from));
+	}
+
+	/**
+	 * Returns a range with the given amount added to the minimum value of this
+	 * range.
+	 * <p>
+	 * If the result of this operation creates an illegal range, a range with
+	 * equal minimum and maximum values will be returned instead. The values
+	 * will equal to the maximum value of this range.
+	 *
+	 * @return the new range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveDoubleRange trimMinimum(double amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setFrom(Math.min(from + amount, to));
+	}
+}
\ No newline at end of file
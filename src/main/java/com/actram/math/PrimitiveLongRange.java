@@ -0,0 +1,591 @@
+package com.actram.math;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable {@code long} range with chainable methods, backed by primitive
+ * fields.
+ * <p>
+ * Offers the same operations as {@link LongRange}, but never boxes its
+ * values. Use {@link #PrimitiveLongRange(AbstractRange)} and
+ * {@link #toRange()} to convert between the two.
+ *
+ * @author Peter André Johansen
+ */
+public class PrimitiveLongRange {
+	protected final long from;
+	protected final long to;
+
+	/**
+	 * Parses a range in the format of {@link #toString()}, such as
+	 * {@code PrimitiveLongRange[5, 10]}. The type name is optional.
+	 *
+	 * @return the range
+	 * @throws NumberFormatException if the text is not a range
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public static PrimitiveLongRange parse(CharSequence text) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, 0, text.length());
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the bytes (as ASCII) of
+	 * the buffer from the first index (inclusively) to the second
+	 * (exclusively). The position of the buffer is not used or changed.
+	 */
+	public static PrimitiveLongRange parse(ByteBuffer buffer, int from, int to) {
+		Objects.requireNonNull(buffer, "buffer cannot be null");
+		return parseRegion(buffer, from, to);
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the characters from the
+	 * first index (inclusively) to the second (exclusively).
+	 */
+	public static PrimitiveLongRange parse(CharSequence text, int from, int to) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, from, to);
+	}
+
+	private static PrimitiveLongRange parseRegion(Object source, int from, int to) {
+		TextParser.checkRegion(source, from, to);
+		int open = TextParser.openBracket(source, from, to);
+		int close = TextParser.closeBracket(source, open, to);
+		int comma = TextParser.indexOf(source, ',', open, close);
+		return new PrimitiveLongRange(TextParser.parseLong(source, open, comma), TextParser.parseLong(source, comma + 1, close));
+	}
+
+	public PrimitiveLongRange() {
+		this(0);
+	}
+
+	public PrimitiveLongRange(AbstractRange<Long> range) {
+		this(Objects.requireNonNull(range, "range cannot be null").getFrom(), range.getTo());
+	}
+
+	public PrimitiveLongRange(long value) {
+		this(value, value);
+	}
+
+	public PrimitiveLongRange(long from, long to) {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Appends this range, in the format of {@link #toString()}, to the given
+	 * builder.
+	 *
+	 * @return the builder
+	 */
+	public StringBuilder appendTo(StringBuilder builder) {
+		return builder.append(getClass().getSimpleName()).append('[').append(from).append(", ").append(to).append(']');
+	}
+
+	/**
+	 * @return the center, expressed as a range
+	 */
+	public PrimitiveLongRange center() {
+		long distance = distance();
+		long min = (from + distance / 2);
+		long max = min;
+		if (distance % 2 != 0) {
+			max++;
+		}
+		return this.set(min, max);
+	}
+
+	/**
+	 * Stores each of the given values, clamped to this range, in the result
+	 * array (which may be the values array).
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void clamp(long[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.clamp(values, from, to, result);
+	}
+
+	/**
+	 * Classifies each of the given values as below ({@code -1}), inside
+	 * ({@code 0}) or above ({@code 1}) this range.
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public void classify(long[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.classify(values, from, to, result);
+	}
+
+	/**
+	 * @return whether this range completely encompasses the given range
+	 */
+	public boolean contains(AbstractRange<Long> range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return (this.contains(range.getFrom().longValue()) && this.contains(range.getTo().longValue()));
+	}
+
+	/**
+	 * @return whether the given value is inside (inclusive) this range
+	 */
+	public boolean contains(long value) {
+		return (value >= from && value <= to);
+	}
+
+	/**
+	 * @return whether this range completely encompasses the given range
+	 */
+	public boolean contains(PrimitiveLongRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return (range.from >= this.from && range.to <= this.to);
+	}
+
+	/**
+	 * Sets the bit of each of the given values that is inside (inclusive)
+	 * this range, and clears all other bits of the result.
+	 */
+	public void contains(long[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(long[], BitSet)}, but stores the bit of the value
+	 * at index {@code i} as bit {@code i % 64} of word {@code i / 64} of the
+	 * given words, without allocating.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void contains(long[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.contains(values, from, to, result);
+	}
+
+	/**
+	 * @return the number of the given values that are inside (inclusive) this
+	 *         range
+	 */
+	public int count(long[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.count(values, from, to);
+	}
+
+	/**
+	 * @return the distance the range covers
+	 */
+	public long distance() {
+		return (to - from);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		PrimitiveLongRange other = (PrimitiveLongRange) obj;
+		if (from != other.from) return false;
+		if (to != other.to) return false;
+		return true;
+	}
+
+	/**
+	 * @return a range with the given amount subtracted and added to the minimum
+	 *         and maximum value, respectively, of this range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveLongRange extend(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.set(from - amount, to + amount);
+	}
+
+	/**
+	 * @return a range with the given amount added to the maximum value of this
+	 *         range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveLongRange extendMaximum(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setTo(to + amount);
+	}
+
+	/**
+	 * @return a range with the given amount subtracted from the minimum value
+	 *         of this range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveLongRange extendMinimum(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setFrom(from - amount);
+	}
+
+	/**
+	 * Fills the given array with random values from the range (inclusively).
+	 */
+	public void fill(long[] values, SplittableRandom random) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(random, "random cannot be null");
+		RandomUtil.fill(values, random, from, to);
+	}
+
+	/**
+	 * @return the smallest value (the minimum) of this range
+	 */
+	public long getFrom() {
+		return from;
+	}
+
+	/**
+	 * @return the largest value (the maximum) of this range
+	 */
+	public long getTo() {
+		return to;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Long.hashCode(from);
+		result = prime * result + Long.hashCode(to);
+		return result;
+	}
+
+	/**
+	 * @return whether the given value is exactly on either end of this range
+	 */
+	public boolean isBoundary(long value) {
+		return (from == value || to == value);
+	}
+
+	/**
+	 * @return whether the minimum of this range is larger than the given value
+	 */
+	public boolean isOver(long value) {
+		return (from > value);
+	}
+
+	/**
+	 * @return whether the maximum of this range is smaller than the given value
+	 */
+	public boolean isUnder(long value) {
+		return (to < value);
+	}
+
+	/**
+	 * @return an iterator over all values of this range, in ascending order
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public PrimitiveIterator.OfLong iterator() {
+		return this.iterator(1);
+	}
+
+	/**
+	 * @return an iterator over every {@code step}-th value of this range,
+	 *         starting at the minimum if the step is positive and at the
+	 *         maximum if it is negative
+	 * @throws IllegalArgumentException if the step is zero
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public PrimitiveIterator.OfLong iterator(long step) {
+		return Spliterators.iterator(LongRangeSpliterator.of(from, to, step));
+	}
+
+	/**
+	 * @return the given number of random values from the range (inclusively),
+	 *         drawn from the {@link ThreadLocalRandom}
+	 * @throws IllegalArgumentException if the count is negative
+	 */
+	public long[] longs(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count cannot be negative");
+		}
+		long[] values = new long[count];
+		RandomUtil.fill(values, ThreadLocalRandom.current(), from, to);
+		return values;
+	}
+
+	/**
+	 * @return the largest maximum of this and the given range
+	 * @throws NullPointerException if the given range is null
+	 */
+	public long maximum(PrimitiveLongRange range) {
+		return Math.max(this.to, range.to);
+	}
+
+	/**
+	 * @return the smallest minimum of this and the given range
+	 * @throws NullPointerException if the given range is null
+	 */
+	public long minimum(PrimitiveLongRange range) {
+		return Math.min(this.from, range.from);
+	}
+
+	/**
+	 * @return whether the given range overlaps this range
+	 * @throws NullPointerException if the given range is null
+	 */
+	public boolean overlaps(AbstractRange<Long> range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return !(this.to < range.getFrom() || range.getTo() < this.from);
+	}
+
+	/**
+	 * @return whether the given range overlaps this range
+	 * @throws NullPointerException if the given range is null
+	 */
+	public boolean overlaps(PrimitiveLongRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return !(this.to < range.from || range.to < this.from);
+	}
+
+	/**
+	 * Like {@link #clamp(long[], long[])}, but splits the work over multiple
+	 * threads for large arrays.
+	 */
+	public void parallelClamp(long[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClamp(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #classify(long[], byte[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelClassify(long[] values, byte[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelClassify(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(long[], BitSet)}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	public void parallelContains(long[] values, BitSet result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #contains(long[], long[])}, but splits the work over
+	 * multiple threads for large arrays.
+	 *
+	 * @throws IllegalArgumentException if the result does not have exactly
+	 *             {@code ceil(values.length / 64)} words
+	 */
+	public void parallelContains(long[] values, long[] result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		RangeKernels.parallelContains(values, from, to, result);
+	}
+
+	/**
+	 * Like {@link #count(long[])}, but splits the work over multiple threads
+	 * for large arrays.
+	 */
+	public int parallelCount(long[] values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		return RangeKernels.parallelCount(values, from, to);
+	}
+
+	/**
+	 * @return a parallel stream of all values of this range, in ascending
+	 *         order
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public LongStream parallelStream() {
+		return StreamSupport.longStream(LongRangeSpliterator.of(from, to, 1), true);
+	}
+
+	/**
+	 * @return a random value from the range (inclusively)
+	 */
+	public long randomValue() {
+		return this.randomValue(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * @return a random value from the range (inclusively)
+	 */
+	public long randomValue(Random random) {
+		Objects.requireNonNull(random, "random cannot be null");
+		return RandomUtil.nextLong(random, from, to);
+	}
+
+	/**
+	 * Returns a range with the given values. The smallest value will be used as
+	 * the minimum and the largest will be used as the maximum.
+	 * <p>
+	 * This method will never produce an illegal range (i.e. one where the
+	 * maximum is smaller than the minimum).
+	 *
+	 * @return the new range
+	 */
+	public PrimitiveLongRange safeSet(long value1, long value2) {
+		return this.set(Math.min(value1, value2), Math.max(value1, value2));
+	}
+
+	/**
+	 * @return this range with the given value as both the minimum and maximum
+	 */
+	public PrimitiveLongRange set(long value) {
+		return this.set(value, value);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the minimum is larger than the
+	 *             maximum
+	 * @return a range with the given boundaries
+	 */
+	public PrimitiveLongRange set(long from, long to) {
+		return new PrimitiveLongRange(from, to);
+	}
+
+	/**
+	 * @return this range with the given minimum
+	 * @throws IllegalArgumentException if the given value is larger than the
+	 *             maximum
+	 */
+	public PrimitiveLongRange setFrom(long from) {
+		return this.set(from, this.to);
+	}
+
+	/**
+	 * @return this range with the given maximum
+	 * @throws IllegalArgumentException if the given value is smaller than the
+	 *             minimum
+	 */
+	public PrimitiveLongRange setTo(long to) {
+		return this.set(this.from, to);
+	}
+
+	/**
+	 * @return a range moved by the given amount
+	 */
+	public PrimitiveLongRange shift(long amount) {
+		return this.set(from + amount, to + amount);
+	}
+
+	/**
+	 * @return a stream of all values of this range, in ascending order
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public LongStream stream() {
+		return this.stream(1);
+	}
+
+	/**
+	 * @return a stream of every {@code step}-th value of this range,
+	 *         starting at the minimum if the step is positive and at the
+	 *         maximum if it is negative
+	 * @throws IllegalArgumentException if the step is zero
+	 * @throws ArithmeticException if the range has more than
+	 *             {@link Long#MAX_VALUE} values
+	 */
+	public LongStream stream(long step) {
+		return StreamSupport.longStream(LongRangeSpliterator.of(from, to, step), false);
+	}
+
+	/**
+	 * @return this range as a {@link LongRange}
+	 */
+	public LongRange toRange() {
+		return new LongRange(from, to);
+	}
+
+	@Override
+	public String toString() {
+		return this.appendTo(new StringBuilder()).toString();
+	}
+
+	/**
+	 * Returns a range with the given amount added and subtracted to the minimum
+	 * and maximum value, respectively, of this range.
+	 * <p>
+	 * If the result of this operation creates an illegal range, a range with
+	 * equal minimum and maximum values will be returned instead. The values
+	 * will be equal the center value of the range.
+	 *
+	 * @return the new range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveLongRange trim(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+
+		long min = from + amount;
+		long max = to - amount;
+		if (min > max) {
+			min = max = from + (to - from) / 2;
+		}
+		return this.set(min, max);
+	}
+
+	/**
+	 * Returns a range with the given amount subtracted from the maximum value
+	 * of this range.
+	 * <p>
+	 * If the result of this operation creates an illegal range, a range with
+	 * equal minimum and maximum values will be returned instead. The values
+	 * will equal to the minimum value of this range.
+	 *
+	 * @return the new range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveLongRange trimMaximum(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setTo(Math.max(to - amount, from));
+	}
+
+	/**
+	 * Returns a range with the given amount added to the minimum value of this
+	 * range.
+	 * <p>
+	 * If the result of this operation creates an illegal range, a range with
+	 * equal minimum and maximum values will be returned instead. The values
+	 * will equal to the maximum value of this range.
+	 *
+	 * @return the new range
+	 * @throws IllegalArgumentException if the amount is negative
+	 */
+	public PrimitiveLongRange trimMinimum(long amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("amount cannot be negative");
+		}
+		return this.setFrom(Math.min(from + amount, to));
+	}
+}
\ No newline at end of file
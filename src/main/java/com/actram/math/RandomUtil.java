@@ -0,0 +1,166 @@
+package com.actram.math;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Static methods for drawing uniformly distributed values from inclusive
+ * bounds. The integer methods are unbiased: values that would favor part of
+ * the range are rejected and drawn again.
+ *
+ * @author Peter André Johansen
+ */
+class RandomUtil {
+
+	/**
+	 * Fills the given array with values between the given bounds
+	 * (inclusively).
+	 */
+	static void fill(double[] values, Random random, double from, double to) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = scale(random.nextDouble(), from, to);
+		}
+	}
+
+	/**
+	 * Fills the given array with values between the given bounds
+	 * (inclusively).
+	 */
+	static void fill(double[] values, SplittableRandom random, double from, double to) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = scale(random.nextDouble(), from, to);
+		}
+	}
+
+	/**
+	 * Fills the given array with values between the given bounds
+	 * (inclusively).
+	 */
+	static void fill(int[] values, Random random, int from, int to) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = nextInt(random, from, to);
+		}
+	}
+
+	/**
+	 * Fills the given array with values between the given bounds
+	 * (inclusively).
+	 */
+	static void fill(int[] values, SplittableRandom random, int from, int to) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = nextInt(random, from, to);
+		}
+	}
+
+	/**
+	 * Fills the given array with values between the given bounds
+	 * (inclusively).
+	 */
+	static void fill(long[] values, Random random, long from, long to) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = nextLong(random, from, to);
+		}
+	}
+
+	/**
+	 * Fills the given array with values between the given bounds
+	 * (inclusively).
+	 */
+	static void fill(long[] values, SplittableRandom random, long from, long to) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = nextLong(random, from, to);
+		}
+	}
+
+	/**
+	 * @return a value between the given bounds (inclusively)
+	 */
+	static int nextInt(Random random, int from, int to) {
+		long bound = (long) to - from + 1;
+		if (bound <= Integer.MAX_VALUE) {
+			return from + random.nextInt((int) bound);
+		}
+
+		// More than half of all ints are inside the bounds
+		int value;
+		do {
+			value = random.nextInt();
+		} while (value < from || value > to);
+		return value;
+	}
+
+	/**
+	 * @return a value between the given bounds (inclusively)
+	 */
+	static int nextInt(SplittableRandom random, int from, int to) {
+		if (to < Integer.MAX_VALUE) {
+			return random.nextInt(from, to + 1);
+		}
+		if (from > Integer.MIN_VALUE) {
+			return random.nextInt(from - 1, to) + 1;
+		}
+		return random.nextInt();
+	}
+
+	/**
+	 * @return a value between the given bounds (inclusively)
+	 */
+	static long nextLong(Random random, long from, long to) {
+		long bound = to - from + 1;
+		if (bound > 0) {
+			long mask = bound - 1;
+			if ((bound & mask) == 0) {
+				return from + (random.nextLong() & mask);
+			}
+
+			// Reject the values in the last, incomplete multiple of the bound
+			long bits;
+			long value;
+			do {
+				bits = random.nextLong() >>> 1;
+				value = bits % bound;
+			} while (bits - value + mask < 0);
+			return from + value;
+		}
+		if (bound == 0) {
+			return random.nextLong();
+		}
+
+		// More than half of all longs are inside the bounds
+		long value;
+		do {
+			value = random.nextLong();
+		} while (value < from || value > to);
+		return value;
+	}
+
+	/**
+	 * @return a value between the given bounds (inclusively)
+	 */
+	static long nextLong(SplittableRandom random, long from, long to) {
+		if (to < Long.MAX_VALUE) {
+			return random.nextLong(from, to + 1);
+		}
+		if (from > Long.MIN_VALUE) {
+			return random.nextLong(from - 1, to) + 1;
+		}
+		return random.nextLong();
+	}
+
+	/**
+	 * @return the value at the given fraction (from zero to one) of the
+	 *         distance between the given bounds
+	 */
+	static double scale(double fraction, double from, double to) {
+		double distance = to - from;
+		if (Double.isInfinite(distance)) {
+
+			// Interpolate instead, as the distance overflows
+			return fraction * to + (1 - fraction) * from;
+		}
+		return fraction * distance + from;
+	}
+
+	/** Prevent instantiation. */
+	private RandomUtil() {}
+}
\ No newline at end of file
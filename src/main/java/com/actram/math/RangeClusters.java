@@ -0,0 +1,375 @@
+package com.actram.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Static methods for grouping ranges into clusters of overlapping ranges.
+ * <p>
+ * Two ranges are in the same cluster if they overlap, directly or through
+ * other ranges in the cluster, and the span of a cluster is the smallest range
+ * that contains all of its ranges. The ranges are sorted by their minimums
+ * and swept once, which takes {@code O(n log n)} time instead of comparing
+ * every pair.
+ * <p>
+ * The primitive methods take the minimums and maximums as two arrays. They
+ * sort the minimums and maximums separately: a cluster ends wherever the
+ * next smallest minimum is larger than the current maximum, as every range
+ * that started before that point has also ended. The {@code parallel}
+ * variants sort with {@link Arrays#parallelSort(long[])} and label the ranges
+ * on the common {@link java.util.concurrent.ForkJoinPool}, for inputs with
+ * millions of ranges.
+ *
+ * @author Peter André Johansen
+ */
+public class RangeClusters {
+
+	private static <T extends Comparable<T>, R extends AbstractRange<T>> Object[] sorted(Collection<? extends R> ranges, boolean parallel) {
+		Objects.requireNonNull(ranges, "ranges cannot be null");
+		Object[] sorted = ranges.toArray();
+		for (Object range : sorted) {
+			Objects.requireNonNull(range, "range cannot be null");
+		}
+		Comparator<Object> comparator = (a, b) -> RangeClusters.<T> range(a).getFrom().compareTo(RangeClusters.<T> range(b).getFrom());
+		if (parallel) {
+			Arrays.parallelSort(sorted, comparator);
+		} else {
+			Arrays.sort(sorted, comparator);
+		}
+		return sorted;
+	}
+
+	/**
+	 * Returns the clusters of overlapping ranges among the given ranges.
+	 *
+	 * @return the clusters in ascending order, each with its ranges in
+	 *         ascending order of their minimums
+	 */
+	public static <T extends Comparable<T>, R extends AbstractRange<T>> List<List<R>> clusters(Collection<? extends R> ranges) {
+		return clusters(sorted(ranges, false));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Comparable<T>, R extends AbstractRange<T>> List<List<R>> clusters(Object[] sorted) {
+		List<List<R>> clusters = new ArrayList<>();
+		List<R> cluster = null;
+		T max = null;
+		for (Object object : sorted) {
+			R range = (R) object;
+			if (cluster == null || range.getFrom().compareTo(max) > 0) {
+				cluster = new ArrayList<>();
+				clusters.add(cluster);
+				max = range.getTo();
+			} else if (range.getTo().compareTo(max) > 0) {
+				max = range.getTo();
+			}
+			cluster.add(range);
+		}
+		return clusters;
+	}
+
+	/**
+	 * Like {@link #clusters(Collection)}, but sorts the ranges on multiple
+	 * threads.
+	 */
+	public static <T extends Comparable<T>, R extends AbstractRange<T>> List<List<R>> parallelClusters(Collection<? extends R> ranges) {
+		return clusters(sorted(ranges, true));
+	}
+
+	/**
+	 * Like {@link #spans(Collection)}, but sorts the ranges on multiple
+	 * threads.
+	 */
+	public static <T extends Comparable<T>, R extends AbstractRange<T>> List<R> parallelSpans(Collection<? extends R> ranges) {
+		return spans(sorted(ranges, true));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Comparable<T>> AbstractRange<T> range(Object range) {
+		return (AbstractRange<T>) range;
+	}
+
+	/**
+	 * Returns the spans of the clusters of overlapping ranges among the given
+	 * ranges. The spans are created with {@link AbstractRange#set} on the
+	 * first range of each cluster, so they have the same type.
+	 *
+	 * @return the spans in ascending order
+	 */
+	public static <T extends Comparable<T>, R extends AbstractRange<T>> List<R> spans(Collection<? extends R> ranges) {
+		return spans(sorted(ranges, false));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Comparable<T>, R extends AbstractRange<T>> List<R> spans(Object[] sorted) {
+		List<R> spans = new ArrayList<>();
+		R first = null;
+		T max = null;
+		for (Object object : sorted) {
+			R range = (R) object;
+			if (first == null || range.getFrom().compareTo(max) > 0) {
+				if (first != null) {
+					spans.add(first.set(first.getFrom(), max));
+				}
+				first = range;
+				max = range.getTo();
+			} else if (range.getTo().compareTo(max) > 0) {
+				max = range.getTo();
+			}
+		}
+		if (first != null) {
+			spans.add(first.set(first.getFrom(), max));
+		}
+		return spans;
+	}
+
+	/**
+	 * Finds the clusters of overlapping ranges among the ranges with the given
+	 * minimums and maximums, and stores the index of the cluster of each range
+	 * (in the order of the spans) in the result array.
+	 *
+	 * @return the spans of the clusters, in ascending order, as alternating
+	 *         minimums and maximums
+	 * @throws IllegalArgumentException if the arrays have different lengths or
+	 *             a maximum is less than its minimum or either is NaN
+	 */
+	public static double[] cluster(double[] from, double[] to, int[] result) {
+		return cluster(from, to, result, false);
+	}
+
+	private static double[] cluster(double[] from, double[] to, int[] result, boolean parallel) {
+		Objects.requireNonNull(result, "result cannot be null");
+		double[] spans = spans(from, to, parallel);
+		if (result.length != from.length) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+		if (parallel) {
+			IntStream.range(0, from.length).parallel().forEach(i -> result[i] = indexOfSpan(spans, from[i]));
+		} else {
+			for (int i = 0; i < from.length; i++) {
+				result[i] = indexOfSpan(spans, from[i]);
+			}
+		}
+		return spans;
+	}
+
+	/**
+	 * @return the index of the last span that starts at or before the given
+	 *         value
+	 */
+	private static int indexOfSpan(double[] spans, double value) {
+		int low = 0;
+		int high = spans.length / 2 - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (spans[2 * mid] <= value) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Like {@link #cluster(double[], double[], int[])}, but splits the work over
+	 * multiple threads.
+	 */
+	public static double[] parallelCluster(double[] from, double[] to, int[] result) {
+		return cluster(from, to, result, true);
+	}
+
+	/**
+	 * Like {@link #spans(double[], double[])}, but splits the work over multiple
+	 * threads.
+	 */
+	public static double[] parallelSpans(double[] from, double[] to) {
+		return spans(from, to, true);
+	}
+
+	/**
+	 * Returns the spans of the clusters of overlapping ranges among the ranges
+	 * with the given minimums and maximums.
+	 *
+	 * @return the spans in ascending order, as alternating minimums and
+	 *         maximums
+	 * @throws IllegalArgumentException if the arrays have different lengths or
+	 *             a maximum is less than its minimum or either is NaN
+	 */
+	public static double[] spans(double[] from, double[] to) {
+		return spans(from, to, false);
+	}
+
+	private static double[] spans(double[] from, double[] to, boolean parallel) {
+		Objects.requireNonNull(from, "minimums cannot be null");
+		Objects.requireNonNull(to, "maximums cannot be null");
+		if (from.length != to.length) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+		for (int i = 0; i < from.length; i++) {
+			if (!(to[i] >= from[i])) {
+				throw new IllegalArgumentException("maximum=" + to[i] + " cannot be less than minimum=" + from[i]);
+			}
+		}
+
+		double[] starts = from.clone();
+		double[] ends = to.clone();
+		if (parallel) {
+			Arrays.parallelSort(starts);
+			Arrays.parallelSort(ends);
+		} else {
+			Arrays.sort(starts);
+			Arrays.sort(ends);
+		}
+
+		// A cluster ends where the next range starts after all earlier ranges end
+		final int last = starts.length - 1;
+		int count = 0;
+		for (int i = 0; i < last; i++) {
+			if (starts[i + 1] > ends[i]) {
+				count++;
+			}
+		}
+		double[] spans = new double[starts.length == 0 ? 0 : 2 * (count + 1)];
+		int span = 0;
+		for (int i = 0; i <= last; i++) {
+			if (i == 0 || starts[i] > ends[i - 1]) {
+				spans[2 * span] = starts[i];
+			}
+			if (i == last || starts[i + 1] > ends[i]) {
+				spans[2 * span + 1] = ends[i];
+				span++;
+			}
+		}
+		return spans;
+	}
+
+	/**
+	 * Finds the clusters of overlapping ranges among the ranges with the given
+	 * minimums and maximums, and stores the index of the cluster of each range
+	 * (in the order of the spans) in the result array.
+	 *
+	 * @return the spans of the clusters, in ascending order, as alternating
+	 *         minimums and maximums
+	 * @throws IllegalArgumentException if the arrays have different lengths or
+	 *             a maximum is less than its minimum
+	 */
+	public static long[] cluster(long[] from, long[] to, int[] result) {
+		return cluster(from, to, result, false);
+	}
+
+	private static long[] cluster(long[] from, long[] to, int[] result, boolean parallel) {
+		Objects.requireNonNull(result, "result cannot be null");
+		long[] spans = spans(from, to, parallel);
+		if (result.length != from.length) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+		if (parallel) {
+			IntStream.range(0, from.length).parallel().forEach(i -> result[i] = indexOfSpan(spans, from[i]));
+		} else {
+			for (int i = 0; i < from.length; i++) {
+				result[i] = indexOfSpan(spans, from[i]);
+			}
+		}
+		return spans;
+	}
+
+	/**
+	 * @return the index of the last span that starts at or before the given
+	 *         value
+	 */
+	private static int indexOfSpan(long[] spans, long value) {
+		int low = 0;
+		int high = spans.length / 2 - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (spans[2 * mid] <= value) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Like {@link #cluster(long[], long[], int[])}, but splits the work over
+	 * multiple threads.
+	 */
+	public static long[] parallelCluster(long[] from, long[] to, int[] result) {
+		return cluster(from, to, result, true);
+	}
+
+	/**
+	 * Like {@link #spans(long[], long[])}, but splits the work over multiple
+	 * threads.
+	 */
+	public static long[] parallelSpans(long[] from, long[] to) {
+		return spans(from, to, true);
+	}
+
+	/**
+	 * Returns the spans of the clusters of overlapping ranges among the ranges
+	 * with the given minimums and maximums.
+	 *
+	 * @return the spans in ascending order, as alternating minimums and
+	 *         maximums
+	 * @throws IllegalArgumentException if the arrays have different lengths or
+	 *             a maximum is less than its minimum
+	 */
+	public static long[] spans(long[] from, long[] to) {
+		return spans(from, to, false);
+	}
+
+	private static long[] spans(long[] from, long[] to, boolean parallel) {
+		Objects.requireNonNull(from, "minimums cannot be null");
+		Objects.requireNonNull(to, "maximums cannot be null");
+		if (from.length != to.length) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+		for (int i = 0; i < from.length; i++) {
+			if (to[i] < from[i]) {
+				throw new IllegalArgumentException("maximum=" + to[i] + " cannot be less than minimum=" + from[i]);
+			}
+		}
+
+		long[] starts = from.clone();
+		long[] ends = to.clone();
+		if (parallel) {
+			Arrays.parallelSort(starts);
+			Arrays.parallelSort(ends);
+		} else {
+			Arrays.sort(starts);
+			Arrays.sort(ends);
+		}
+
+		// A cluster ends where the next range starts after all earlier ranges end
+		final int last = starts.length - 1;
+		int count = 0;
+		for (int i = 0; i < last; i++) {
+			if (starts[i + 1] > ends[i]) {
+				count++;
+			}
+		}
+		long[] spans = new long[starts.length == 0 ? 0 : 2 * (count + 1)];
+		int span = 0;
+		for (int i = 0; i <= last; i++) {
+			if (i == 0 || starts[i] > ends[i - 1]) {
+				spans[2 * span] = starts[i];
+			}
+			if (i == last || starts[i + 1] > ends[i]) {
+				spans[2 * span + 1] = ends[i];
+				span++;
+			}
+		}
+		return spans;
+	}
+
+	/** Prevent instantiation. */
+	private RangeClusters() {}
+}
\ No newline at end of file
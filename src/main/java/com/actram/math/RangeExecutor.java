@@ -0,0 +1,253 @@
+package com.actram.math;
+
+import java.util.Objects;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongConsumer;
+
+/**
+ * Runs an action over the values of a {@code long} range on a
+ * {@link ForkJoinPool}.
+ * <p>
+ * The range is split in halves recursively, and the halves are forked so
+ * that idle threads can steal them. The chunk sizes adapt to the load: a
+ * task keeps splitting while there are few tasks queued for other threads to
+ * take, and stops as soon as there is a surplus. Chunks are not split into
+ * halves smaller than the minimum chunk size, so that the tasks do not cost
+ * more than the work. Chunks larger than a sixteenth of the share of each
+ * thread are always split, so that the work stays balanced.
+ * <p>
+ * The {@code submit} methods return the running task, which can be
+ * cancelled. Chunks that have not started when the task is cancelled, or
+ * when an action throws an exception, are skipped, and a running
+ * {@link #forEach} stops within {@value #CANCELLATION_INTERVAL} values.
+ * <p>
+ * Instances are immutable and can be shared by several threads.
+ *
+ * @author Peter André Johansen
+ */
+public class RangeExecutor {
+
+	/**
+	 * Receives the chunks of a range.
+	 */
+	@FunctionalInterface
+	public interface ChunkConsumer {
+		/**
+		 * @param from the minimum of the chunk
+		 * @param to the maximum of the chunk (inclusive)
+		 */
+		void accept(long from, long to);
+	}
+
+	/**
+	 * A task over a part of a range. The pending count of each task is the
+	 * number of its forked halves that have not completed.
+	 */
+	private static class RangeTask extends CountedCompleter<Void> {
+		private static final long serialVersionUID = 1L;
+
+		private final ChunkConsumer chunkAction;
+		private final LongConsumer valueAction;
+
+		/** The largest distance of a chunk that is split regardless of load. */
+		private final long targetDistance;
+
+		/**
+		 * The smallest distance of a chunk that may be split, as an unsigned
+		 * value.
+		 */
+		private final long minDistance;
+
+		private final long from;
+		private final long to;
+
+		RangeTask(RangeTask parent, ChunkConsumer chunkAction, LongConsumer valueAction, long targetDistance, long minDistance, long from, long to) {
+			super(parent);
+			this.chunkAction = chunkAction;
+			this.valueAction = valueAction;
+			this.targetDistance = targetDistance;
+			this.minDistance = minDistance;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public void compute() {
+			long to = this.to;
+			long distance = to - from;
+			while (Long.compareUnsigned(distance, minDistance) >= 0 && (Long.compareUnsigned(distance, targetDistance) > 0 || getSurplusQueuedTaskCount() <= SURPLUS_THRESHOLD)) {
+				long middle = from + (distance >>> 1);
+				addToPendingCount(1);
+				new RangeTask(this, chunkAction, valueAction, targetDistance, minDistance, middle + 1, to).fork();
+				to = middle;
+				distance = to - from;
+			}
+			if (!getRoot().isDone()) {
+				if (chunkAction != null) {
+					chunkAction.accept(from, to);
+				} else {
+					forEach(from, to);
+				}
+			}
+			tryComplete();
+		}
+
+		/**
+		 * Passes each value of the chunk to the value action, and stops early
+		 * if the task is done.
+		 */
+		private void forEach(long from, long to) {
+			final CountedCompleter<?> root = getRoot();
+			for (long value = from;; value++) {
+				valueAction.accept(value);
+				if (value == to || (((value - from) & (CANCELLATION_INTERVAL - 1)) == CANCELLATION_INTERVAL - 1 && root.isDone())) {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The default minimum chunk size: the smallest number of values of a
+	 * chunk created by a split.
+	 */
+	public static final long DEFAULT_MIN_CHUNK_SIZE = 1 << 10;
+
+	/**
+	 * The number of values between checks for cancellation in
+	 * {@link #forEach}.
+	 */
+	static final int CANCELLATION_INTERVAL = 1 << 10;
+
+	/**
+	 * The number of queued tasks above which a task stops splitting, as
+	 * suggested by {@link ForkJoinTask#getSurplusQueuedTaskCount()}.
+	 */
+	private static final int SURPLUS_THRESHOLD = 3;
+
+	/** The number of chunks per thread that are split regardless of load. */
+	private static final int CHUNKS_PER_THREAD = 16;
+
+	private final ForkJoinPool pool;
+	private final long minChunkSize;
+
+	/**
+	 * Creates an executor that uses the common pool.
+	 */
+	public RangeExecutor() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public RangeExecutor(ForkJoinPool pool) {
+		this(pool, DEFAULT_MIN_CHUNK_SIZE);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the minimum chunk size is not
+	 *             positive
+	 */
+	public RangeExecutor(ForkJoinPool pool, long minChunkSize) {
+		this.pool = Objects.requireNonNull(pool, "pool cannot be null");
+		if (minChunkSize <= 0) {
+			throw new IllegalArgumentException("minimum chunk size must be positive");
+		}
+		this.minChunkSize = minChunkSize;
+	}
+
+	/**
+	 * Passes each value of the given range to the action, and waits until all
+	 * values are done. The values are passed in no particular order and from
+	 * several threads at once.
+	 *
+	 * @throws RuntimeException if the action throws an exception
+	 */
+	public void forEach(LongRange range, LongConsumer action) {
+		Objects.requireNonNull(range, "range cannot be null");
+		this.forEach(range.getFrom(), range.getTo(), action);
+	}
+
+	/**
+	 * Passes each value between the given bounds (inclusively) to the action.
+	 *
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 * @see #forEach(LongRange, LongConsumer)
+	 */
+	public void forEach(long from, long to, LongConsumer action) {
+		pool.invoke(this.submitTask(from, to, null, Objects.requireNonNull(action, "action cannot be null"), false));
+	}
+
+	/**
+	 * Passes the given range to the action in contiguous chunks, and waits
+	 * until all chunks are done. The chunks cover every value exactly once,
+	 * and are passed in no particular order and from several threads at once.
+	 *
+	 * @throws RuntimeException if the action throws an exception
+	 */
+	public void forEachChunk(LongRange range, ChunkConsumer action) {
+		Objects.requireNonNull(range, "range cannot be null");
+		this.forEachChunk(range.getFrom(), range.getTo(), action);
+	}
+
+	/**
+	 * Passes the values between the given bounds (inclusively) to the action
+	 * in contiguous chunks.
+	 *
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 * @see #forEachChunk(LongRange, ChunkConsumer)
+	 */
+	public void forEachChunk(long from, long to, ChunkConsumer action) {
+		pool.invoke(this.submitTask(from, to, Objects.requireNonNull(action, "action cannot be null"), null, false));
+	}
+
+	/**
+	 * @return the pool that runs the tasks
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Like {@link #forEach(LongRange, LongConsumer)}, but returns immediately.
+	 *
+	 * @return the running task, which can be cancelled or joined
+	 */
+	public ForkJoinTask<Void> submit(LongRange range, LongConsumer action) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return this.submitTask(range.getFrom(), range.getTo(), null, Objects.requireNonNull(action, "action cannot be null"), true);
+	}
+
+	/**
+	 * Like {@link #forEachChunk(LongRange, ChunkConsumer)}, but returns
+	 * immediately.
+	 *
+	 * @return the running task, which can be cancelled or joined
+	 */
+	public ForkJoinTask<Void> submitChunks(LongRange range, ChunkConsumer action) {
+		Objects.requireNonNull(range, "range cannot be null");
+		return this.submitTask(range.getFrom(), range.getTo(), Objects.requireNonNull(action, "action cannot be null"), null, true);
+	}
+
+	/**
+	 * @return the root task over the given range, which is submitted to the
+	 *         pool if requested
+	 */
+	private ForkJoinTask<Void> submitTask(long from, long to, ChunkConsumer chunkAction, LongConsumer valueAction, boolean submit) {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+
+		// The halves of a split have at least minChunkSize values, and a chunk
+		// larger than the target is split regardless of load
+		long chunks = (long) pool.getParallelism() * CHUNKS_PER_THREAD;
+		long targetDistance = Long.divideUnsigned(to - from, chunks);
+		RangeTask task = new RangeTask(null, chunkAction, valueAction, targetDistance, 2 * minChunkSize - 1, from, to);
+		return (submit ? pool.submit(task) : task);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[parallelism=" + pool.getParallelism() + ", minChunkSize=" + minChunkSize + "]";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,564 @@
+package com.actram.math;
+
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Batch kernels that test or clamp whole arrays of values against inclusive
+ * bounds, used by the range types.
+ * <p>
+ * The loops use non-short-circuit comparisons and conditional selects
+ * instead of branches, so the JIT can compile them to straight-line (and
+ * where possible vectorized) code. The {@code parallel} variants split the
+ * array into chunks of {@link #CHUNK_SIZE} elements, which are handled by the
+ * common {@link java.util.concurrent.ForkJoinPool} once the array has at
+ * least {@link #PARALLEL_THRESHOLD} elements.
+ *
+ * @author Peter André Johansen
+ */
+class RangeKernels {
+	/** The number of elements handled by each parallel task. */
+	static final int CHUNK_SIZE = 1 << 14;
+
+	/** The smallest length for which the parallel variants split the work. */
+	static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	private static void checkLengths(int length, int resultLength) {
+		if (length != resultLength) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the given number of words does not
+	 *             hold exactly one bit for each of the given number of values
+	 */
+	private static void checkWords(int length, int words) {
+		if (words != wordCount(length)) {
+			throw new IllegalArgumentException("result must have " + wordCount(length) + " words for " + length + " values");
+		}
+	}
+
+	private static int chunkEnd(int chunk, int length) {
+		return (int) Math.min(length, (chunk + 1L) * CHUNK_SIZE);
+	}
+
+	/**
+	 * @return a parallel stream of the chunk numbers for the given length
+	 */
+	private static IntStream chunks(int length) {
+		return IntStream.range(0, (length == 0 ? 0 : (length - 1) / CHUNK_SIZE + 1)).parallel();
+	}
+
+	private static int chunkStart(int chunk) {
+		return chunk * CHUNK_SIZE;
+	}
+
+	/**
+	 * Classifies each value as below ({@code -1}), inside ({@code 0}) or above
+	 * ({@code 1}) the given bounds.
+	 */
+	static void classify(int[] values, int from, int to, byte[] result) {
+		checkLengths(values.length, result.length);
+		classify(values, from, to, result, 0, values.length);
+	}
+
+	private static void classify(int[] values, int from, int to, byte[] result, int start, int end) {
+		for (int i = start; i < end; i++) {
+			int value = values[i];
+			result[i] = (byte) ((value > to ? 1 : 0) - (value < from ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Classifies each value as below ({@code -1}), inside ({@code 0}) or above
+	 * ({@code 1}) the given bounds.
+	 */
+	static void classify(long[] values, long from, long to, byte[] result) {
+		checkLengths(values.length, result.length);
+		classify(values, from, to, result, 0, values.length);
+	}
+
+	private static void classify(long[] values, long from, long to, byte[] result, int start, int end) {
+		for (int i = start; i < end; i++) {
+			long value = values[i];
+			result[i] = (byte) ((value > to ? 1 : 0) - (value < from ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Classifies each value as below ({@code -1}), inside ({@code 0}) or above
+	 * ({@code 1}) the given bounds. NaN is classified as above, like in
+	 * {@link Double#compare(double, double)}.
+	 */
+	static void classify(double[] values, double from, double to, byte[] result) {
+		checkLengths(values.length, result.length);
+		classify(values, from, to, result, 0, values.length);
+	}
+
+	private static void classify(double[] values, double from, double to, byte[] result, int start, int end) {
+		for (int i = start; i < end; i++) {
+			double value = values[i];
+			result[i] = (byte) ((value <= to ? 0 : 1) - (value < from ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Stores each value, clamped to the given bounds, in the result array
+	 * (which may be the values array).
+	 */
+	static void clamp(int[] values, int from, int to, int[] result) {
+		checkLengths(values.length, result.length);
+		clamp(values, from, to, result, 0, values.length);
+	}
+
+	private static void clamp(int[] values, int from, int to, int[] result, int start, int end) {
+		for (int i = start; i < end; i++) {
+			result[i] = Math.min(Math.max(values[i], from), to);
+		}
+	}
+
+	/**
+	 * Stores each value, clamped to the given bounds, in the result array
+	 * (which may be the values array).
+	 */
+	static void clamp(long[] values, long from, long to, long[] result) {
+		checkLengths(values.length, result.length);
+		clamp(values, from, to, result, 0, values.length);
+	}
+
+	private static void clamp(long[] values, long from, long to, long[] result, int start, int end) {
+		for (int i = start; i < end; i++) {
+			result[i] = Math.min(Math.max(values[i], from), to);
+		}
+	}
+
+	/**
+	 * Stores each value, clamped to the given bounds, in the result array
+	 * (which may be the values array).
+	 */
+	static void clamp(double[] values, double from, double to, double[] result) {
+		checkLengths(values.length, result.length);
+		clamp(values, from, to, result, 0, values.length);
+	}
+
+	private static void clamp(double[] values, double from, double to, double[] result, int start, int end) {
+		for (int i = start; i < end; i++) {
+			result[i] = Math.min(Math.max(values[i], from), to);
+		}
+	}
+
+	/**
+	 * Sets the bit of each value that is inside the given bounds, and clears
+	 * all other bits of the result.
+	 */
+	static void contains(int[] values, int from, int to, BitSet result) {
+		result.clear();
+		for (int word = 0; word < wordCount(values.length); word++) {
+			setBits(result, word * Long.SIZE, containsWord(values, from, to, word * Long.SIZE, values.length));
+		}
+	}
+
+	/**
+	 * Stores the bit of each value that is inside the given bounds in the
+	 * given words.
+	 */
+	static void contains(int[] values, int from, int to, long[] result) {
+		checkWords(values.length, result.length);
+		contains(values, from, to, result, 0, values.length);
+	}
+
+	/**
+	 * Stores the bits in the given words for the values from the given start
+	 * (which must be a multiple of 64) to the given end.
+	 */
+	private static void contains(int[] values, int from, int to, long[] words, int start, int end) {
+		for (int word = start / Long.SIZE; word < wordCount(end); word++) {
+			words[word] = containsWord(values, from, to, word * Long.SIZE, end);
+		}
+	}
+
+	/**
+	 * @return the bits of the (at most 64) values from the given base to the
+	 *         given end that are inside the given bounds
+	 */
+	private static long containsWord(int[] values, int from, int to, int base, int end) {
+		final int limit = Math.min(end - base, Long.SIZE);
+		long word = 0;
+		for (int i = 0; i < limit; i++) {
+			int value = values[base + i];
+			word |= ((value >= from) & (value <= to) ? 1L : 0L) << i;
+		}
+		return word;
+	}
+
+	/**
+	 * Sets the bit of each value that is inside the given bounds, and clears
+	 * all other bits of the result.
+	 */
+	static void contains(long[] values, long from, long to, BitSet result) {
+		result.clear();
+		for (int word = 0; word < wordCount(values.length); word++) {
+			setBits(result, word * Long.SIZE, containsWord(values, from, to, word * Long.SIZE, values.length));
+		}
+	}
+
+	/**
+	 * Stores the bit of each value that is inside the given bounds in the
+	 * given words.
+	 */
+	static void contains(long[] values, long from, long to, long[] result) {
+		checkWords(values.length, result.length);
+		contains(values, from, to, result, 0, values.length);
+	}
+
+	/**
+	 * Stores the bits in the given words for the values from the given start
+	 * (which must be a multiple of 64) to the given end.
+	 */
+	private static void contains(long[] values, long from, long to, long[] words, int start, int end) {
+		for (int word = start / Long.SIZE; word < wordCount(end); word++) {
+			words[word] = containsWord(values, from, to, word * Long.SIZE, end);
+		}
+	}
+
+	/**
+	 * @return the bits of the (at most 64) values from the given base to the
+	 *         given end that are inside the given bounds
+	 */
+	private static long containsWord(long[] values, long from, long to, int base, int end) {
+		final int limit = Math.min(end - base, Long.SIZE);
+		long word = 0;
+		for (int i = 0; i < limit; i++) {
+			long value = values[base + i];
+			word |= ((value >= from) & (value <= to) ? 1L : 0L) << i;
+		}
+		return word;
+	}
+
+	/**
+	 * Sets the bit of each value that is inside the given bounds, and clears
+	 * all other bits of the result.
+	 */
+	static void contains(double[] values, double from, double to, BitSet result) {
+		result.clear();
+		for (int word = 0; word < wordCount(values.length); word++) {
+			setBits(result, word * Long.SIZE, containsWord(values, from, to, word * Long.SIZE, values.length));
+		}
+	}
+
+	/**
+	 * Stores the bit of each value that is inside the given bounds in the
+	 * given words.
+	 */
+	static void contains(double[] values, double from, double to, long[] result) {
+		checkWords(values.length, result.length);
+		contains(values, from, to, result, 0, values.length);
+	}
+
+	/**
+	 * Stores the bits in the given words for the values from the given start
+	 * (which must be a multiple of 64) to the given end.
+	 */
+	private static void contains(double[] values, double from, double to, long[] words, int start, int end) {
+		for (int word = start / Long.SIZE; word < wordCount(end); word++) {
+			words[word] = containsWord(values, from, to, word * Long.SIZE, end);
+		}
+	}
+
+	/**
+	 * @return the bits of the (at most 64) values from the given base to the
+	 *         given end that are inside the given bounds
+	 */
+	private static long containsWord(double[] values, double from, double to, int base, int end) {
+		final int limit = Math.min(end - base, Long.SIZE);
+		long word = 0;
+		for (int i = 0; i < limit; i++) {
+			double value = values[base + i];
+			word |= ((value >= from) & (value <= to) ? 1L : 0L) << i;
+		}
+		return word;
+	}
+
+	/**
+	 * @return the number of values inside the given bounds
+	 */
+	static int count(int[] values, int from, int to) {
+		return count(values, from, to, 0, values.length);
+	}
+
+	private static int count(int[] values, int from, int to, int start, int end) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			int value = values[i];
+			count += ((value >= from) & (value <= to) ? 1 : 0);
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of values inside the given bounds
+	 */
+	static int count(long[] values, long from, long to) {
+		return count(values, from, to, 0, values.length);
+	}
+
+	private static int count(long[] values, long from, long to, int start, int end) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			long value = values[i];
+			count += ((value >= from) & (value <= to) ? 1 : 0);
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of values inside the given bounds
+	 */
+	static int count(double[] values, double from, double to) {
+		return count(values, from, to, 0, values.length);
+	}
+
+	private static int count(double[] values, double from, double to, int start, int end) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			double value = values[i];
+			count += ((value >= from) & (value <= to) ? 1 : 0);
+		}
+		return count;
+	}
+
+	/**
+	 * Like {@link #classify(int[], int, int, byte[])}, but splits the
+	 * work over multiple threads for large arrays.
+	 */
+	static void parallelClassify(int[] values, int from, int to, byte[] result) {
+		checkLengths(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			classify(values, from, to, result, 0, values.length);
+		} else {
+			chunks(values.length).forEach(chunk -> classify(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #classify(long[], long, long, byte[])}, but splits the
+	 * work over multiple threads for large arrays.
+	 */
+	static void parallelClassify(long[] values, long from, long to, byte[] result) {
+		checkLengths(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			classify(values, from, to, result, 0, values.length);
+		} else {
+			chunks(values.length).forEach(chunk -> classify(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #classify(double[], double, double, byte[])}, but splits the
+	 * work over multiple threads for large arrays.
+	 */
+	static void parallelClassify(double[] values, double from, double to, byte[] result) {
+		checkLengths(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			classify(values, from, to, result, 0, values.length);
+		} else {
+			chunks(values.length).forEach(chunk -> classify(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #clamp(int[], int, int, int[])}, but splits the work
+	 * over multiple threads for large arrays.
+	 */
+	static void parallelClamp(int[] values, int from, int to, int[] result) {
+		checkLengths(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			clamp(values, from, to, result, 0, values.length);
+		} else {
+			chunks(values.length).forEach(chunk -> clamp(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #clamp(long[], long, long, long[])}, but splits the work
+	 * over multiple threads for large arrays.
+	 */
+	static void parallelClamp(long[] values, long from, long to, long[] result) {
+		checkLengths(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			clamp(values, from, to, result, 0, values.length);
+		} else {
+			chunks(values.length).forEach(chunk -> clamp(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #clamp(double[], double, double, double[])}, but splits the work
+	 * over multiple threads for large arrays.
+	 */
+	static void parallelClamp(double[] values, double from, double to, double[] result) {
+		checkLengths(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			clamp(values, from, to, result, 0, values.length);
+		} else {
+			chunks(values.length).forEach(chunk -> clamp(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #contains(int[], int, int, BitSet)}, but splits the
+	 * work over multiple threads for large arrays. As a bit set cannot be
+	 * written by several threads, the bits of large arrays are computed in
+	 * words first.
+	 */
+	static void parallelContains(int[] values, int from, int to, BitSet result) {
+		if (values.length < PARALLEL_THRESHOLD) {
+			contains(values, from, to, result);
+			return;
+		}
+		long[] words = new long[wordCount(values.length)];
+		parallelContains(values, from, to, words);
+		result.clear();
+		for (int word = 0; word < words.length; word++) {
+			setBits(result, word * Long.SIZE, words[word]);
+		}
+	}
+
+	/**
+	 * Like {@link #contains(int[], int, int, long[])}, but splits the
+	 * work over multiple threads for large arrays.
+	 */
+	static void parallelContains(int[] values, int from, int to, long[] result) {
+		checkWords(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			contains(values, from, to, result, 0, values.length);
+		} else {
+			// Each chunk covers whole words, so no word is shared between threads
+			chunks(values.length).forEach(chunk -> contains(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #contains(long[], long, long, BitSet)}, but splits the
+	 * work over multiple threads for large arrays. As a bit set cannot be
+	 * written by several threads, the bits of large arrays are computed in
+	 * words first.
+	 */
+	static void parallelContains(long[] values, long from, long to, BitSet result) {
+		if (values.length < PARALLEL_THRESHOLD) {
+			contains(values, from, to, result);
+			return;
+		}
+		long[] words = new long[wordCount(values.length)];
+		parallelContains(values, from, to, words);
+		result.clear();
+		for (int word = 0; word < words.length; word++) {
+			setBits(result, word * Long.SIZE, words[word]);
+		}
+	}
+
+	/**
+	 * Like {@link #contains(long[], long, long, long[])}, but splits the
+	 * work over multiple threads for large arrays.
+	 */
+	static void parallelContains(long[] values, long from, long to, long[] result) {
+		checkWords(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			contains(values, from, to, result, 0, values.length);
+		} else {
+			// Each chunk covers whole words, so no word is shared between threads
+			chunks(values.length).forEach(chunk -> contains(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #contains(double[], double, double, BitSet)}, but splits the
+	 * work over multiple threads for large arrays. As a bit set cannot be
+	 * written by several threads, the bits of large arrays are computed in
+	 * words first.
+	 */
+	static void parallelContains(double[] values, double from, double to, BitSet result) {
+		if (values.length < PARALLEL_THRESHOLD) {
+			contains(values, from, to, result);
+			return;
+		}
+		long[] words = new long[wordCount(values.length)];
+		parallelContains(values, from, to, words);
+		result.clear();
+		for (int word = 0; word < words.length; word++) {
+			setBits(result, word * Long.SIZE, words[word]);
+		}
+	}
+
+	/**
+	 * Like {@link #contains(double[], double, double, long[])}, but splits the
+	 * work over multiple threads for large arrays.
+	 */
+	static void parallelContains(double[] values, double from, double to, long[] result) {
+		checkWords(values.length, result.length);
+		if (values.length < PARALLEL_THRESHOLD) {
+			contains(values, from, to, result, 0, values.length);
+		} else {
+			// Each chunk covers whole words, so no word is shared between threads
+			chunks(values.length).forEach(chunk -> contains(values, from, to, result, chunkStart(chunk), chunkEnd(chunk, values.length)));
+		}
+	}
+
+	/**
+	 * Like {@link #count(int[], int, int)}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	static int parallelCount(int[] values, int from, int to) {
+		if (values.length < PARALLEL_THRESHOLD) {
+			return count(values, from, to, 0, values.length);
+		}
+		return chunks(values.length).map(chunk -> count(values, from, to, chunkStart(chunk), chunkEnd(chunk, values.length))).sum();
+	}
+
+	/**
+	 * Like {@link #count(long[], long, long)}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	static int parallelCount(long[] values, long from, long to) {
+		if (values.length < PARALLEL_THRESHOLD) {
+			return count(values, from, to, 0, values.length);
+		}
+		return chunks(values.length).map(chunk -> count(values, from, to, chunkStart(chunk), chunkEnd(chunk, values.length))).sum();
+	}
+
+	/**
+	 * Like {@link #count(double[], double, double)}, but splits the work over
+	 * multiple threads for large arrays.
+	 */
+	static int parallelCount(double[] values, double from, double to) {
+		if (values.length < PARALLEL_THRESHOLD) {
+			return count(values, from, to, 0, values.length);
+		}
+		return chunks(values.length).map(chunk -> count(values, from, to, chunkStart(chunk), chunkEnd(chunk, values.length))).sum();
+	}
+
+	/**
+	 * Sets the bits of the given word in the given bit set, from the given
+	 * index on.
+	 */
+	private static void setBits(BitSet result, int base, long word) {
+		while (word != 0) {
+			int low = Long.numberOfTrailingZeros(word);
+			int high = low + Long.numberOfTrailingZeros(~(word >>> low));
+			result.set(base + low, base + high);
+			word &= (high == Long.SIZE ? 0 : -1L << high);
+		}
+	}
+
+	/**
+	 * @return the number of words of one bit per value for the given number
+	 *         of values
+	 */
+	private static int wordCount(int length) {
+		return (length == 0 ? 0 : (length - 1) / Long.SIZE + 1);
+	}
+
+	/** Prevent instantiation. */
+	private RangeKernels() {}
+}
\ No newline at end of file
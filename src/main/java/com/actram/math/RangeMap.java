@@ -0,0 +1,215 @@
+package com.actram.math;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable map from disjoint {@code long} ranges to values, for lookups such
+ * as price bands or rate tiers.
+ * <p>
+ * The minimums of the ranges are stored in a flat array in Eytzinger order
+ * (the breadth-first order of a balanced binary search tree), so the first
+ * levels of every search share the same few cache lines, and each step of the
+ * search is a comparison and an index computation without a branch to
+ * mispredict. Lookups do not box the key.
+ * <p>
+ * Maps are created with a {@link Builder}.
+ *
+ * @author Peter André Johansen
+ *
+ * @param <V> the type of the values
+ */
+public class RangeMap<V> {
+
+	/**
+	 * Collects ranges and values for a {@link RangeMap}. The ranges may be put
+	 * in any order.
+	 *
+	 * @param <V> the type of the values
+	 */
+	public static class Builder<V> {
+		private long[] from = new long[8];
+		private long[] to = new long[8];
+		private Object[] values = new Object[8];
+		private int size;
+
+		/**
+		 * @return a map with the ranges and values put so far
+		 * @throws IllegalArgumentException if any of the ranges overlap
+		 */
+		public RangeMap<V> build() {
+			int[] order = SortUtil.sortedIndices(Arrays.copyOf(from, size));
+			long[] sortedFrom = new long[size];
+			long[] sortedTo = new long[size];
+			Object[] sortedValues = new Object[size];
+			for (int i = 0; i < size; i++) {
+				sortedFrom[i] = from[order[i]];
+				sortedTo[i] = to[order[i]];
+				sortedValues[i] = values[order[i]];
+				if (i > 0 && sortedFrom[i] <= sortedTo[i - 1]) {
+					throw new IllegalArgumentException("ranges cannot overlap: [" + sortedFrom[i - 1] + ", " + sortedTo[i - 1] + "] and [" + sortedFrom[i] + ", " + sortedTo[i] + "]");
+				}
+			}
+			return new RangeMap<>(sortedFrom, sortedTo, sortedValues);
+		}
+
+		/**
+		 * Maps the values of the given range to the given value.
+		 *
+		 * @return this builder
+		 */
+		public Builder<V> put(IntegerRange range, V value) {
+			Objects.requireNonNull(range, "range cannot be null");
+			return this.put(range.getFrom(), range.getTo(), value);
+		}
+
+		/**
+		 * Maps the values of the given range to the given value.
+		 *
+		 * @return this builder
+		 */
+		public Builder<V> put(LongRange range, V value) {
+			Objects.requireNonNull(range, "range cannot be null");
+			return this.put(range.getFrom(), range.getTo(), value);
+		}
+
+		/**
+		 * Maps the values between the given bounds (inclusively) to the given
+		 * value.
+		 *
+		 * @return this builder
+		 * @throws IllegalArgumentException if the maximum is less than the
+		 *             minimum
+		 */
+		public Builder<V> put(long from, long to, V value) {
+			Objects.requireNonNull(value, "value cannot be null");
+			if (to < from) {
+				throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+			}
+			if (size == this.from.length) {
+				this.from = Arrays.copyOf(this.from, size * 2);
+				this.to = Arrays.copyOf(this.to, size * 2);
+				this.values = Arrays.copyOf(this.values, size * 2);
+			}
+			this.from[size] = from;
+			this.to[size] = to;
+			this.values[size] = value;
+			size++;
+			return this;
+		}
+	}
+
+	/**
+	 * The minimums in Eytzinger order, starting at index one. Index zero is
+	 * unused.
+	 */
+	private final long[] tree;
+
+	/**
+	 * The rank (the position in ascending order) of the minimum at each index
+	 * of the tree. Index zero, where searches past the largest minimum end,
+	 * has the rank {@code size}.
+	 */
+	private final int[] ranks;
+
+	/** The maximums, in ascending order. */
+	private final long[] to;
+
+	/** The values, in ascending order of their ranges. */
+	private final Object[] values;
+
+	private RangeMap(long[] from, long[] to, Object[] values) {
+		this.tree = new long[from.length + 1];
+		this.ranks = new int[from.length + 1];
+		this.ranks[0] = from.length;
+		this.to = to;
+		this.values = values;
+		fill(from, 0, 1);
+	}
+
+	/**
+	 * @return whether any range contains the given key
+	 */
+	public boolean containsKey(long key) {
+		return (indexOf(key) >= 0);
+	}
+
+	/**
+	 * Fills the subtree rooted at the given node with the sorted minimums,
+	 * starting at the given rank.
+	 *
+	 * @return the rank after the last one in the subtree
+	 */
+	private int fill(long[] from, int rank, int node) {
+		if (node < tree.length) {
+			rank = fill(from, rank, 2 * node);
+			tree[node] = from[rank];
+			ranks[node] = rank++;
+			rank = fill(from, rank, 2 * node + 1);
+		}
+		return rank;
+	}
+
+	/**
+	 * @return the value of the range that contains the given key, or
+	 *         {@code null} if no range contains it
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int index = indexOf(key);
+		return (index < 0 ? null : (V) values[index]);
+	}
+
+	/**
+	 * @return the value of the range that contains the given key, or the
+	 *         given default value if no range contains it
+	 */
+	public V getOrDefault(long key, V defaultValue) {
+		V value = get(key);
+		return (value == null ? defaultValue : value);
+	}
+
+	/**
+	 * @return the rank of the range that contains the given key, or {@code -1}
+	 *         if no range contains it
+	 */
+	private int indexOf(long key) {
+		final long[] tree = this.tree;
+
+		// Descend to the first minimum larger than the key
+		int node = 1;
+		while (node < tree.length) {
+			node = 2 * node + (tree[node] <= key ? 1 : 0);
+		}
+
+		// Undo the right turns after the last left turn
+		node >>>= Integer.numberOfTrailingZeros(~node) + 1;
+
+		// The range before it is the only one that can contain the key
+		int rank = ranks[node] - 1;
+		return (rank >= 0 && key <= to[rank] ? rank : -1);
+	}
+
+	/**
+	 * @return the number of ranges in this map
+	 */
+	public int size() {
+		return to.length;
+	}
+
+	@Override
+	public String toString() {
+		long[] from = new long[to.length];
+		for (int node = 1; node < tree.length; node++) {
+			from[ranks[node]] = tree[node];
+		}
+		StringBuilder builder = new StringBuilder(getClass().getSimpleName()).append('[');
+		for (int i = 0; i < to.length; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append('[').append(from[i]).append(", ").append(to[i]).append("]=").append(values[i]);
+		}
+		return builder.append(']').toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.actram.math;
+
+/**
+ * Finds the largest of the keys between two positions in constant time.
+ * <p>
+ * The keys are split into blocks of 32. For each position, a bit mask marks
+ * the positions of its block up to it whose keys are greater than all keys
+ * after them, so the largest key of any part of a block is at the lowest
+ * marked position from its start. A sparse table of the largest keys of
+ * {@code 2^k} consecutive blocks covers the blocks in between, which takes
+ * {@code O(n)} space in total.
+ * <p>
+ * Of several equal largest keys, the last one is found.
+ *
+ * @author Peter André Johansen
+ */
+class RangeMaximum {
+	private static final int BLOCK_SHIFT = 5;
+	private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+	private final long[] keys;
+
+	/** The marked positions of the block of each position, up to it. */
+	private final int[] masks;
+
+	/** The position of the largest key in each {@code 2^level} blocks. */
+	private final int[][] blocks;
+
+	/** The first position after each position with a key at least as large. */
+	private final int[] next;
+
+	/**
+	 * Creates a query structure for the given keys, which must not be
+	 * modified afterwards.
+	 */
+	RangeMaximum(long[] keys) {
+		this.keys = keys;
+		this.masks = new int[keys.length];
+		int blockCount = (keys.length == 0 ? 0 : ((keys.length - 1) >>> BLOCK_SHIFT) + 1);
+		for (int block = 0; block < blockCount; block++) {
+			int start = block << BLOCK_SHIFT;
+			int end = (int) Math.min(keys.length, start + (long) BLOCK_SIZE);
+			int mask = 0;
+			for (int i = start; i < end; i++) {
+				while (mask != 0 && keys[start + 31 - Integer.numberOfLeadingZeros(mask)] <= keys[i]) {
+					mask ^= Integer.highestOneBit(mask);
+				}
+				mask |= 1 << (i - start);
+				masks[i] = mask;
+			}
+		}
+
+		this.blocks = new int[32 - Integer.numberOfLeadingZeros(blockCount)][];
+		for (int level = 0; level < blocks.length; level++) {
+			blocks[level] = new int[blockCount - (1 << level) + 1];
+			for (int block = 0; block < blocks[level].length; block++) {
+				if (level == 0) {
+					int start = block << BLOCK_SHIFT;
+					blocks[level][block] = inBlock(start, (int) Math.min(keys.length - 1, start + (long) BLOCK_SIZE - 1));
+				} else {
+					blocks[level][block] = larger(blocks[level - 1][block], blocks[level - 1][block + (1 << (level - 1))]);
+				}
+			}
+		}
+
+		this.next = new int[keys.length];
+		int[] stack = new int[keys.length];
+		int size = 0;
+		for (int i = keys.length - 1; i >= 0; i--) {
+			while (size > 0 && keys[stack[size - 1]] < keys[i]) {
+				size--;
+			}
+			next[i] = (size == 0 ? keys.length : stack[size - 1]);
+			stack[size++] = i;
+		}
+	}
+
+	/**
+	 * @return the position of the largest key between the given positions
+	 *         (inclusive) of the same block
+	 */
+	private int inBlock(int first, int last) {
+		int offset = first & (BLOCK_SIZE - 1);
+		return first - offset + Integer.numberOfTrailingZeros(masks[last] & (-1 << offset));
+	}
+
+	/**
+	 * @return the position of the larger of the keys at the given positions,
+	 *         or the later position if they are equal
+	 */
+	private int larger(int a, int b) {
+		if (keys[a] != keys[b]) {
+			return (keys[a] > keys[b] ? a : b);
+		}
+		return Math.max(a, b);
+	}
+
+	/**
+	 * @return the position of the last largest key between the given
+	 *         positions (inclusive)
+	 */
+	int max(int first, int last) {
+		int firstBlock = first >>> BLOCK_SHIFT;
+		int lastBlock = last >>> BLOCK_SHIFT;
+		if (firstBlock == lastBlock) {
+			return inBlock(first, last);
+		}
+		int max = larger(inBlock(first, (firstBlock << BLOCK_SHIFT) + BLOCK_SIZE - 1), inBlock(lastBlock << BLOCK_SHIFT, last));
+		int between = lastBlock - firstBlock - 1;
+		if (between > 0) {
+			int level = 31 - Integer.numberOfLeadingZeros(between);
+			max = larger(max, larger(blocks[level][firstBlock + 1], blocks[level][lastBlock - (1 << level)]));
+		}
+		return max;
+	}
+
+	/**
+	 * @return the first position after the given one whose key is at least
+	 *         as large, or the number of keys if there is none
+	 */
+	int next(int index) {
+		return next[index];
+	}
+}
\ No newline at end of file
@@ -1,23 +1,239 @@
 package com.actram.math;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 /**
  * Immutable rational number with chainable methods.
  * <p>
  * Expressed as: {@code a/b, b!= 0}
+ * <p>
+ * Intermediate results are computed in {@code long} arithmetic and reduced
+ * before they are stored, so an operation only fails (with an
+ * {@link ArithmeticException}) when the reduced result does not fit in an
+ * {@code int}. See {@link BigRational} for arbitrary precision.
  *
  * @author Peter André Johansen
  */
 public class Rational implements Comparable<Rational> {
-	public static final Rational NEGATIVE_ONE = new Rational(-1);
-	public static final Rational NEGATIVE_HALF = new Rational(-1, 2);
-	public static final Rational ZERO = new Rational(0);
-	public static final Rational HALF = new Rational(1, 2);
-	public static final Rational ONE = new Rational(1);
+	/**
+	 * Holds the shared instances returned by {@link Rational#valueOf(int, int)}
+	 * for every reduced fraction with a denominator of at most
+	 * {@link #MAX_DENOMINATOR} and a numerator of at most
+	 * {@link #MAX_NUMERATOR} in magnitude.
+	 */
+	private static class Cache {
+		static final int MAX_DENOMINATOR = 64;
+		static final int MAX_NUMERATOR = 2 * MAX_DENOMINATOR;
+		static final int WIDTH = 2 * MAX_NUMERATOR + 1;
+		static final Rational[] CACHE = new Rational[MAX_DENOMINATOR * WIDTH];
+
+		static {
+			for (int q = 1; q <= MAX_DENOMINATOR; q++) {
+				for (int p = -MAX_NUMERATOR; p <= MAX_NUMERATOR; p++) {
+					if (MathUtil.binaryGcd(p, q) == 1) {
+						CACHE[index(p, q)] = ofReduced(p, q);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return the cached instance of the given reduced fraction, or
+		 *         {@code null} if it is not cached
+		 */
+		static Rational get(long p, long q) {
+			if (q > MAX_DENOMINATOR || p < -MAX_NUMERATOR || p > MAX_NUMERATOR) {
+				return null;
+			}
+			return CACHE[index((int) p, (int) q)];
+		}
+
+		static int index(int p, int q) {
+			return ((q - 1) * WIDTH + p + MAX_NUMERATOR);
+		}
+	}
 
+	public static final Rational NEGATIVE_ONE = valueOf(-1);
+	public static final Rational NEGATIVE_HALF = valueOf(-1, 2);
+	public static final Rational ZERO = valueOf(0);
+	public static final Rational HALF = valueOf(1, 2);
+	public static final Rational ONE = valueOf(1);
+
+	/**
+	 * Returns the first continued fraction convergent of the given value that
+	 * equals the value when converted to a {@code double}, which is the
+	 * simplest such fraction in all but rare cases. If there is no such
+	 * convergent in the {@code int} range, the closest rational is returned.
+	 *
+	 * @return the approximation
+	 * @throws IllegalArgumentException if the value is not finite
+	 * @throws ArithmeticException if the value is out of the {@code int} range
+	 * @see #approximate(double, int)
+	 */
 	public static Rational approximate(double value) {
-		throw new UnsupportedOperationException("not implemented yet");
+		return approximate(value, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the closest rational to the given value whose denominator is at
+	 * most the given maximum.
+	 *
+	 * @return the approximation
+	 * @throws IllegalArgumentException if the value is not finite or the
+	 *             maximum denominator is not positive
+	 * @throws ArithmeticException if the value is out of the {@code int} range
+	 * @see PackedRational#approximate(double, int)
+	 */
+	public static Rational approximate(double value, int maxDenominator) {
+		return PackedRational.unpack(PackedRational.approximate(value, maxDenominator));
+	}
+
+	/**
+	 * Approximates each of the given values and stores them in the given array.
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 * @see #approximate(double)
+	 */
+	public static void approximate(double[] values, RationalArray result) {
+		approximate(values, Integer.MAX_VALUE, result);
+	}
+
+	/**
+	 * Approximates each of the given values, with denominators of at most the
+	 * given maximum, and stores them in the given array.
+	 *
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 * @see #approximate(double, int)
+	 */
+	public static void approximate(double[] values, int maxDenominator, RationalArray result) {
+		Objects.requireNonNull(values, "values cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		if (values.length != result.length()) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+		for (int i = 0; i < values.length; i++) {
+			result.setPacked(i, PackedRational.approximate(values[i], maxDenominator));
+		}
+	}
+
+	/**
+	 * Creates a rational from a fraction that is already reduced and has a
+	 * positive denominator, without reducing it again.
+	 *
+	 * @throws ArithmeticException if the fraction does not fit in an
+	 *             {@code int}
+	 */
+	private static Rational ofReduced(long p, long q) {
+		return new Rational(p, q);
+	}
+
+	/**
+	 * Parses a rational such as {@code 3/4}, {@code -5} or the format of
+	 * {@link #toString()}, {@code Rational[3/4]}.
+	 *
+	 * @return the reduced rational
+	 * @throws NumberFormatException if the text is not a rational
+	 * @throws IllegalArgumentException if the denominator is zero
+	 */
+	public static Rational parse(CharSequence text) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, 0, text.length());
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the bytes (as ASCII) of
+	 * the buffer from the first index (inclusively) to the second
+	 * (exclusively). The position of the buffer is not used or changed.
+	 */
+	public static Rational parse(ByteBuffer buffer, int from, int to) {
+		Objects.requireNonNull(buffer, "buffer cannot be null");
+		return parseRegion(buffer, from, to);
+	}
+
+	/**
+	 * Like {@link #parse(CharSequence)}, but parses the characters from the
+	 * first index (inclusively) to the second (exclusively).
+	 */
+	public static Rational parse(CharSequence text, int from, int to) {
+		Objects.requireNonNull(text, "text cannot be null");
+		return parseRegion(text, from, to);
+	}
+
+	private static Rational parseRegion(Object source, int from, int to) {
+		TextParser.checkRegion(source, from, to);
+
+		// Remove the brackets of the format of toString
+		for (int i = from; i < to; i++) {
+			char c = TextParser.charAt(source, i);
+			if (c == '[') {
+				from = TextParser.openBracket(source, from, to);
+				to = TextParser.closeBracket(source, from, to);
+				break;
+			}
+			if (c == '/') {
+				break;
+			}
+		}
+
+		for (int i = from; i < to; i++) {
+			if (TextParser.charAt(source, i) == '/') {
+				return valueOf(TextParser.parseInt(source, from, i), TextParser.parseInt(source, i + 1, to));
+			}
+		}
+		return valueOf(TextParser.parseInt(source, from, to));
 	}
-	
+
+	/**
+	 * @return a rational with the given value and a denominator of one
+	 * @see #valueOf(int, int)
+	 */
+	public static Rational valueOf(int p) {
+		return valueOf(p, 1);
+	}
+
+	/**
+	 * Returns a rational with the given value. Unlike the constructors, small
+	 * fractions (denominators up to 64 and numerators up to twice that, after
+	 * reduction) are shared instances, so this method should be preferred.
+	 *
+	 * @return the reduced rational
+	 * @throws IllegalArgumentException if the denominator is zero
+	 */
+	public static Rational valueOf(int p, int q) {
+		return valueOf((long) p, (long) q);
+	}
+
+	/**
+	 * Reduces a fraction computed in {@code long} arithmetic and returns the
+	 * shared instance if it is cached.
+	 *
+	 * @throws ArithmeticException if the reduced fraction does not fit in an
+	 *             {@code int}
+	 */
+	private static Rational valueOf(long p, long q) {
+		if (q == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+
+		// Store the sign in the numerator
+		if (q < 0) {
+			p = -p;
+			q = -q;
+		}
+
+		// Reduce the fraction as much as possible
+		long gcd = MathUtil.binaryGcd(p, q);
+		p /= gcd;
+		q /= gcd;
+
+		Rational cached = Cache.get(p, q);
+		if (cached != null) {
+			return cached;
+		}
+		return ofReduced(p, q);
+	}
+
 	/** The numerator. Also contains the sign. */
 	private final int p;
 
@@ -28,21 +244,37 @@ public class Rational implements Comparable<Rational> {
 		this(p, 1);
 	}
 
+	/**
+	 * @throws ArithmeticException if the reduced fraction does not fit in an
+	 *             {@code int}, which is only the case for a numerator of
+	 *             {@link Integer#MIN_VALUE} and a negative denominator
+	 */
 	public Rational(int p, int q) {
 		if (q == 0) {
 			throw new IllegalArgumentException("the denominator cannot be zero");
 		}
 
-		// Store the sign in the numerator
-		if (q < 0) {
-			p = -p;
-			q = -q;
+		// Store the sign in the numerator, in long arithmetic as the negation
+		// of the minimum overflows
+		long n = p;
+		long d = q;
+		if (d < 0) {
+			n = -n;
+			d = -d;
 		}
 
 		// Reduce the fraction as much as possible
-		int gcd = Math.abs(MathUtil.gcd(p, q));
-		this.p = (p / gcd);
-		this.q = (q / gcd);
+		long gcd = MathUtil.binaryGcd(n, d);
+		this.p = Math.toIntExact(n / gcd);
+		this.q = Math.toIntExact(d / gcd);
+	}
+
+	/**
+	 * @see #ofReduced(long, long)
+	 */
+	private Rational(long p, long q) {
+		this.p = Math.toIntExact(p);
+		this.q = Math.toIntExact(q);
 	}
 
 	public Rational absolute() {
@@ -50,28 +282,38 @@ public class Rational implements Comparable<Rational> {
 	}
 
 	public Rational add(int n) {
-		return this.set(p * 1 + n * q, q * 1);
+		return this.result(p + (long) n * q, q);
 	}
 
 	public Rational add(Rational r) {
-		return this.set(p * r.q + r.p * q, q * r.q);
+		return this.result((long) p * r.q + (long) r.p * q, (long) q * r.q);
+	}
+
+	/**
+	 * Appends this rational, in the format of {@link #toString()}, to the
+	 * given builder.
+	 *
+	 * @return the builder
+	 */
+	public StringBuilder appendTo(StringBuilder builder) {
+		return builder.append(getClass().getSimpleName()).append('[').append(p).append('/').append(q).append(']');
 	}
 
 	@Override
 	public int compareTo(Rational r) {
-		final long lhs = p * r.q;
-		final long rhs = q * r.p;
+		final long lhs = (long) p * r.q;
+		final long rhs = (long) q * r.p;
 		if (lhs < rhs) return -1;
 		if (lhs > rhs) return +1;
 		return 0;
 	}
 
 	public Rational divide(int n) {
-		return this.set(p, q * n);
+		return this.result(p, (long) q * n);
 	}
 
 	public Rational divide(Rational r) {
-		return this.set(p * r.q, q * r.p);
+		return this.result((long) p * r.q, (long) q * r.p);
 	}
 
 	@Override
@@ -111,23 +353,48 @@ public class Rational implements Comparable<Rational> {
 	}
 
 	public Rational mediant(Rational r) {
-		return this.set(p + r.p, q + r.q);
+		return this.result((long) p + r.p, (long) q + r.q);
 	}
 
 	public Rational multiply(int n) {
-		return this.set(p * n, q);
+		return this.result((long) p * n, q);
 	}
 
 	public Rational multiply(Rational r) {
-		return this.set(p * r.p, q * r.q);
+		return this.result((long) p * r.p, (long) q * r.q);
 	}
 
 	public Rational negate() {
-		return this.set(-p, q);
+		return this.result(-(long) p, q);
+	}
+
+	/**
+	 * Returns the result of an operation, computed in {@code long}
+	 * arithmetic. Subclasses get the result through {@link #set(int, int)},
+	 * after it has been reduced to fit in its arguments.
+	 *
+	 * @throws ArithmeticException if the reduced fraction does not fit in an
+	 *             {@code int}
+	 */
+	private Rational result(long p, long q) {
+		Rational result = valueOf(p, q);
+		return (getClass() == Rational.class ? result : this.set(result.p, result.q));
 	}
 
+	/**
+	 * @return the rational with the given value, which all arithmetic methods
+	 *         return their results through
+	 * @see #valueOf(int, int)
+	 */
 	public Rational set(int p, int q) {
-		return new Rational(p, q);
+		return valueOf(p, q);
+	}
+
+	/**
+	 * @return the numerator, including the sign
+	 */
+	int signedNumerator() {
+		return this.p;
 	}
 
 	public int signum() {
@@ -135,11 +402,11 @@ public class Rational implements Comparable<Rational> {
 	}
 
 	public Rational subtract(int n) {
-		return this.set(p * 1 - (n * q), q * 1);
+		return this.result(p - (long) n * q, q);
 	}
 
 	public Rational subtract(Rational r) {
-		return this.set(p * r.q - (r.p * q), q * r.q);
+		return this.result((long) p * r.q - (long) r.p * q, (long) q * r.q);
 	}
 
 	public double toDouble() {
@@ -151,6 +418,6 @@ public class Rational implements Comparable<Rational> {
 	}
 
 	public String toString() {
-		return getClass().getSimpleName() + "[" + p + "/" + q + "]";
+		return this.appendTo(new StringBuilder()).toString();
 	}
 }
\ No newline at end of file
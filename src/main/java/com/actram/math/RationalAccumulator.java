@@ -0,0 +1,227 @@
+package com.actram.math;
+
+import java.util.Objects;
+
+/**
+ * Mutable accumulator for sums and products of rational numbers. All methods
+ * are chainable.
+ * <p>
+ * The value is kept as an unreduced {@code long} fraction, which is only
+ * reduced when the next operation could overflow or when the result is
+ * requested, so the arithmetic does not allocate. Should the reduced fraction
+ * still be too large, the accumulator continues exactly with a
+ * {@link BigRational}, and returns to {@code long}s as soon as the value fits
+ * in them again.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Peter André Johansen
+ */
+public class RationalAccumulator {
+
+	/** The largest bit length of a product that is computed in longs. */
+	private static final int MAX_BITS = Long.SIZE - 2;
+
+	/**
+	 * @return the number of bits needed for the magnitude of the given value
+	 */
+	private static int bits(long value) {
+		return Long.SIZE - Long.numberOfLeadingZeros(Math.abs(value));
+	}
+
+	/** The unreduced numerator. Also contains the sign. */
+	private long p;
+
+	/** The unreduced denominator. Always positive. */
+	private long q;
+
+	/** The value, once it no longer fits in {@code long}s. */
+	private BigRational big;
+
+	public RationalAccumulator() {
+		reset();
+	}
+
+	public RationalAccumulator(Rational initial) {
+		reset(initial);
+	}
+
+	public RationalAccumulator add(int p, int q) {
+		if (q == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+		return (q < 0 ? this.add(-(long) p, -(long) q) : this.add((long) p, (long) q));
+	}
+
+	/**
+	 * Adds a fraction with a positive denominator, where both values fit in
+	 * an {@code int} (after negation).
+	 */
+	private RationalAccumulator add(long p2, long q2) {
+		if (big == null) {
+			if (q2 == q && bits(p) < MAX_BITS) {
+				p += p2;
+				return this;
+			}
+			for (int attempt = 0; attempt < 2; attempt++) {
+				if (q % q2 == 0) {
+
+					// The denominator already contains the new one
+					long factor = q / q2;
+					if (bits(p) < MAX_BITS && bits(p2) + bits(factor) <= MAX_BITS) {
+						p += p2 * factor;
+						return this;
+					}
+				} else if (bits(p) + bits(q2) <= MAX_BITS && bits(p2) + bits(q) <= MAX_BITS && bits(q) + bits(q2) <= MAX_BITS) {
+					p = p * q2 + p2 * q;
+					q = q * q2;
+					return this;
+				}
+				if (attempt == 0) {
+					reduce();
+				}
+			}
+			big = BigRational.valueOf(p, q);
+		}
+		big = big.add(BigRational.valueOf(p2, q2));
+		demote();
+		return this;
+	}
+
+	public RationalAccumulator add(Rational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		return this.add((long) r.signedNumerator(), (long) r.getDenominator());
+	}
+
+	/**
+	 * Moves the value back to {@code long}s if the big rational fits in them.
+	 */
+	private void demote() {
+		if (big.isLong()) {
+			p = big.longNumerator();
+			q = big.longDenominator();
+			big = null;
+		}
+	}
+
+	public RationalAccumulator multiply(int p, int q) {
+		if (q == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+		return (q < 0 ? this.multiply(-(long) p, -(long) q) : this.multiply((long) p, (long) q));
+	}
+
+	/**
+	 * Multiplies by a fraction with a positive denominator, where both values
+	 * fit in an {@code int} (after negation).
+	 */
+	private RationalAccumulator multiply(long p2, long q2) {
+		if (big == null) {
+			for (int attempt = 0; attempt < 2; attempt++) {
+				if (bits(p) + bits(p2) <= MAX_BITS && bits(q) + bits(q2) <= MAX_BITS) {
+					p *= p2;
+					q *= q2;
+					return this;
+				}
+				if (attempt == 0) {
+					reduce();
+				}
+			}
+			big = BigRational.valueOf(p, q);
+		}
+		big = big.multiply(BigRational.valueOf(p2, q2));
+		demote();
+		return this;
+	}
+
+	public RationalAccumulator multiply(Rational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		return this.multiply((long) r.signedNumerator(), (long) r.getDenominator());
+	}
+
+	/**
+	 * Reduces the fraction as much as possible.
+	 */
+	private void reduce() {
+		long gcd = MathUtil.binaryGcd(p, q);
+		p /= gcd;
+		q /= gcd;
+	}
+
+	/**
+	 * Sets the value to zero.
+	 *
+	 * @return this accumulator
+	 */
+	public RationalAccumulator reset() {
+		this.p = 0;
+		this.q = 1;
+		this.big = null;
+		return this;
+	}
+
+	/**
+	 * Sets the value to the given rational.
+	 *
+	 * @return this accumulator
+	 */
+	public RationalAccumulator reset(Rational value) {
+		Objects.requireNonNull(value, "value cannot be null");
+		this.p = value.signedNumerator();
+		this.q = value.getDenominator();
+		this.big = null;
+		return this;
+	}
+
+	public int signum() {
+		return (big != null ? big.signum() : Long.signum(p));
+	}
+
+	public RationalAccumulator subtract(int p, int q) {
+		if (q == 0) {
+			throw new IllegalArgumentException("the denominator cannot be zero");
+		}
+		return (q < 0 ? this.add((long) p, -(long) q) : this.add(-(long) p, (long) q));
+	}
+
+	public RationalAccumulator subtract(Rational r) {
+		Objects.requireNonNull(r, "rational cannot be null");
+		return this.add(-(long) r.signedNumerator(), (long) r.getDenominator());
+	}
+
+	/**
+	 * @return the exact value
+	 */
+	public BigRational toBigRational() {
+		return (big != null ? big : BigRational.valueOf(p, q));
+	}
+
+	public double toDouble() {
+		final long exact = (1L << 53);
+		if (big == null && -exact <= p && p <= exact && q <= exact) {
+			return (((double) p) / q);
+		}
+		return toBigRational().toDouble();
+	}
+
+	/**
+	 * @return the value as a rational
+	 * @throws ArithmeticException if the reduced value does not fit in a
+	 *             {@link Rational}
+	 */
+	public Rational toRational() {
+		if (big != null) {
+			return big.toRational();
+		}
+		reduce();
+		return Rational.valueOf(Math.toIntExact(p), Math.toIntExact(q));
+	}
+
+	@Override
+	public String toString() {
+		if (big != null) {
+			return getClass().getSimpleName() + "[" + (big.signum() < 0 ? "-" : "") + big.getNumerator() + "/" + big.getDenominator() + "]";
+		}
+		return getClass().getSimpleName() + "[" + p + "/" + q + "]";
+	}
+}
\ No newline at end of file
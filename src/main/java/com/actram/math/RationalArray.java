@@ -0,0 +1,353 @@
+package com.actram.math;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Fixed-length array of rational numbers, stored as one array of numerators
+ * and one array of denominators.
+ * <p>
+ * Every element is reduced and has a positive denominator, like a
+ * {@link Rational}. The bulk operations are plain loops over the two
+ * {@code int} arrays and do not allocate per element. When an operation
+ * fails for one element (with an {@link ArithmeticException}, like the
+ * corresponding {@link Rational} method), the results of the other elements
+ * may already have been written.
+ * <p>
+ * The {@code parallel} variants split the work over the common
+ * {@link java.util.concurrent.ForkJoinPool} once the array has at least
+ * {@link #PARALLEL_THRESHOLD} elements.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Peter André Johansen
+ */
+public class RationalArray {
+	/** The smallest length for which the parallel variants split the work. */
+	public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	/** The numerators. Also contain the signs. */
+	private final int[] p;
+
+	/** The denominators. Always positive. */
+	private final int[] q;
+
+	/**
+	 * Creates an array of the given length with all elements set to zero.
+	 */
+	public RationalArray(int length) {
+		this.p = new int[length];
+		this.q = new int[length];
+		for (int i = 0; i < length; i++) {
+			q[i] = 1;
+		}
+	}
+
+	public RationalArray(Rational... values) {
+		this(Objects.requireNonNull(values, "values cannot be null").length);
+		for (int i = 0; i < values.length; i++) {
+			this.set(i, values[i]);
+		}
+	}
+
+	/**
+	 * Adds each element of the given array to the corresponding element of
+	 * this array.
+	 *
+	 * @return a new array with the sums
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public RationalArray add(RationalArray other) {
+		return this.add(other, new RationalArray(p.length));
+	}
+
+	/**
+	 * Adds each element of the given array to the corresponding element of
+	 * this array, and stores the sums in the given result array (which may be
+	 * either of the arrays).
+	 *
+	 * @return the result array
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public RationalArray add(RationalArray other, RationalArray result) {
+		checkLengths(other, result);
+		add(other, result, 0, p.length);
+		return result;
+	}
+
+	private void add(RationalArray other, RationalArray result, int from, int to) {
+		final int[] p2 = other.p;
+		final int[] q2 = other.q;
+		for (int i = from; i < to; i++) {
+			if (q[i] == q2[i]) {
+				result.store(i, (long) p[i] + p2[i], q[i]);
+			} else {
+				result.store(i, (long) p[i] * q2[i] + (long) p2[i] * q[i], (long) q[i] * q2[i]);
+			}
+		}
+	}
+
+	private void checkLengths(RationalArray other, RationalArray result) {
+		Objects.requireNonNull(other, "other cannot be null");
+		Objects.requireNonNull(result, "result cannot be null");
+		if (other.p.length != p.length || result.p.length != p.length) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+	}
+
+	/**
+	 * @return a parallel stream of the chunk numbers, where each chunk has
+	 *         {@link #PARALLEL_THRESHOLD} elements (except the last one)
+	 */
+	private IntStream chunks() {
+		return IntStream.range(0, (p.length - 1) / PARALLEL_THRESHOLD + 1).parallel();
+	}
+
+	private int chunkFrom(int chunk) {
+		return chunk * PARALLEL_THRESHOLD;
+	}
+
+	private int chunkTo(int chunk) {
+		return Math.min(p.length, (chunk + 1) * PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Compares each element of this array with the corresponding element of
+	 * the given array.
+	 *
+	 * @return an array with {@code -1}, {@code 0} or {@code 1} for each element
+	 *         of this array that is less than, equal to or greater than the
+	 *         corresponding element of the given array
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public int[] compare(RationalArray other) {
+		Objects.requireNonNull(other, "other cannot be null");
+		if (other.p.length != p.length) {
+			throw new IllegalArgumentException("arrays must have the same length");
+		}
+		final int[] p2 = other.p;
+		final int[] q2 = other.q;
+		int[] result = new int[p.length];
+		for (int i = 0; i < p.length; i++) {
+			result[i] = Long.compare((long) p[i] * q2[i], (long) p2[i] * q[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the denominator of the element with the given index
+	 */
+	int denominator(int index) {
+		return q[index];
+	}
+
+	/**
+	 * @return the element with the given index
+	 */
+	public Rational get(int index) {
+		return Rational.valueOf(p[index], q[index]);
+	}
+
+	/**
+	 * @return the index of the first largest element if the sign is positive,
+	 *         or of the first smallest element if the sign is negative
+	 * @throws NoSuchElementException if the array is empty
+	 */
+	private int indexOfExtreme(int sign) {
+		if (p.length == 0) {
+			throw new NoSuchElementException("the array is empty");
+		}
+		int index = 0;
+		for (int i = 1; i < p.length; i++) {
+			if (Long.compare((long) p[i] * q[index], (long) p[index] * q[i]) == sign) {
+				index = i;
+			}
+		}
+		return index;
+	}
+
+	public int length() {
+		return p.length;
+	}
+
+	/**
+	 * @return the largest element
+	 * @throws NoSuchElementException if the array is empty
+	 */
+	public Rational max() {
+		return this.get(indexOfExtreme(1));
+	}
+
+	/**
+	 * @return the smallest element
+	 * @throws NoSuchElementException if the array is empty
+	 */
+	public Rational min() {
+		return this.get(indexOfExtreme(-1));
+	}
+
+	/**
+	 * Multiplies each element of this array by the corresponding element of
+	 * the given array.
+	 *
+	 * @return a new array with the products
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public RationalArray multiply(RationalArray other) {
+		return this.multiply(other, new RationalArray(p.length));
+	}
+
+	/**
+	 * Multiplies each element of this array by the corresponding element of
+	 * the given array, and stores the products in the given result array
+	 * (which may be either of the arrays).
+	 *
+	 * @return the result array
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public RationalArray multiply(RationalArray other, RationalArray result) {
+		checkLengths(other, result);
+		multiply(other, result, 0, p.length);
+		return result;
+	}
+
+	private void multiply(RationalArray other, RationalArray result, int from, int to) {
+		final int[] p2 = other.p;
+		final int[] q2 = other.q;
+		for (int i = from; i < to; i++) {
+			result.store(i, (long) p[i] * p2[i], (long) q[i] * q2[i]);
+		}
+	}
+
+	/**
+	 * Like {@link #add(RationalArray, RationalArray)}, but splits the work
+	 * over multiple threads for large arrays.
+	 */
+	public RationalArray parallelAdd(RationalArray other, RationalArray result) {
+		checkLengths(other, result);
+		if (p.length < PARALLEL_THRESHOLD) {
+			add(other, result, 0, p.length);
+		} else {
+			chunks().forEach(chunk -> add(other, result, chunkFrom(chunk), chunkTo(chunk)));
+		}
+		return result;
+	}
+
+	/**
+	 * Like {@link #multiply(RationalArray, RationalArray)}, but splits the
+	 * work over multiple threads for large arrays.
+	 */
+	public RationalArray parallelMultiply(RationalArray other, RationalArray result) {
+		checkLengths(other, result);
+		if (p.length < PARALLEL_THRESHOLD) {
+			multiply(other, result, 0, p.length);
+		} else {
+			chunks().forEach(chunk -> multiply(other, result, chunkFrom(chunk), chunkTo(chunk)));
+		}
+		return result;
+	}
+
+	/**
+	 * Like {@link #sum()}, but splits the work over multiple threads for large
+	 * arrays.
+	 */
+	public BigRational parallelSum() {
+		if (p.length < PARALLEL_THRESHOLD) {
+			return sum(0, p.length);
+		}
+		return chunks().mapToObj(chunk -> sum(chunkFrom(chunk), chunkTo(chunk))).reduce(BigRational.ZERO, BigRational::add);
+	}
+
+	/**
+	 * Sets the element with the given index to the given value.
+	 *
+	 * @throws IllegalArgumentException if the denominator is zero
+	 * @throws ArithmeticException if the reduced fraction does not fit in an
+	 *             {@code int}
+	 */
+	public void set(int index, int p, int q) {
+		this.store(index, p, q);
+	}
+
+	/**
+	 * Sets the element with the given index to the given value.
+	 */
+	public void set(int index, Rational value) {
+		Objects.requireNonNull(value, "value cannot be null");
+		p[index] = value.signedNumerator();
+		q[index] = value.getDenominator();
+	}
+
+	/**
+	 * Sets the element with the given index to the given packed rational.
+	 */
+	void setPacked(int index, long packed) {
+		p[index] = PackedRational.numerator(packed);
+		q[index] = PackedRational.denominator(packed);
+	}
+
+	/**
+	 * Reduces the given fraction and stores it at the given index.
+	 */
+	private void store(int index, long p, long q) {
+		setPacked(index, PackedRational.reduce(p, q));
+	}
+
+	/**
+	 * @return the numerator of the element with the given index, including
+	 *         the sign
+	 */
+	int signedNumerator(int index) {
+		return p[index];
+	}
+
+	/**
+	 * @return the exact sum of all elements
+	 */
+	public BigRational sum() {
+		return sum(0, p.length);
+	}
+
+	private BigRational sum(int from, int to) {
+		RationalAccumulator accumulator = new RationalAccumulator();
+		for (int i = from; i < to; i++) {
+			accumulator.add(p[i], q[i]);
+		}
+		return accumulator.toBigRational();
+	}
+
+	/**
+	 * @return the elements as rationals
+	 */
+	public Rational[] toArray() {
+		Rational[] array = new Rational[p.length];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = this.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * @return the elements as doubles
+	 */
+	public double[] toDoubleArray() {
+		double[] array = new double[p.length];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = ((double) p[i]) / q[i];
+		}
+		return array;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(getClass().getSimpleName()).append('[');
+		for (int i = 0; i < p.length; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(p[i]).append('/').append(q[i]);
+		}
+		return builder.append(']').toString();
+	}
+}
\ No newline at end of file
@@ -40,9 +40,34 @@ public class RationalRange extends AbstractCountableRange<Rational> {
 		return value.isNegative();
 	}
 
+	/**
+	 * Returns a uniformly distributed value from the fractions {@code k/d}
+	 * inside the range, where {@code d} is the largest multiple of the least
+	 * common denominator of the boundaries for which all the fractions fit in
+	 * a {@link Rational}. If no such multiple exists, a uniformly distributed
+	 * {@code double} is approximated instead.
+	 */
 	@Override
 	protected Rational random(Random random) {
-		throw new UnsupportedOperationException("not implemented yet");
+		final long lcm = MathUtil.lcm((long) from.getDenominator(), (long) to.getDenominator());
+		final long min = from.signedNumerator() * (lcm / from.getDenominator());
+		final long max = to.signedNumerator() * (lcm / to.getDenominator());
+
+		final long multiple = Integer.MAX_VALUE / Math.max(lcm, Math.max(Math.abs(min), Math.abs(max)));
+		if (multiple > 0) {
+			int numerator = RandomUtil.nextInt(random, (int) (min * multiple), (int) (max * multiple));
+			return Rational.valueOf(numerator, (int) (lcm * multiple));
+		}
+
+		// Clamp the approximation, which may be just outside
+		Rational value = Rational.approximate(RandomUtil.scale(random.nextDouble(), from.toDouble(), to.toDouble()));
+		if (value.compareTo(from) < 0) {
+			return from;
+		}
+		if (value.compareTo(to) > 0) {
+			return to;
+		}
+		return value;
 	}
 
 	@Override
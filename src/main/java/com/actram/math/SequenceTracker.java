@@ -0,0 +1,353 @@
+package com.actram.math;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe tracker of sequence numbers that arrive out of order, which
+ * reports the contiguous high-water mark and the gaps after it.
+ * <p>
+ * The numbers just after the high-water mark are recorded in a sliding window
+ * of bits, split into blocks of {@value #BLOCK_BITS} numbers. Each block is
+ * stored in one slot of a ring as its bits together with a stamp, the index
+ * of the block, so that the slots can be reused as the window slides without
+ * a lock: a number is set with a compare-and-set on its slot if the stamp
+ * matches its block, is dropped if the block has already slid past, and is
+ * otherwise added to an overflow set of ranges. The overflow set is a
+ * {@link LongRangeSet} that is replaced with compare-and-set, and also holds
+ * the ranges that are too large for the window. Memory is therefore bounded
+ * by the window and the number of separate runs of numbers past it.
+ * <p>
+ * The thread that receives the first missing number advances the high-water
+ * mark, re-stamping the slots of the blocks it passes before it publishes the
+ * new mark. Only one thread advances at a time, claimed with a
+ * compare-and-set on a flag, as the re-stamped slots must all be passed by
+ * the mark that is published. A thread that fails to claim the flag leaves
+ * its number to the thread that holds it, which scans again after releasing
+ * the flag. Other threads only touch the slot of their number.
+ *
+ * @author Peter André Johansen
+ */
+public class SequenceTracker {
+	/** The number of sequence numbers in each slot of the window. */
+	static final int BLOCK_BITS = 32;
+
+	/** The default number of sequence numbers in the window. */
+	public static final int DEFAULT_WINDOW_SIZE = 1 << 16;
+
+	/** The ranges larger than this are added to the overflow set directly. */
+	private static final long MAX_WINDOW_RANGE = 4 * BLOCK_BITS;
+
+	/**
+	 * @return whether the first stamp is of an earlier block than the second
+	 */
+	private static boolean isBefore(int stamp1, int stamp2) {
+		return (stamp1 - stamp2 < 0);
+	}
+
+	/** The first sequence number. */
+	private final long start;
+
+	/** The slots, each a stamp in the upper and the bits in the lower half. */
+	private final AtomicLongArray slots;
+
+	private final int slotMask;
+
+	/**
+	 * The first missing number, as an offset from the start. Every number
+	 * before it has been received.
+	 */
+	private final AtomicLong next = new AtomicLong();
+
+	/** The received numbers that are not in the window. */
+	private final AtomicReference<LongRangeSet> overflow = new AtomicReference<>(LongRangeSet.EMPTY);
+
+	/** Whether a thread is advancing the high-water mark. */
+	private final AtomicBoolean advancing = new AtomicBoolean();
+
+	/**
+	 * Creates a tracker that expects the given number first.
+	 */
+	public SequenceTracker(long start) {
+		this(start, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param windowSize the number of sequence numbers after the high-water
+	 *            mark that are recorded as bits
+	 * @throws IllegalArgumentException if the window size is not a power of
+	 *             two between {@value #BLOCK_BITS} and {@code 2^30}
+	 */
+	public SequenceTracker(long start, int windowSize) {
+		if (windowSize < BLOCK_BITS || windowSize > (1 << 30) || Integer.bitCount(windowSize) != 1) {
+			throw new IllegalArgumentException("window size must be a power of two between " + BLOCK_BITS + " and 2^30");
+		}
+		this.start = start;
+		this.slots = new AtomicLongArray(windowSize / BLOCK_BITS);
+		this.slotMask = slots.length() - 1;
+		for (int i = 0; i < slots.length(); i++) {
+			slots.set(i, (long) i << 32);
+		}
+	}
+
+	/**
+	 * Records the given sequence number as received. Numbers before the start
+	 * and numbers that were already received are ignored.
+	 */
+	public void add(long number) {
+		if (number < start) {
+			return;
+		}
+		long offset = number - start;
+		long nx = next.get();
+		if (Long.compareUnsigned(offset, nx) < 0) {
+			return;
+		}
+		if (!this.set(offset >>> 5, 1 << (int) (offset & (BLOCK_BITS - 1)), nx)) {
+			this.addOverflow(number, number);
+		}
+		if (offset == next.get()) {
+			this.advance();
+		}
+	}
+
+	/**
+	 * Records the sequence numbers between the given bounds (inclusively) as
+	 * received.
+	 *
+	 * @throws IllegalArgumentException if the maximum is less than the minimum
+	 */
+	public void add(long from, long to) {
+		if (to < from) {
+			throw new IllegalArgumentException("maximum=" + to + " cannot be less than minimum=" + from);
+		}
+		if (to < start) {
+			return;
+		}
+		long nx = next.get();
+		long first = Math.max(from, start) - start;
+		long last = to - start;
+		if (Long.compareUnsigned(last, nx) < 0) {
+			return;
+		}
+		if (Long.compareUnsigned(first, nx) < 0) {
+			first = nx;
+		}
+		if (Long.compareUnsigned(last - first, MAX_WINDOW_RANGE) >= 0) {
+			this.addOverflow(start + first, to);
+		} else {
+			for (long block = first >>> 5; Long.compareUnsigned(block, last >>> 5) <= 0; block++) {
+				long blockStart = block << 5;
+				int low = (int) Math.max(first - blockStart, 0);
+				int high = (int) Math.min(last - blockStart, BLOCK_BITS - 1);
+				int bits = (-1 >>> (BLOCK_BITS - 1 - high)) & (-1 << low);
+				if (!this.set(block, bits, nx)) {
+					this.addOverflow(start + blockStart + low, start + blockStart + high);
+				}
+			}
+		}
+		nx = next.get();
+		if (Long.compareUnsigned(first, nx) <= 0 && Long.compareUnsigned(nx, last) <= 0) {
+			this.advance();
+		}
+	}
+
+	/**
+	 * Records the sequence numbers of the given range as received.
+	 */
+	public void add(LongRange range) {
+		Objects.requireNonNull(range, "range cannot be null");
+		this.add(range.getFrom(), range.getTo());
+	}
+
+	/**
+	 * Adds the given numbers to the overflow set.
+	 */
+	private void addOverflow(long from, long to) {
+		LongRange range = new LongRange(from, to);
+		LongRangeSet set;
+		do {
+			set = overflow.get();
+			if (set.contains(range)) {
+				return;
+			}
+		} while (!overflow.compareAndSet(set, set.add(range)));
+	}
+
+	/**
+	 * Moves the high-water mark past the numbers that have been received, for
+	 * as long as there are any.
+	 */
+	private void advance() {
+		while (advancing.compareAndSet(false, true)) {
+			try {
+				long nx = next.get();
+				long target = this.scan(nx);
+				if (target != nx) {
+					// The slots must be re-stamped before the mark passes them, so
+					// that numbers of the next blocks are never set in stale slots
+					this.restamp(nx >>> 5, target >>> 5);
+					next.set(target);
+					long mark = start + target - 1;
+					LongRangeSet set;
+					do {
+						set = overflow.get();
+					} while (!set.isEmpty() && set.getFrom() <= mark && !overflow.compareAndSet(set, set.remove(new LongRange(set.getFrom(), mark))));
+				}
+			} finally {
+				advancing.set(false);
+			}
+
+			// The numbers of threads that failed to claim the flag were set
+			// before they tried, so they are seen by this scan
+			long nx = next.get();
+			if (this.scan(nx) == nx) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return whether the given sequence number has been received
+	 */
+	public boolean contains(long number) {
+		if (number < start) {
+			return false;
+		}
+		long offset = number - start;
+		long nx = next.get();
+		if (Long.compareUnsigned(offset, nx) < 0) {
+			return true;
+		}
+		long block = offset >>> 5;
+		long slot = slots.get((int) block & slotMask);
+		if (block - (nx >>> 5) < slots.length() && (int) (slot >>> 32) == (int) block && (slot & (1L << (offset & (BLOCK_BITS - 1)))) != 0) {
+			return true;
+		}
+		return overflow.get().contains(number);
+	}
+
+	/**
+	 * @return the last number of the contiguous run of received numbers from
+	 *         the start, or the start minus one if the start has not been
+	 *         received
+	 */
+	public long contiguousUpTo() {
+		return start + next.get() - 1;
+	}
+
+	/**
+	 * Returns the missing numbers between the high-water mark and the largest
+	 * received number. Numbers that are received while the gaps are computed
+	 * may or may not be reflected.
+	 *
+	 * @return the gaps, which are empty if there are no numbers after the
+	 *         high-water mark
+	 */
+	public LongRangeSet gaps() {
+		long nx = next.get();
+		List<LongRange> runs = new ArrayList<>();
+		long firstBlock = nx >>> 5;
+		for (long block = firstBlock; block - firstBlock < slots.length(); block++) {
+			long slot = slots.get((int) block & slotMask);
+			if ((int) (slot >>> 32) != (int) block) {
+				continue;
+			}
+			int bits = (int) slot;
+			while (bits != 0) {
+				int low = Integer.numberOfTrailingZeros(bits);
+				int high = Integer.numberOfTrailingZeros(~(bits >>> low)) + low - 1;
+				runs.add(new LongRange(start + (block << 5) + low, start + (block << 5) + high));
+				bits &= (high == BLOCK_BITS - 1 ? 0 : -1 << (high + 1));
+			}
+		}
+
+		long mark = start + nx;
+		LongRangeSet received = overflow.get().union(LongRangeSet.of(runs.toArray(new LongRange[runs.size()])));
+		if (received.isEmpty() || received.getTo() < mark) {
+			return LongRangeSet.EMPTY;
+		}
+		return LongRangeSet.of(mark, received.getTo()).subtract(received);
+	}
+
+	/**
+	 * Re-stamps the slots of the given blocks (to exclusive) with the blocks
+	 * that take their place in the window, unless that has been done.
+	 */
+	private void restamp(long fromBlock, long toBlock) {
+		long first = (toBlock - fromBlock > slots.length() ? toBlock - slots.length() : fromBlock);
+		for (long block = first; block < toBlock; block++) {
+			int index = (int) block & slotMask;
+			int stamp = (int) (block + slots.length());
+			long slot;
+			do {
+				slot = slots.get(index);
+			} while (isBefore((int) (slot >>> 32), stamp) && !slots.compareAndSet(index, slot, (long) stamp << 32));
+		}
+	}
+
+	/**
+	 * @return the offset of the first missing number from the given offset
+	 *         on, as far as the window and the overflow set tell
+	 */
+	private long scan(long offset) {
+		LongRangeSet overflow = this.overflow.get();
+		while (true) {
+			int index = overflow.indexOf(start + offset);
+			if (index >= 0) {
+				long to = overflow.get(index).getTo();
+				if (to - start == -1) {
+					return offset;
+				}
+				offset = to - start + 1;
+				continue;
+			}
+
+			long block = offset >>> 5;
+			long slot = slots.get((int) block & slotMask);
+			if ((int) (slot >>> 32) != (int) block) {
+				return offset;
+			}
+			int bit = (int) (offset & (BLOCK_BITS - 1));
+			int received = Integer.numberOfTrailingZeros(~((int) slot >>> bit));
+			if (received == 0) {
+				return offset;
+			}
+			offset += Math.min(received, BLOCK_BITS - bit);
+		}
+	}
+
+	/**
+	 * Sets the given bits in the slot of the given block, which must not be
+	 * before the block of the given high-water mark.
+	 *
+	 * @return whether the bits are set or the block has passed, or
+	 *         {@code false} if the block is not in the window yet
+	 */
+	private boolean set(long block, int bits, long nx) {
+		if (block - (nx >>> 5) >= slots.length()) {
+			return false;
+		}
+		int index = (int) block & slotMask;
+		while (true) {
+			long slot = slots.get(index);
+			int stamp = (int) (slot >>> 32);
+			if (stamp != (int) block) {
+				return !isBefore(stamp, (int) block);
+			}
+			if (((int) slot & bits) == bits || slots.compareAndSet(index, slot, slot | (bits & 0xFFFFFFFFL))) {
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[start=" + start + ", contiguousUpTo=" + contiguousUpTo() + "]";
+	}
+}
\ No newline at end of file
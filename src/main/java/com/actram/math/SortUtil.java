@@ -0,0 +1,77 @@
+package com.actram.math;
+
+/**
+ * Static methods for sorting primitive keys without boxing them.
+ *
+ * @author Peter André Johansen
+ */
+class SortUtil {
+	/** The length below which the merge sort falls back to insertion sort. */
+	private static final int INSERTION_THRESHOLD = 32;
+
+	private static void insertionSort(long[] keys, int[] indices, int from, int to) {
+		for (int i = from + 1; i < to; i++) {
+			int index = indices[i];
+			long key = keys[index];
+			int j = i - 1;
+			while (j >= from && keys[indices[j]] > key) {
+				indices[j + 1] = indices[j];
+				j--;
+			}
+			indices[j + 1] = index;
+		}
+	}
+
+	/**
+	 * Sorts the given range of indices by their keys, stably, using the other
+	 * array (which holds the same indices) as the source of the merge.
+	 */
+	private static void mergeSort(long[] keys, int[] source, int[] target, int from, int to) {
+		if (to - from <= INSERTION_THRESHOLD) {
+			insertionSort(keys, target, from, to);
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(keys, target, source, from, mid);
+		mergeSort(keys, target, source, mid, to);
+
+		// Skip the merge if the halves are already in order
+		if (keys[source[mid - 1]] <= keys[source[mid]]) {
+			System.arraycopy(source, from, target, from, to - from);
+			return;
+		}
+		int i = from;
+		int j = mid;
+		for (int k = from; k < to; k++) {
+			if (j >= to || (i < mid && keys[source[i]] <= keys[source[j]])) {
+				target[k] = source[i++];
+			} else {
+				target[k] = source[j++];
+			}
+		}
+	}
+
+	/**
+	 * @return a {@code long} with the same order as the given {@code double}
+	 *         (as defined by {@link Double#compare(double, double)})
+	 */
+	static long sortableBits(double value) {
+		long bits = Double.doubleToLongBits(value);
+		return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+	}
+
+	/**
+	 * @return the indices of the given keys, stably sorted by the keys
+	 */
+	static int[] sortedIndices(long[] keys) {
+		int[] indices = new int[keys.length];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = i;
+		}
+		mergeSort(keys, indices.clone(), indices, 0, indices.length);
+		return indices;
+	}
+
+	/** Prevent instantiation. */
+	private SortUtil() {}
+}
\ No newline at end of file
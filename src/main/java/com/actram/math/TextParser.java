@@ -0,0 +1,289 @@
+package com.actram.math;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Static methods for parsing numbers and literals from a region of a
+ * {@link CharSequence} or of a {@link ByteBuffer} (as ASCII), without
+ * allocating (except for the rare {@code double} values described in
+ * {@link #parseDouble(Object, int, int)}).
+ * <p>
+ * The source is passed as an {@code Object} that is either of the two, so the
+ * same parser serves both without wrapping. Regions are given as absolute
+ * indices, from (inclusive) to (exclusive), and the position of a buffer is
+ * ignored. Spaces and tabs around numbers are skipped. Invalid input causes a
+ * {@link NumberFormatException} with the same message as
+ * {@link Long#parseLong(String)}.
+ *
+ * @author Peter André Johansen
+ */
+class TextParser {
+	/**
+	 * The largest mantissa that a {@code double} represents exactly, for
+	 * Clinger's fast path.
+	 */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	/** The powers of ten that a {@code double} represents exactly. */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	static char charAt(Object source, int index) {
+		if (source instanceof ByteBuffer) {
+			return (char) (((ByteBuffer) source).get(index) & 0xFF);
+		}
+		return ((CharSequence) source).charAt(index);
+	}
+
+	/**
+	 * Checks that the given region is within the bounds of the source.
+	 */
+	static void checkRegion(Object source, int from, int to) {
+		int length = (source instanceof ByteBuffer ? ((ByteBuffer) source).limit() : ((CharSequence) source).length());
+		if (from < 0 || to > length || from > to) {
+			throw new IndexOutOfBoundsException("from=" + from + ", to=" + to + ", length=" + length);
+		}
+	}
+
+	/**
+	 * @return the index of the closing bracket that ends the region, ignoring
+	 *         spaces
+	 * @throws NumberFormatException if the region does not end with a closing
+	 *             bracket
+	 */
+	static int closeBracket(Object source, int from, int to) {
+		int end = trimSpaces(source, from, to);
+		if (end == from || charAt(source, end - 1) != ']') {
+			throw invalid(source, from, to);
+		}
+		return end - 1;
+	}
+
+	/**
+	 * @return the index of the given character in the region
+	 * @throws NumberFormatException if the region does not contain the
+	 *             character
+	 */
+	static int indexOf(Object source, char c, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (charAt(source, i) == c) {
+				return i;
+			}
+		}
+		throw invalid(source, from, to);
+	}
+
+	static NumberFormatException invalid(Object source, int from, int to) {
+		return new NumberFormatException("For input string: \"" + text(source, from, to) + "\"");
+	}
+
+	private static boolean isSpace(char c) {
+		return (c == ' ' || c == '\t');
+	}
+
+	/**
+	 * Finds the opening bracket of a literal of the form {@code Name[...]},
+	 * where the name is optional.
+	 *
+	 * @return the index after the opening bracket
+	 * @throws NumberFormatException if the region does not start with such a
+	 *             name and bracket
+	 */
+	static int openBracket(Object source, int from, int to) {
+		for (int i = skipSpaces(source, from, to); i < to; i++) {
+			char c = charAt(source, i);
+			if (c == '[') {
+				return i + 1;
+			}
+			if (!Character.isJavaIdentifierPart(c)) {
+				break;
+			}
+		}
+		throw invalid(source, from, to);
+	}
+
+	/**
+	 * Parses a decimal {@code double} in the format of
+	 * {@link Double#toString(double)}: an optional sign followed by
+	 * {@code NaN}, {@code Infinity} or digits with an optional point and
+	 * exponent. Unlike {@link Double#parseDouble(String)}, hexadecimal values
+	 * and {@code d} or {@code f} suffixes are rejected.
+	 * <p>
+	 * Values with at most 53 bits of digits and an exponent of at most 22 in
+	 * magnitude are computed with a single exact multiplication or division,
+	 * which is correctly rounded (Clinger's fast path). Other values are
+	 * passed to {@link Double#parseDouble(String)} after the whole region has
+	 * been checked, which allocates a string of the region.
+	 */
+	static double parseDouble(Object source, int from, int to) {
+		int start = skipSpaces(source, from, to);
+		int end = trimSpaces(source, start, to);
+		int i = start;
+		boolean negative = false;
+		if (i < end && (charAt(source, i) == '-' || charAt(source, i) == '+')) {
+			negative = (charAt(source, i) == '-');
+			i++;
+		}
+		if (regionMatches(source, i, end, "NaN")) {
+			return Double.NaN;
+		}
+		if (regionMatches(source, i, end, "Infinity")) {
+			return (negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+		}
+
+		// Keep checking the digits after the mantissa becomes inexact
+		long mantissa = 0;
+		int exponent = 0;
+		boolean digits = false;
+		boolean exact = true;
+		boolean fraction = false;
+		for (; i < end; i++) {
+			char c = charAt(source, i);
+			if (c == '.' && !fraction) {
+				fraction = true;
+				continue;
+			}
+			if (c < '0' || c > '9') {
+				break;
+			}
+			digits = true;
+			if (exact && mantissa > (MAX_EXACT_MANTISSA - (c - '0')) / 10) {
+				exact = false;
+			}
+			if (exact) {
+				mantissa = mantissa * 10 + (c - '0');
+				if (fraction) {
+					exponent--;
+				}
+			}
+		}
+		if (!digits) {
+			throw invalid(source, from, to);
+		}
+		if (i < end && (charAt(source, i) == 'E' || charAt(source, i) == 'e')) {
+			int e = 0;
+			boolean negativeExponent = false;
+			i++;
+			if (i < end && (charAt(source, i) == '-' || charAt(source, i) == '+')) {
+				negativeExponent = (charAt(source, i) == '-');
+				i++;
+			}
+			int exponentStart = i;
+			for (; i < end; i++) {
+				char c = charAt(source, i);
+				if (c < '0' || c > '9') {
+					break;
+				}
+				e = Math.min(e * 10 + (c - '0'), 1000);
+			}
+			if (i == exponentStart) {
+				throw invalid(source, from, to);
+			}
+			exponent += (negativeExponent ? -e : e);
+		}
+		if (i != end) {
+			throw invalid(source, from, to);
+		}
+
+		if (!exact || exponent < -22 || exponent > 22) {
+			return Double.parseDouble(text(source, start, end));
+		}
+		double value = (exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent]);
+		return (negative ? -value : value);
+	}
+
+	/**
+	 * Parses a decimal {@code int}, like {@link Integer#parseInt(String)}.
+	 */
+	static int parseInt(Object source, int from, int to) {
+		long value = parseLong(source, from, to);
+		if (value != (int) value) {
+			throw invalid(source, from, to);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Parses a decimal {@code long}, like {@link Long#parseLong(String)}.
+	 */
+	static long parseLong(Object source, int from, int to) {
+		int start = skipSpaces(source, from, to);
+		int end = trimSpaces(source, start, to);
+		int i = start;
+		boolean negative = false;
+		if (i < end && (charAt(source, i) == '-' || charAt(source, i) == '+')) {
+			negative = (charAt(source, i) == '-');
+			i++;
+		}
+		if (i == end) {
+			throw invalid(source, from, to);
+		}
+
+		// Accumulate negatively, as the negative range is larger
+		final long limit = (negative ? Long.MIN_VALUE : -Long.MAX_VALUE);
+		final long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = charAt(source, i) - '0';
+			if (digit < 0 || digit > 9 || result < multiplyLimit) {
+				throw invalid(source, from, to);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw invalid(source, from, to);
+			}
+			result -= digit;
+		}
+		return (negative ? result : -result);
+	}
+
+	/**
+	 * @return whether the region consists of exactly the given text
+	 */
+	private static boolean regionMatches(Object source, int from, int to, String text) {
+		if (to - from != text.length()) {
+			return false;
+		}
+		for (int i = 0; i < text.length(); i++) {
+			if (charAt(source, from + i) != text.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the index of the first character in the region that is not a
+	 *         space
+	 */
+	private static int skipSpaces(Object source, int from, int to) {
+		while (from < to && isSpace(charAt(source, from))) {
+			from++;
+		}
+		return from;
+	}
+
+	/**
+	 * @return the given region as a string
+	 */
+	static String text(Object source, int from, int to) {
+		StringBuilder builder = new StringBuilder(to - from);
+		for (int i = from; i < to; i++) {
+			builder.append(charAt(source, i));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * @return the index after the last character in the region that is not a
+	 *         space
+	 */
+	private static int trimSpaces(Object source, int from, int to) {
+		while (to > from && isSpace(charAt(source, to - 1))) {
+			to--;
+		}
+		return to;
+	}
+
+	/** Prevent instantiation. */
+	private TextParser() {}
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.actram.math.BigRational;
+import com.actram.math.Rational;
+
+@RunWith(Parameterized.class)
+public class BigRationalTest {
+
+	private static final int N = 100;
+
+	@Parameters
+	public static Collection<Object> data() {
+		Random random = new Random();
+		Object[] data = new Object[N];
+		for (int j = 0; j < N; j++) {
+			Object[] params = new Object[4];
+			for (int i = 0; i < params.length; i++) {
+
+				// Mix small values with values close to the long limits
+				long value = (j % 2 == 0 ? random.nextInt(2000) + 1 : Long.MAX_VALUE - random.nextInt(1000));
+				params[i] = BigInteger.valueOf(random.nextBoolean() ? value : -value);
+			}
+			data[j] = params;
+		}
+		return Arrays.asList(data);
+	}
+
+	@Parameter(0) public BigInteger p1;
+	@Parameter(1) public BigInteger q1;
+	@Parameter(2) public BigInteger p2;
+	@Parameter(3) public BigInteger q2;
+
+	private BigRational rational1() {
+		return BigRational.valueOf(p1, q1);
+	}
+
+	private BigRational rational2() {
+		return BigRational.valueOf(p2, q2);
+	}
+
+	@Test
+	public void testAdd() {
+		BigRational expected = BigRational.valueOf(p1.multiply(q2).add(p2.multiply(q1)), q1.multiply(q2));
+		assertEquals(expected, rational1().add(rational2()));
+		assertEquals(rational1().add(rational2()), rational2().add(rational1()));
+		assertEquals(rational1(), rational1().add(BigRational.ZERO));
+	}
+
+	@Test
+	public void testCompareTo() {
+		int expected = p1.multiply(q2).subtract(p2.multiply(q1)).signum() * q1.signum() * q2.signum();
+		assertEquals(expected, rational1().compareTo(rational2()));
+		assertEquals(0, rational1().compareTo(rational1()));
+		assertTrue(rational1().compareTo(rational1().add(1)) < 0);
+	}
+
+	@Test
+	public void testDivide() {
+		BigRational expected = BigRational.valueOf(p1.multiply(q2), q1.multiply(p2));
+		assertEquals(expected, rational1().divide(rational2()));
+		assertEquals(BigRational.ONE, rational1().divide(rational1()));
+	}
+
+	@Test
+	public void testLongValues() {
+		assertEquals(BigRational.valueOf(p1.longValue(), q1.longValue()), rational1());
+		assertEquals(BigRational.valueOf(Long.MIN_VALUE, -1), BigRational.valueOf(BigInteger.valueOf(Long.MIN_VALUE).negate(), BigInteger.ONE));
+		assertEquals(BigRational.valueOf(Long.MIN_VALUE).negate().negate(), BigRational.valueOf(Long.MIN_VALUE));
+	}
+
+	@Test
+	public void testMultiply() {
+		BigRational expected = BigRational.valueOf(p1.multiply(p2), q1.multiply(q2));
+		assertEquals(expected, rational1().multiply(rational2()));
+		assertEquals(rational1().multiply(rational2()), rational2().multiply(rational1()));
+		assertEquals(BigRational.ONE, rational1().multiply(rational1().inverse()));
+		assertEquals(BigRational.ZERO, rational1().multiply(0));
+	}
+
+	@Test
+	public void testRational() {
+		if (p1.bitLength() < Integer.SIZE && q1.bitLength() < Integer.SIZE) {
+			Rational rational = new Rational(p1.intValue(), q1.intValue());
+			assertEquals(rational, BigRational.valueOf(rational).toRational());
+			assertEquals(rational.toDouble(), BigRational.valueOf(rational).toDouble(), 0);
+		}
+		assertEquals(p1.doubleValue() / q1.doubleValue(), rational1().toDouble(), 2 * Math.ulp(rational1().toDouble()));
+	}
+
+	@Test
+	public void testSubtract() {
+		BigRational expected = BigRational.valueOf(p1.multiply(q2).subtract(p2.multiply(q1)), q1.multiply(q2));
+		assertEquals(expected, rational1().subtract(rational2()));
+		assertEquals(BigRational.ZERO, rational1().subtract(rational1()));
+		assertEquals(rational1().negate(), BigRational.ZERO.subtract(rational1()));
+	}
+}
\ No newline at end of file
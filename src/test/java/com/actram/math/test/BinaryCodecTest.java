@@ -0,0 +1,253 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.BinaryCodec;
+import com.actram.math.BinaryReader;
+import com.actram.math.BinaryWriter;
+import com.actram.math.DoubleRange;
+import com.actram.math.IntegerRange;
+import com.actram.math.LongRange;
+import com.actram.math.Rational;
+import com.actram.math.RationalArray;
+
+public class BinaryCodecTest {
+
+	private static LongRange[] sortedRanges(Random random, int count) {
+		LongRange[] ranges = new LongRange[count];
+		long from = -1000;
+		for (int i = 0; i < count; i++) {
+			from += random.nextInt(100);
+			ranges[i] = new LongRange(from, from + random.nextInt(1000));
+		}
+		return ranges;
+	}
+
+	@Test
+	public void testArrays() {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		LongRange[] longRanges = sortedRanges(new Random(37), 1000);
+		IntegerRange[] integerRanges = { new IntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE), new IntegerRange(5, 6), new IntegerRange(-3, -3) };
+		DoubleRange[] doubleRanges = { new DoubleRange(-0.5, 1e300), new DoubleRange(Double.NEGATIVE_INFINITY, 0.0) };
+		RationalArray rationals = new RationalArray(Rational.valueOf(-1, 3), Rational.valueOf(Integer.MIN_VALUE), Rational.valueOf(7, Integer.MAX_VALUE));
+		BinaryCodec.putRanges(buffer, longRanges);
+		int longBytes = buffer.position();
+		BinaryCodec.putRanges(buffer, integerRanges);
+		BinaryCodec.putRanges(buffer, doubleRanges);
+		BinaryCodec.putRationals(buffer, rationals);
+		buffer.flip();
+
+		assertArrayEquals(longRanges, BinaryCodec.getLongRanges(buffer));
+		assertArrayEquals(integerRanges, BinaryCodec.getIntegerRanges(buffer));
+		assertArrayEquals(doubleRanges, BinaryCodec.getDoubleRanges(buffer));
+		assertArrayEquals(rationals.toArray(), BinaryCodec.getRationals(buffer).toArray());
+		assertFalse(buffer.hasRemaining());
+
+		// The deltas of sorted ranges take at most four bytes
+		assertTrue(longBytes <= 2 + 4 * longRanges.length);
+	}
+
+	@Test
+	public void testCorruptLength() throws IOException {
+		// The unsigned varint of Integer.MAX_VALUE, followed by a few elements
+		byte[] bytes = { -1, -1, -1, -1, 7, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2 };
+		for (int i = 0; i < 4; i++) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			try {
+				switch (i) {
+				case 0:
+					BinaryCodec.getDoubleRanges(buffer);
+					break;
+				case 1:
+					BinaryCodec.getIntegerRanges(buffer);
+					break;
+				case 2:
+					BinaryCodec.getLongRanges(buffer);
+					break;
+				default:
+					BinaryCodec.getRationals(buffer);
+				}
+				throw new AssertionError("expected an underflow");
+			} catch (BufferUnderflowException e) {
+				// Expected, before an array of the length is created
+			}
+
+			try (BinaryReader reader = new BinaryReader(Channels.newChannel(new ByteArrayInputStream(bytes)), 32)) {
+				switch (i) {
+				case 0:
+					reader.readDoubleRanges();
+					break;
+				case 1:
+					reader.readIntegerRanges();
+					break;
+				case 2:
+					reader.readLongRanges();
+					break;
+				default:
+					reader.readRationals();
+				}
+				throw new AssertionError("expected the end of the channel");
+			} catch (EOFException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidRange() {
+		ByteBuffer buffer = ByteBuffer.allocate(32);
+		BinaryCodec.putVarLong(buffer, Long.MAX_VALUE);
+		BinaryCodec.putVarLong(buffer, 1);
+		buffer.flip();
+		BinaryCodec.getLongRange(buffer);
+	}
+
+	@Test
+	public void testLargeArrays() throws IOException {
+		// Larger than the capacity that the reader starts with
+		Random random = new Random(47);
+		LongRange[] longRanges = sortedRanges(random, 5000);
+		IntegerRange[] integerRanges = new IntegerRange[3000];
+		DoubleRange[] doubleRanges = new DoubleRange[3000];
+		RationalArray rationals = new RationalArray(3000);
+		for (int i = 0; i < 3000; i++) {
+			integerRanges[i] = new IntegerRange(i, i + random.nextInt(10));
+			doubleRanges[i] = new DoubleRange(i, i + random.nextDouble());
+			rationals.set(i, random.nextInt(), 1 + random.nextInt(Integer.MAX_VALUE));
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BinaryWriter writer = new BinaryWriter(Channels.newChannel(bytes), 64)) {
+			writer.writeRanges(longRanges);
+			writer.writeRanges(integerRanges);
+			writer.writeRanges(doubleRanges);
+			writer.writeRationals(rationals);
+		}
+
+		try (BinaryReader reader = new BinaryReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), 64)) {
+			assertArrayEquals(longRanges, reader.readLongRanges());
+			assertArrayEquals(integerRanges, reader.readIntegerRanges());
+			assertArrayEquals(doubleRanges, reader.readDoubleRanges());
+			assertArrayEquals(rationals.toArray(), reader.readRationals().toArray());
+			assertFalse(reader.hasRemaining());
+		}
+	}
+
+	@Test
+	public void testNonBlocking() throws IOException {
+		Pipe pipe = Pipe.open();
+		try {
+			pipe.source().configureBlocking(false);
+			new BinaryReader(pipe.source()).close();
+			throw new AssertionError("expected a non-blocking channel to be rejected");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		} finally {
+			pipe.sink().close();
+			pipe.source().close();
+		}
+
+		ReadableByteChannel empty = new ReadableByteChannel() {
+			@Override
+			public void close() {}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public int read(ByteBuffer buffer) {
+				return 0;
+			}
+		};
+		try (BinaryReader reader = new BinaryReader(empty)) {
+			reader.hasRemaining();
+			throw new AssertionError("expected an empty read to fail");
+		} catch (IOException e) {
+			// Expected, instead of spinning
+		}
+	}
+
+	@Test
+	public void testOverlongVarint() {
+		byte[] bytes = { -1, -1, -1, -1, -1, -1, -1, -1, -1, 1 };
+		assertEquals(Long.MIN_VALUE, BinaryCodec.getVarLong(ByteBuffer.wrap(bytes)));
+		for (int bit = 1; bit < 7; bit++) {
+			bytes[9] = (byte) (1 | 1 << bit);
+			try {
+				BinaryCodec.getVarLong(ByteBuffer.wrap(bytes));
+				throw new AssertionError("expected bit " + bit + " of the last byte to be rejected");
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test
+	public void testStreams() throws IOException {
+		Random random = new Random(41);
+		LongRange[] ranges = sortedRanges(new Random(43), 500);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BinaryWriter writer = new BinaryWriter(Channels.newChannel(bytes), 32)) {
+			for (int i = 0; i < 100; i++) {
+				writer.write(Rational.valueOf(random.nextInt(), 1 + random.nextInt(Integer.MAX_VALUE)));
+				writer.write(new IntegerRange(-i, i));
+				writer.writeRange(i, 2 * i);
+				writer.write(new DoubleRange(i / 3.0, i));
+				writer.writeVarInt(-i);
+			}
+			writer.writeRanges(ranges);
+			writer.writeRationals(new RationalArray(Rational.HALF, Rational.NEGATIVE_ONE));
+		}
+
+		random = new Random(41);
+		try (BinaryReader reader = new BinaryReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), 32)) {
+			for (int i = 0; i < 100; i++) {
+				assertEquals(Rational.valueOf(random.nextInt(), 1 + random.nextInt(Integer.MAX_VALUE)), reader.readRational());
+				assertEquals(new IntegerRange(-i, i), reader.readIntegerRange());
+				assertEquals(new LongRange((long) i, 2L * i), reader.readLongRange());
+				assertEquals(new DoubleRange(i / 3.0, (double) i), reader.readDoubleRange());
+				assertEquals(-i, reader.readVarInt());
+			}
+			assertArrayEquals(ranges, reader.readLongRanges());
+			assertArrayEquals(new Rational[] { Rational.HALF, Rational.NEGATIVE_ONE }, reader.readRationals().toArray());
+			assertFalse(reader.hasRemaining());
+			try {
+				reader.readVarLong();
+				throw new AssertionError("expected the end of the channel");
+			} catch (EOFException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test
+	public void testVarints() {
+		ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.MAX_VARINT_BYTES);
+		long[] values = { 0, -1, 1, 63, -64, 64, Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE };
+		int[] sizes = { 1, 1, 1, 1, 1, 2, 5, 5, 10, 10 };
+		for (int i = 0; i < values.length; i++) {
+			buffer.clear();
+			BinaryCodec.putVarLong(buffer, values[i]);
+			assertEquals(sizes[i], buffer.position());
+			buffer.flip();
+			assertEquals(values[i], BinaryCodec.getVarLong(buffer));
+		}
+	}
+}
\ No newline at end of file
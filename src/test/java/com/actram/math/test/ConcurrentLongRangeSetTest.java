@@ -0,0 +1,185 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.actram.math.ConcurrentLongRangeSet;
+import com.actram.math.LongRange;
+import com.actram.math.LongRangeSet;
+
+public class ConcurrentLongRangeSetTest {
+
+	private static void testConcurrent(ConcurrentLongRangeSet set, int writers, int ranges) throws Exception {
+		AtomicBoolean done = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+		try {
+			// Readers check that every snapshot is consistent: each writer adds
+			// its ranges in order, so a snapshot with a range of a writer has
+			// all of its earlier ranges
+			List<Future<?>> readers = new ArrayList<>();
+			for (int r = 0; r < 2; r++) {
+				readers.add(executor.submit(() -> {
+					while (!done.get()) {
+						LongRangeSet snapshot = set.snapshot();
+						for (int w = 0; w < writers; w++) {
+							for (int i = 1; i < ranges; i += 97) {
+								if (snapshot.contains(10L * (i * writers + w))) {
+									assertTrue(snapshot.contains(10L * ((i - 1) * writers + w)));
+								}
+
+								// The same holds for the values read one at a time,
+								// the later one first
+								long value = 10L * (i * writers + w) + 4;
+								if (set.contains(value)) {
+									assertTrue(set.contains(value - 4));
+									assertTrue(set.contains(10L * ((i - 1) * writers + w)));
+								}
+							}
+						}
+					}
+				}));
+			}
+
+			List<Future<?>> futures = new ArrayList<>();
+			for (int w = 0; w < writers; w++) {
+				final int writer = w;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < ranges; i++) {
+						long from = 10L * (i * writers + writer);
+						assertTrue(set.add(from, from + 4));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			done.set(true);
+			for (Future<?> reader : readers) {
+				reader.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(writers * ranges, set.size());
+
+		// Filling the holes coalesces everything
+		for (int i = 0; i < writers * ranges; i++) {
+			set.add(10L * i + 5, 10L * i + 9);
+		}
+		assertEquals(LongRangeSet.of(0, 10L * writers * ranges - 1), set.snapshot());
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		testConcurrent(new ConcurrentLongRangeSet(new LongRange(0L, 79999L)), 4, 2000);
+	}
+
+	@Test
+	public void testConcurrentStripes() throws Exception {
+		// Stripes whose bounds fall inside some of the ranges
+		testConcurrent(new ConcurrentLongRangeSet(new LongRange(0L, 79999L), 7), 4, 2000);
+	}
+
+	@Test
+	public void testExtremes() {
+		ConcurrentLongRangeSet set = new ConcurrentLongRangeSet(new LongRange(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertTrue(set.add(Long.MIN_VALUE, 5));
+		assertTrue(set.add(Long.MIN_VALUE, 10));
+		assertEquals(LongRangeSet.of(Long.MIN_VALUE, 10), set.snapshot());
+		assertTrue(set.contains(new LongRange(Long.MIN_VALUE, 10L)));
+		assertTrue(set.add(11, Long.MAX_VALUE));
+		assertEquals(1, set.size());
+		assertTrue(set.contains(new LongRange(Long.MIN_VALUE, Long.MAX_VALUE)));
+		assertTrue(set.remove(Long.MIN_VALUE, Long.MIN_VALUE));
+		assertFalse(set.contains(Long.MIN_VALUE));
+		assertTrue(set.contains(Long.MAX_VALUE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidStripes() {
+		new ConcurrentLongRangeSet(new LongRange(0L, 10L), 0);
+	}
+
+	@Test
+	public void testOperations() {
+		ConcurrentLongRangeSet set = new ConcurrentLongRangeSet(new LongRange(0L, 31L));
+		assertTrue(set.isEmpty());
+		assertTrue(set.add(1, 5));
+		assertFalse(set.add(new LongRange(2L, 3L)));
+		assertTrue(set.add(6, 10));
+		assertEquals(1, set.size());
+		assertTrue(set.contains(10));
+		assertFalse(set.contains(11));
+
+		LongRangeSet snapshot = set.snapshot();
+		assertSame(snapshot, set.snapshot());
+		assertTrue(set.remove(4, 6));
+		assertFalse(set.remove(new LongRange(4L, 6L)));
+		assertEquals(LongRangeSet.of(1, 10), snapshot);
+		assertEquals(LongRangeSet.of(new LongRange(1L, 3L), new LongRange(7L, 10L)), set.snapshot());
+		assertEquals("ConcurrentLongRangeSet[[1, 3], [7, 10]]", set.toString());
+		assertTrue(set.overlaps(new LongRange(3L, 4L)));
+		assertFalse(set.contains(new LongRange(3L, 7L)));
+
+		assertTrue(set.addAll(LongRangeSet.of(20, 30)));
+		assertFalse(set.addAll(LongRangeSet.of(21, 22)));
+		assertTrue(set.removeAll(LongRangeSet.of(0, 8)));
+		assertFalse(set.update(values -> values.union(LongRangeSet.EMPTY)));
+		List<LongRange> ranges = new ArrayList<>();
+		set.forEach(ranges::add);
+		assertEquals(2, ranges.size());
+		assertEquals(new LongRange(9L, 10L), ranges.get(0));
+
+		set.clear();
+		assertTrue(set.isEmpty());
+		assertEquals("ConcurrentLongRangeSet[]", set.toString());
+	}
+
+	@Test
+	public void testStripes() {
+		// Stripes of [MIN, 24], [25, 49], [50, 74] and [75, MAX]
+		ConcurrentLongRangeSet set = new ConcurrentLongRangeSet(new LongRange(0L, 99L), 4);
+		assertTrue(set.add(20, 30));
+		assertTrue(set.add(31, 60));
+		assertFalse(set.add(24, 50));
+		assertEquals(1, set.size());
+		assertEquals(LongRangeSet.of(20, 60), set.snapshot());
+		assertTrue(set.contains(new LongRange(20L, 60L)));
+		assertFalse(set.contains(new LongRange(20L, 61L)));
+
+		assertTrue(set.remove(24, 25));
+		assertFalse(set.contains(24));
+		assertFalse(set.contains(25));
+		assertTrue(set.contains(26));
+		assertEquals(LongRangeSet.of(new LongRange(20L, 23L), new LongRange(26L, 60L)), set.snapshot());
+		assertTrue(set.overlaps(new LongRange(0L, 20L)));
+		assertFalse(set.overlaps(new LongRange(61L, 1000L)));
+
+		assertTrue(set.addAll(LongRangeSet.of(new LongRange(-5L, 5L), new LongRange(70L, 80L))));
+		assertFalse(set.addAll(LongRangeSet.of(new LongRange(0L, 1L), new LongRange(75L, 76L))));
+		assertTrue(set.removeAll(LongRangeSet.of(new LongRange(0L, 22L), new LongRange(72L, 78L))));
+		assertEquals(LongRangeSet.of(new LongRange(-5L, -1L), new LongRange(23L, 23L), new LongRange(26L, 60L), new LongRange(70L, 71L), new LongRange(79L, 80L)), set.snapshot());
+
+		// Updates are spread over the stripes
+		assertTrue(set.update(values -> values.union(LongRangeSet.of(0, 99))));
+		assertTrue(set.contains(new LongRange(-5L, 99L)));
+		assertTrue(set.contains(50));
+		assertEquals(LongRangeSet.of(-5, 99), set.snapshot());
+
+		// A domain with fewer values than stripes has a stripe per value
+		set = new ConcurrentLongRangeSet(LongRangeSet.of(0, 10), new LongRange(1L, 2L), 4);
+		assertTrue(set.remove(1, 1));
+		assertEquals(LongRangeSet.of(new LongRange(0L, 0L), new LongRange(2L, 10L)), set.snapshot());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.actram.math.test;
+
+import static com.actram.math.MathUtil.binaryGcd;
+import static com.actram.math.MathUtil.extendedGcd;
+import static com.actram.math.MathUtil.gcd;
+import static com.actram.math.MathUtil.lcm;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GcdTest {
+
+	private static final int N = 1000;
+
+	@Test
+	public void testBatchGcd() {
+		Random random = new Random(79);
+		int[] a = random.ints(N).toArray();
+		int[] b = random.ints(N).toArray();
+		int[] out = new int[N];
+		gcd(a, b, out);
+		for (int i = 0; i < N; i++) {
+			assertEquals(binaryGcd(a[i], b[i]), out[i]);
+		}
+	}
+
+	@Test
+	public void testBinaryGcd() {
+		Random random = new Random(83);
+		for (int i = 0; i < N; i++) {
+			int a = random.nextInt();
+			int b = (i % 2 == 0 ? random.nextInt() : random.nextInt(1 << 10) << random.nextInt(20));
+			assertEquals(BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).intValue(), binaryGcd(a, b));
+
+			long c = random.nextLong();
+			long d = (i % 2 == 0 ? random.nextLong() : random.nextLong() * b);
+			assertEquals(BigInteger.valueOf(c).gcd(BigInteger.valueOf(d)).longValue(), binaryGcd(c, d));
+		}
+		assertEquals(5, binaryGcd(0, -5));
+		assertEquals(0, binaryGcd(0, 0));
+		assertEquals(1 << 30, binaryGcd(Integer.MIN_VALUE, 3 << 30));
+	}
+
+	@Test
+	public void testExtendedGcd() {
+		Random random = new Random(89);
+		for (int i = 0; i < N; i++) {
+			long a = random.nextInt();
+			long b = random.nextInt();
+			long[] result = extendedGcd(a, b);
+			assertEquals(binaryGcd(a, b), result[0]);
+			assertEquals(result[0], a * result[1] + b * result[2]);
+		}
+	}
+
+	@Test
+	public void testLcm() {
+		assertEquals(12, lcm(4, -6));
+		assertEquals(0, lcm(0, 6));
+		assertEquals(6L * Integer.MAX_VALUE, lcm(6L, Integer.MAX_VALUE));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testLcmOverflow() {
+		lcm(Integer.MAX_VALUE, Integer.MAX_VALUE - 1);
+	}
+
+	@Test
+	public void testLehmerGcd() {
+		Random random = new Random(97);
+		for (int i = 0; i < N; i++) {
+			BigInteger common = new BigInteger(random.nextInt(200) + 1, random);
+			BigInteger a = new BigInteger(random.nextInt(600) + 1, random).multiply(common);
+			BigInteger b = new BigInteger(random.nextInt(600) + 1, random).multiply(common);
+			if (random.nextBoolean()) {
+				a = a.negate();
+			}
+			assertEquals(a.gcd(b), gcd(a, b));
+		}
+		BigInteger fibonacci1 = BigInteger.ONE, fibonacci2 = BigInteger.ONE;
+		for (int i = 0; i < 500; i++) {
+			BigInteger next = fibonacci1.add(fibonacci2);
+			fibonacci1 = fibonacci2;
+			fibonacci2 = next;
+		}
+		assertEquals(BigInteger.ONE, gcd(fibonacci1, fibonacci2));
+		assertEquals(BigInteger.TEN, gcd(BigInteger.ZERO, BigInteger.TEN.negate()));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.actram.math.IntegerRange;
+import com.actram.math.IntegerRangeSet;
+
+public class IntegerRangeSetTest {
+
+	@Test
+	public void testExtremes() {
+		IntegerRangeSet set = IntegerRangeSet.of(new IntegerRange(Integer.MIN_VALUE, 0), new IntegerRange(1, Integer.MAX_VALUE));
+		assertEquals(1, set.size());
+		assertEquals(1L << 32, set.count());
+		assertEquals(IntegerRangeSet.of(Integer.MIN_VALUE, -1), set.subtract(IntegerRangeSet.of(0, Integer.MAX_VALUE)));
+
+		// Overlapping ranges that start at the minimum are coalesced
+		set = IntegerRangeSet.of(new IntegerRange(Integer.MIN_VALUE, 5), new IntegerRange(Integer.MIN_VALUE, 10));
+		assertEquals(IntegerRangeSet.of(Integer.MIN_VALUE, 10), set);
+		assertEquals((1L << 31) + 11, set.count());
+		assertEquals(IntegerRangeSet.of(Integer.MIN_VALUE, 10), IntegerRangeSet.of(Integer.MIN_VALUE, 5).union(IntegerRangeSet.of(Integer.MIN_VALUE, 10)));
+	}
+
+	@Test
+	public void testOperations() {
+		IntegerRangeSet set1 = IntegerRangeSet.of(new IntegerRange(0, 10), new IntegerRange(20, 30));
+		IntegerRangeSet set2 = IntegerRangeSet.of(new IntegerRange(5, 25));
+		assertArrayEquals(new IntegerRange[] { new IntegerRange(0, 30) }, set1.union(set2).toArray());
+		assertArrayEquals(new IntegerRange[] { new IntegerRange(5, 10), new IntegerRange(20, 25) }, set1.intersect(set2).toArray());
+		assertArrayEquals(new IntegerRange[] { new IntegerRange(0, 4), new IntegerRange(26, 30) }, set1.subtract(set2).toArray());
+		assertArrayEquals(new IntegerRange[] { new IntegerRange(11, 19) }, set2.subtract(set1).toArray());
+
+		assertTrue(set1.contains(20));
+		assertFalse(set1.contains(15));
+		assertTrue(set1.add(new IntegerRange(11, 19)).contains(new IntegerRange(0, 30)));
+		assertEquals(set1, set1.remove(new IntegerRange(11, 19)));
+	}
+}
\ No newline at end of file
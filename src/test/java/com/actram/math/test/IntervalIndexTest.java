@@ -0,0 +1,169 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.DoubleIntervalIndex;
+import com.actram.math.DoubleRange;
+import com.actram.math.IntervalIndex;
+import com.actram.math.LongIntervalIndex;
+import com.actram.math.LongRange;
+
+public class IntervalIndexTest {
+	private static final int N = 100;
+
+	private static LongRange[] randomRanges(Random random, int count) {
+		LongRange[] ranges = new LongRange[count];
+		for (int i = 0; i < count; i++) {
+			long from = random.nextInt(1000);
+			ranges[i] = new LongRange(from, from + random.nextInt(random.nextBoolean() ? 10 : 200));
+		}
+		return ranges;
+	}
+
+	@Test
+	public void testDouble() {
+		Random random = new Random(5);
+		for (int n = 0; n < N; n++) {
+			double[] from = new double[random.nextInt(50)];
+			double[] to = new double[from.length];
+			for (int i = 0; i < from.length; i++) {
+				from[i] = random.nextDouble() * 100 - 50;
+				to[i] = from[i] + random.nextDouble() * 20;
+			}
+			DoubleIntervalIndex index = new DoubleIntervalIndex(from, to);
+
+			double queryFrom = random.nextDouble() * 120 - 60;
+			double queryTo = queryFrom + random.nextDouble() * 5;
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < from.length; i++) {
+				if (from[i] <= queryTo && to[i] >= queryFrom) {
+					expected.add(i);
+				}
+			}
+			List<Integer> actual = new ArrayList<>();
+			assertEquals(expected.size(), index.visitOverlapping(queryFrom, queryTo, (i, a, b) -> actual.add(i)));
+			actual.sort(null);
+			assertEquals(expected, actual);
+		}
+		assertEquals(0, new DoubleIntervalIndex(new DoubleRange(0, 1)).visitContaining(Double.NaN, (i, a, b) -> {}));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDoubleNaN() {
+		new DoubleIntervalIndex(new double[] { 0 }, new double[] { Double.NaN });
+	}
+
+	@Test
+	public void testGeneric() {
+		Random random = new Random(7);
+		for (int n = 0; n < N; n++) {
+			List<LongRange> ranges = new ArrayList<>();
+			for (LongRange range : randomRanges(random, random.nextInt(200))) {
+				ranges.add(range);
+			}
+			IntervalIndex<Long, LongRange> index = new IntervalIndex<>(ranges);
+
+			long value = random.nextInt(1300) - 100;
+			List<LongRange> expected = new ArrayList<>();
+			for (LongRange range : ranges) {
+				if (range.contains(value)) {
+					expected.add(range);
+				}
+			}
+			List<LongRange> actual = new ArrayList<>();
+			assertEquals(expected.size(), index.visitContaining(value, actual::add));
+			expected.sort((a, b) -> a.getFrom().compareTo(b.getFrom()));
+			assertEquals(expected, actual);
+
+			LongRange query = randomRanges(random, 1)[0];
+			long count = ranges.stream().filter(range -> range.overlaps(query)).count();
+			assertEquals(count, index.visitOverlapping(query, range -> {}));
+		}
+	}
+
+	@Test
+	public void testLong() {
+		Random random = new Random(3);
+		for (int n = 0; n < N; n++) {
+			LongRange[] ranges = randomRanges(random, random.nextInt(500));
+			LongIntervalIndex index = new LongIntervalIndex(ranges);
+			assertEquals(ranges.length, index.size());
+
+			LongRange query = randomRanges(random, 1)[0];
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < ranges.length; i++) {
+				if (ranges[i].overlaps(query)) {
+					expected.add(i);
+				}
+			}
+			List<Integer> actual = new ArrayList<>();
+			long[] previous = { Long.MIN_VALUE };
+			index.visitOverlapping(query.getFrom(), query.getTo(), (i, from, to) -> {
+				assertEquals(ranges[i].getFrom().longValue(), from);
+				assertEquals(ranges[i].getTo().longValue(), to);
+
+				// The ranges are visited in ascending order
+				assertTrue(from >= previous[0]);
+				previous[0] = from;
+				actual.add(i);
+			});
+			actual.sort(null);
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testLongOrder() {
+		Random random = new Random(11);
+		int count = 1000;
+		for (int shape = 0; shape < 4; shape++) {
+			LongRange[] ranges = new LongRange[count];
+			for (int i = 0; i < count; i++) {
+				switch (shape) {
+				case 0: // Nested
+					ranges[i] = new LongRange(i, 2 * count - i);
+					break;
+				case 1: // Disjoint
+					ranges[i] = new LongRange(2 * i, 2 * i);
+					break;
+				case 2: // Ending in the same order as they start
+					ranges[i] = new LongRange(i, i + count / 2);
+					break;
+				default: // Random, with many equal bounds
+					long from = random.nextInt(100);
+					ranges[i] = new LongRange(from, from + random.nextInt(20));
+				}
+			}
+			LongIntervalIndex index = new LongIntervalIndex(ranges);
+			for (int n = 0; n < N; n++) {
+				long queryFrom = random.nextInt(2 * count + 10) - 5;
+				long queryTo = queryFrom + random.nextInt(random.nextBoolean() ? 3 : 300);
+				List<Integer> expected = new ArrayList<>();
+				for (int i = 0; i < count; i++) {
+					if (ranges[i].overlaps(new LongRange(queryFrom, queryTo))) {
+						expected.add(i);
+					}
+				}
+				expected.sort((a, b) -> ranges[a].getFrom().compareTo(ranges[b].getFrom()));
+				List<Integer> actual = new ArrayList<>();
+				assertEquals(expected.size(), index.visitOverlapping(queryFrom, queryTo, (i, from, to) -> actual.add(i)));
+				assertEquals(expected, actual);
+			}
+		}
+	}
+
+	@Test
+	public void testLongExtremes() {
+		LongIntervalIndex index = new LongIntervalIndex(new LongRange(Long.MIN_VALUE, Long.MAX_VALUE), new LongRange(Long.MAX_VALUE, Long.MAX_VALUE));
+		assertEquals(2, index.visitContaining(Long.MAX_VALUE, (i, from, to) -> {}));
+		assertEquals(1, index.visitContaining(Long.MIN_VALUE, (i, from, to) -> {}));
+		assertEquals(0, new LongIntervalIndex().visitContaining(0, (i, from, to) -> {}));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.IntervalJoin;
+import com.actram.math.LongRange;
+
+public class IntervalJoinTest {
+
+	private static List<LongRange> randomRanges(Random random) {
+		List<LongRange> ranges = new ArrayList<>();
+		for (int i = random.nextInt(60); i > 0; i--) {
+			long from = random.nextInt(300);
+			ranges.add(new LongRange(from, from + random.nextInt(random.nextBoolean() ? 5 : 50)));
+		}
+		ranges.sort((a, b) -> a.getFrom().compareTo(b.getFrom()));
+		return ranges;
+	}
+
+	@Test
+	public void testIntersect() {
+		List<LongRange> left = Arrays.asList(new LongRange(0, 10), new LongRange(5, 20));
+		List<LongRange> right = Arrays.asList(new LongRange(8, 12), new LongRange(30, 40));
+		List<LongRange> intersections = new ArrayList<>();
+		IntervalJoin.intersect(left.iterator(), right.iterator(), intersections::add);
+		assertEquals(Arrays.asList(new LongRange(8, 10), new LongRange(8, 12)), intersections);
+	}
+
+	@Test
+	public void testJoin() {
+		Random random = new Random(19);
+		for (int n = 0; n < 300; n++) {
+			List<LongRange> left = randomRanges(random);
+			List<LongRange> right = randomRanges(random);
+
+			List<String> expected = new ArrayList<>();
+			for (int i = 0; i < left.size(); i++) {
+				for (int j = 0; j < right.size(); j++) {
+					if (left.get(i).overlaps(right.get(j))) {
+						expected.add(i + ":" + j);
+					}
+				}
+			}
+
+			// Identify the ranges by position, as equal ranges may repeat
+			List<String> actual = new ArrayList<>();
+			List<LongRange> leftIds = new ArrayList<>(left);
+			List<LongRange> rightIds = new ArrayList<>(right);
+			for (int i = 0; i < left.size(); i++) {
+				leftIds.set(i, new IdentifiedRange(left.get(i), i));
+			}
+			for (int j = 0; j < right.size(); j++) {
+				rightIds.set(j, new IdentifiedRange(right.get(j), j));
+			}
+			IntervalJoin.join(leftIds.iterator(), rightIds.iterator(), (a, b) -> actual.add(((IdentifiedRange) a).id + ":" + ((IdentifiedRange) b).id));
+
+			Collections.sort(expected);
+			Collections.sort(actual);
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsorted() {
+		List<LongRange> left = Arrays.asList(new LongRange(5, 6), new LongRange(0, 10));
+		List<LongRange> right = Arrays.asList(new LongRange(0, 10));
+		IntervalJoin.join(left.iterator(), right.iterator(), (a, b) -> {});
+	}
+
+	private static class IdentifiedRange extends LongRange {
+		final int id;
+
+		IdentifiedRange(LongRange range, int id) {
+			super(range.getFrom(), range.getTo());
+			this.id = id;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+import com.actram.math.LongRange;
+import com.actram.math.LongRangeAllocator;
+
+public class LongRangeAllocatorTest {
+
+	@Test
+	public void testAllocate() {
+		LongRangeAllocator allocator = new LongRangeAllocator(new LongRange(100L, 199L));
+		assertEquals(new LongRange(100L, 129L), allocator.allocate(30));
+		assertEquals(new LongRange(130L, 189L), allocator.allocate(60));
+		assertNull(allocator.allocate(20));
+		assertEquals(new LongRange(190L, 199L), allocator.allocate(10));
+		assertEquals(0, allocator.remaining());
+		assertNull(allocator.allocate(1));
+
+		// Released blocks are coalesced and reused
+		allocator.release(110, 119);
+		allocator.release(new LongRange(120L, 129L));
+		allocator.release(150, 150);
+		assertEquals(21, allocator.remaining());
+		assertEquals(new LongRange(110L, 124L), allocator.allocate(15));
+		assertNull(allocator.allocate(6));
+		assertEquals(new LongRange(125L, 129L), allocator.allocate(5));
+		assertEquals(150, allocator.next());
+		assertEquals(0, allocator.remaining());
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final int threads = 16;
+		final int perThread = 20000;
+		LongRangeAllocator allocator = new LongRangeAllocator(new LongRange(0L, (long) threads * perThread - 1), 37);
+		ConcurrentHashMap<Long, Boolean> seen = new ConcurrentHashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < perThread / 2; i++) {
+						if (thread % 2 == 0) {
+							assertNull(seen.put(allocator.next(), true));
+						} else {
+							LongRange block = allocator.allocate(2);
+							if (block == null) {
+								break;
+							}
+							assertNull(seen.put(block.getFrom(), true));
+							assertNull(seen.put(block.getTo(), true));
+						}
+					}
+					allocator.releaseCache();
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals((long) threads * perThread, seen.size() + allocator.remaining());
+	}
+
+	@Test
+	public void testConcurrentRelease() throws Exception {
+		final int threads = 8;
+		final int size = 10000;
+		LongRangeAllocator allocator = new LongRangeAllocator(new LongRange(0L, size - 1L), 16);
+		AtomicIntegerArray owners = new AtomicIntegerArray(size);
+		List<LongRange> initial = new ArrayList<>();
+		for (int i = 0; i < size / 5; i++) {
+			initial.add(allocator.allocate(5));
+		}
+		allocator.releaseCache();
+		assertEquals(0, allocator.remaining());
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			// Release adjacent blocks at once, while reusing them
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					Random random = new Random(thread);
+					for (int i = thread; i < initial.size(); i += threads) {
+						allocator.release(initial.get(i));
+						LongRange block = allocator.allocate(1 + random.nextInt(20));
+						if (block != null) {
+							for (long value = block.getFrom(); value <= block.getTo(); value++) {
+								assertEquals(0, owners.getAndSet((int) value, thread + 1));
+							}
+							for (long value = block.getFrom(); value <= block.getTo(); value++) {
+								owners.set((int) value, 0);
+							}
+							allocator.release(block);
+						}
+					}
+					allocator.releaseCache();
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// The released blocks are merged into one
+		assertEquals(size, allocator.remaining());
+		assertEquals(new LongRange(0L, size - 1L), allocator.allocate(size));
+	}
+
+	@Test
+	public void testExtremes() {
+		LongRangeAllocator allocator = new LongRangeAllocator(new LongRange(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(-1, allocator.remaining());
+		assertEquals(new LongRange(Long.MIN_VALUE, Long.MIN_VALUE + (1L << 62) - 1), allocator.allocate(1L << 62));
+		assertEquals(Long.MIN_VALUE + (1L << 62), allocator.next());
+
+		allocator = new LongRangeAllocator(new LongRange(Long.MAX_VALUE - 2, Long.MAX_VALUE), 2);
+		assertEquals(Long.MAX_VALUE - 2, allocator.next());
+		assertEquals(Long.MAX_VALUE - 1, allocator.next());
+		assertEquals(Long.MAX_VALUE, allocator.next());
+		try {
+			allocator.next();
+			fail();
+		} catch (NoSuchElementException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testInvalidRelease() {
+		// Blocks of the cache size are not cached, so the rest is unallocated
+		LongRangeAllocator allocator = new LongRangeAllocator(new LongRange(0L, 99L), 10);
+		allocator.allocate(10);
+		allocator.release(0, 4);
+		for (long[] block : new long[][] { { 3, 5 }, { 9, 10 }, { -1, 0 }, { 50, 60 } }) {
+			try {
+				allocator.release(block[0], block[1]);
+				fail();
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+		assertEquals(95, allocator.remaining());
+	}
+}
\ No newline at end of file
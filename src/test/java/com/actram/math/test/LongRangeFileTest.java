@@ -0,0 +1,215 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.actram.math.LongRange;
+import com.actram.math.LongRangeFile;
+import com.actram.math.LongRangeFileWriter;
+
+public class LongRangeFileTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static List<LongRange> sortedRanges(Random random, int count) {
+		List<LongRange> ranges = new ArrayList<>();
+		long from = -10000;
+		for (int i = 0; i < count; i++) {
+			from += 1 + random.nextInt(50);
+			long to = from + random.nextInt(20);
+			ranges.add(new LongRange(from, to));
+			from = to;
+		}
+		return ranges;
+	}
+
+	private static void assertNotRangeFile(Path path) {
+		try {
+			new LongRangeFile(path);
+			fail();
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	private LongRangeFile write(List<LongRange> ranges, int bufferSize) throws IOException {
+		Path path = folder.newFile().toPath();
+		try (LongRangeFileWriter writer = new LongRangeFileWriter(path, bufferSize)) {
+			writer.write(ranges.iterator());
+			assertEquals(ranges.size(), writer.size());
+		}
+		assertEquals(LongRangeFile.HEADER_BYTES + ranges.size() * LongRangeFile.ENTRY_BYTES, Files.size(path));
+		return new LongRangeFile(path);
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		LongRangeFile file = write(new ArrayList<>(), LongRangeFileWriter.DEFAULT_BUFFER_SIZE);
+		assertEquals(0, file.size());
+		assertFalse(file.contains(0));
+		assertEquals(-1, file.indexOf(Long.MIN_VALUE));
+		assertFalse(file.overlaps(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(0, file.visitOverlapping(Long.MIN_VALUE, Long.MAX_VALUE, (index, from, to) -> fail()));
+	}
+
+	@Test
+	public void testExtremes() throws IOException {
+		LongRangeFile file = write(Arrays.asList(new LongRange(Long.MIN_VALUE, Long.MIN_VALUE), new LongRange(0L, 0L), new LongRange(1L, Long.MAX_VALUE)), 16);
+		assertEquals(3, file.size());
+		assertEquals(0, file.indexOf(Long.MIN_VALUE));
+		assertEquals(-1, file.indexOf(-1));
+		assertEquals(2, file.indexOf(Long.MAX_VALUE));
+		assertEquals(new LongRange(1L, Long.MAX_VALUE), file.get(2));
+		assertEquals(3, file.countOverlapping(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(0, file.countOverlapping(Long.MIN_VALUE + 1, -1));
+	}
+
+	@Test
+	public void testInvalid() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, new byte[10]);
+		try {
+			new LongRangeFile(path);
+			fail();
+		} catch (IOException e) {
+			// Expected
+		}
+
+		// The header is only written on close
+		LongRangeFileWriter writer = new LongRangeFileWriter(path);
+		writer.write(1, 2);
+		assertNotRangeFile(path);
+		writer.close();
+		assertEquals(1, new LongRangeFile(path).size());
+
+		// Truncated file
+		byte[] bytes = Files.readAllBytes(path);
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+		try {
+			new LongRangeFile(path);
+			fail();
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testQueries() throws IOException {
+		Random random = new Random(59);
+		List<LongRange> ranges = sortedRanges(random, 5000);
+		LongRangeFile file = write(ranges, 100);
+		assertEquals(ranges.size(), file.size());
+		for (int i = 0; i < ranges.size(); i++) {
+			assertEquals(ranges.get(i), file.get(i));
+		}
+
+		long min = ranges.get(0).getFrom() - 10;
+		long max = ranges.get(ranges.size() - 1).getTo() + 10;
+		for (int i = 0; i < 5000; i++) {
+			long value = min + (long) (random.nextDouble() * (max - min));
+			long expected = -1;
+			for (int j = 0; j < ranges.size(); j++) {
+				if (ranges.get(j).contains(value)) {
+					expected = j;
+				}
+			}
+			assertEquals(expected, file.indexOf(value));
+			assertEquals(expected >= 0, file.contains(value));
+
+			long to = value + random.nextInt(200);
+			List<Long> overlapping = new ArrayList<>();
+			for (int j = 0; j < ranges.size(); j++) {
+				if (ranges.get(j).getFrom() <= to && ranges.get(j).getTo() >= value) {
+					overlapping.add((long) j);
+				}
+			}
+			List<Long> visited = new ArrayList<>();
+			assertEquals(overlapping.size(), file.visitOverlapping(value, to, (index, from, until) -> {
+				assertEquals(file.get(index), new LongRange(from, until));
+				visited.add(index);
+			}));
+			assertEquals(overlapping, visited);
+			assertEquals(overlapping.size(), file.countOverlapping(value, to));
+			assertEquals(!overlapping.isEmpty(), file.overlaps(value, to));
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testIndexOutOfBounds() throws IOException {
+		write(Arrays.asList(new LongRange(1L, 2L)), 16).getFrom(1);
+	}
+
+	@Test
+	public void testUnsorted() throws IOException {
+		Path path = folder.newFile().toPath();
+		try (LongRangeFileWriter writer = new LongRangeFileWriter(path)) {
+			writer.write(5, 10);
+			try {
+				writer.write(new LongRange(0L, 1L));
+				fail();
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+			assertEquals(1, writer.size());
+			writer.write(11, 12);
+		}
+		assertNotRangeFile(path);
+	}
+
+	@Test
+	public void testAbort() throws IOException {
+		Path path = folder.newFile().toPath();
+		LongRangeFileWriter writer = new LongRangeFileWriter(path, LongRangeFile.ENTRY_BYTES);
+		writer.write(1, 2);
+		writer.write(5, 10);
+		writer.abort();
+		writer.close();
+		assertNotRangeFile(path);
+	}
+
+	@Test
+	public void testClose() throws IOException {
+		Path path = folder.newFile().toPath();
+		LongRangeFileWriter writer = new LongRangeFileWriter(path);
+		writer.write(5, 10);
+		writer.close();
+		writer.close();
+		writer.abort();
+		assertTrue(new LongRangeFile(path).contains(7));
+		try {
+			writer.write(11, 12);
+			fail();
+		} catch (ClosedChannelException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testFailedWrite() throws IOException {
+		Path path = folder.newFile().toPath();
+		Iterator<LongRange> ranges = Arrays.asList(new LongRange(1L, 2L), null).iterator();
+		try (LongRangeFileWriter writer = new LongRangeFileWriter(path)) {
+			writer.write(ranges);
+			fail();
+		} catch (NullPointerException e) {
+			// Expected
+		}
+		assertNotRangeFile(path);
+	}
+}
\ No newline at end of file
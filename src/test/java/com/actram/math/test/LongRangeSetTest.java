@@ -0,0 +1,124 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.LongRange;
+import com.actram.math.LongRangeSet;
+
+public class LongRangeSetTest {
+
+	/** The values of the random sets are between zero and this. */
+	private static final int UNIVERSE = 200;
+
+	private static final int N = 500;
+
+	/**
+	 * Asserts that the given set has exactly the values of the given bits.
+	 */
+	private static void assertSet(BitSet expected, LongRangeSet actual) {
+		for (int i = -1; i <= UNIVERSE; i++) {
+			assertEquals("value " + i + " of " + actual, expected.get(Math.max(i, 0)) && i >= 0, actual.contains(i));
+		}
+		assertEquals(expected.cardinality(), actual.count());
+
+		// The ranges must be coalesced
+		LongRange[] ranges = actual.toArray();
+		for (int i = 1; i < ranges.length; i++) {
+			assertTrue(ranges[i - 1].getTo() + 1 < ranges[i].getFrom());
+		}
+	}
+
+	private static LongRangeSet randomSet(Random random, BitSet bits) {
+		LongRange[] ranges = new LongRange[random.nextInt(8)];
+		for (int i = 0; i < ranges.length; i++) {
+			int from = random.nextInt(UNIVERSE);
+			int to = Math.min(UNIVERSE - 1, from + random.nextInt(30));
+			ranges[i] = new LongRange(from, to);
+			bits.set(from, to + 1);
+		}
+		return LongRangeSet.of(ranges);
+	}
+
+	@Test
+	public void testAddRemove() {
+		LongRangeSet set = LongRangeSet.EMPTY.add(new LongRange(1, 5)).add(new LongRange(7, 9)).add(new LongRange(6));
+		assertArrayEquals(new LongRange[] { new LongRange(1, 9) }, set.toArray());
+
+		set = set.remove(new LongRange(3, 4)).remove(new LongRange(9, 20));
+		assertArrayEquals(new LongRange[] { new LongRange(1, 2), new LongRange(5, 8) }, set.toArray());
+		assertTrue(set.contains(new LongRange(5, 8)));
+		assertFalse(set.contains(new LongRange(2, 5)));
+		assertTrue(set.overlaps(new LongRange(3, 5)));
+		assertFalse(set.overlaps(new LongRange(3, 4)));
+		assertEquals(1, set.getFrom());
+		assertEquals(8, set.getTo());
+	}
+
+	@Test
+	public void testExtremes() {
+		LongRangeSet set = LongRangeSet.of(new LongRange(Long.MIN_VALUE, -1), new LongRange(0, Long.MAX_VALUE));
+		assertEquals(1, set.size());
+		assertTrue(set.contains(Long.MIN_VALUE) && set.contains(Long.MAX_VALUE));
+		assertEquals(LongRangeSet.of(Long.MIN_VALUE, -1), set.subtract(LongRangeSet.of(0, Long.MAX_VALUE)));
+		assertEquals(LongRangeSet.of(1, Long.MAX_VALUE), set.remove(new LongRange(Long.MIN_VALUE, 0)));
+		assertEquals(Long.MAX_VALUE, LongRangeSet.of(1, Long.MAX_VALUE).count());
+
+		// Overlapping ranges that start at the minimum are coalesced
+		set = LongRangeSet.of(new LongRange(Long.MIN_VALUE, 5), new LongRange(Long.MIN_VALUE, 10));
+		assertEquals(LongRangeSet.of(Long.MIN_VALUE, 10), set);
+		assertTrue(set.contains(new LongRange(Long.MIN_VALUE, 10)));
+		assertEquals(LongRangeSet.of(Long.MIN_VALUE, 10), LongRangeSet.of(Long.MIN_VALUE, 5).union(LongRangeSet.of(Long.MIN_VALUE, 10)));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testCountOverflow() {
+		LongRangeSet.of(Long.MIN_VALUE, Long.MAX_VALUE).count();
+	}
+
+	@Test
+	public void testIterator() {
+		LongRangeSet set = LongRangeSet.of(new LongRange(10, 20), new LongRange(0, 5), new LongRange(4, 8));
+		int i = 0;
+		for (LongRange range : set) {
+			assertEquals(set.get(i++), range);
+		}
+		assertEquals(2, i);
+		assertEquals(LongRangeSet.EMPTY, LongRangeSet.of());
+		assertTrue(LongRangeSet.EMPTY.isEmpty());
+	}
+
+	@Test
+	public void testOperations() {
+		Random random = new Random();
+		for (int n = 0; n < N; n++) {
+			BitSet bits1 = new BitSet();
+			BitSet bits2 = new BitSet();
+			LongRangeSet set1 = randomSet(random, bits1);
+			LongRangeSet set2 = randomSet(random, bits2);
+			assertSet(bits1, set1);
+
+			BitSet union = (BitSet) bits1.clone();
+			union.or(bits2);
+			assertSet(union, set1.union(set2));
+
+			BitSet intersection = (BitSet) bits1.clone();
+			intersection.and(bits2);
+			assertSet(intersection, set1.intersect(set2));
+
+			BitSet difference = (BitSet) bits1.clone();
+			difference.andNot(bits2);
+			assertSet(difference, set1.subtract(set2));
+
+			assertEquals(set1.union(set2), set2.union(set1));
+			assertEquals(set1.intersect(set2), set2.intersect(set1));
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.actram.math.PackedRational;
+import com.actram.math.Rational;
+
+@RunWith(Parameterized.class)
+public class PackedRationalTest {
+
+	private static final int N = 100;
+
+	@Parameters
+	public static Collection<Object> data() {
+		Random random = new Random();
+		Object[] data = new Object[N];
+		for (int j = 0; j < N; j++) {
+			Object[] params = new Object[2];
+			for (int i = 0; i < params.length; i++) {
+
+				// Mix small values with values that overflow when combined
+				int bound = (j % 2 == 0 ? 1000 : Integer.MAX_VALUE);
+				int p = random.nextInt(bound) * (random.nextBoolean() ? 1 : -1);
+				int q = (random.nextInt(bound - 1) + 1) * (random.nextBoolean() ? 1 : -1);
+				params[i] = new Rational(p, q);
+			}
+			data[j] = params;
+		}
+		return Arrays.asList(data);
+	}
+
+	@Parameter(0) public Rational rational1;
+	@Parameter(1) public Rational rational2;
+
+	/**
+	 * Asserts that the packed operation gives the same result, or throws the
+	 * same exception, as the rational operation.
+	 */
+	private void assertSameResult(Supplier<Rational> expected, LongBinaryOperator actual) {
+		Rational result;
+		try {
+			result = expected.get();
+		} catch (RuntimeException e) {
+			try {
+				actual.applyAsLong(PackedRational.pack(rational1), PackedRational.pack(rational2));
+			} catch (RuntimeException packed) {
+				assertEquals(e.getClass(), packed.getClass());
+				return;
+			}
+			throw new AssertionError("expected " + e.getClass().getSimpleName());
+		}
+		long packed = actual.applyAsLong(PackedRational.pack(rational1), PackedRational.pack(rational2));
+		assertEquals(result, PackedRational.unpack(packed));
+		assertEquals(PackedRational.pack(result), packed);
+	}
+
+	@Test
+	public void testArithmetic() {
+		assertSameResult(() -> rational1.add(rational2), PackedRational::add);
+		assertSameResult(() -> rational1.subtract(rational2), PackedRational::subtract);
+		assertSameResult(() -> rational1.multiply(rational2), PackedRational::multiply);
+		assertSameResult(() -> rational1.divide(rational2), PackedRational::divide);
+		assertSameResult(() -> rational1.negate(), (a, b) -> PackedRational.negate(a));
+		assertSameResult(() -> rational1.absolute(), (a, b) -> PackedRational.absolute(a));
+		assertSameResult(() -> rational1.inverse(), (a, b) -> PackedRational.inverse(a));
+	}
+
+	@Test
+	public void testCompare() {
+		long a = PackedRational.pack(rational1);
+		long b = PackedRational.pack(rational2);
+		assertEquals(Integer.signum(rational1.compareTo(rational2)), Integer.signum(PackedRational.compare(a, b)));
+		assertEquals(0, PackedRational.compare(a, a));
+		assertEquals(rational1.signum(), PackedRational.signum(a));
+		assertEquals(rational1.isNegative(), PackedRational.isNegative(a));
+	}
+
+	@Test
+	public void testConstants() {
+		assertEquals(Rational.ZERO, PackedRational.unpack(PackedRational.ZERO));
+		assertEquals(Rational.ONE, PackedRational.unpack(PackedRational.ONE));
+		assertEquals(Rational.NEGATIVE_ONE, PackedRational.unpack(PackedRational.NEGATIVE_ONE));
+		assertTrue(PackedRational.ZERO != 0);
+	}
+
+	@Test
+	public void testPack() {
+		long packed = PackedRational.pack(rational1);
+		assertEquals(rational1, PackedRational.unpack(packed));
+		assertEquals(rational1.toDouble(), PackedRational.toDouble(packed), 0);
+		assertEquals(rational1.getDenominator(), PackedRational.denominator(packed));
+		assertEquals(rational1.getNumerator(), Math.abs(PackedRational.numerator(packed)));
+		if (rational1.getNumerator() <= 1000 && rational1.getDenominator() <= 1000) {
+			assertEquals(packed, PackedRational.pack(rational1.getNumerator() * rational1.signum() * -3, rational1.getDenominator() * -3));
+		}
+	}
+
+	@Test
+	public void testReduce() {
+		assertEquals(PackedRational.pack(-1, 2), PackedRational.reduce(3L << 40, -6L << 40));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testReduceOverflow() {
+		PackedRational.reduce(Integer.MAX_VALUE + 1L, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroDenominator() {
+		PackedRational.pack(1, 0);
+	}
+}
\ No newline at end of file
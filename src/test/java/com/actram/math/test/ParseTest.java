@@ -0,0 +1,148 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.DoubleRange;
+import com.actram.math.IntegerRange;
+import com.actram.math.LongRange;
+import com.actram.math.PrimitiveDoubleRange;
+import com.actram.math.PrimitiveIntegerRange;
+import com.actram.math.PrimitiveLongRange;
+import com.actram.math.Rational;
+
+public class ParseTest {
+	private static final int N = 2000;
+
+	private static void assertInvalid(String text) {
+		try {
+			LongRange.parse(text);
+			fail("parsed " + text);
+		} catch (NumberFormatException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testAppendTo() {
+		StringBuilder builder = new StringBuilder("x=");
+		new LongRange(-5L, 10L).appendTo(builder).append(';');
+		Rational.valueOf(-3, 4).appendTo(builder);
+		assertEquals("x=LongRange[-5, 10];Rational[-3/4]", builder.toString());
+		assertEquals("PrimitiveDoubleRange[0.5, 1.0E10]", new PrimitiveDoubleRange(0.5, 1e10).toString());
+	}
+
+	@Test
+	public void testDoubleRange() {
+		Random random = new Random(47);
+		for (int i = 0; i < N; i++) {
+			double from;
+			switch (i % 4) {
+			case 0:
+				from = random.nextDouble();
+				break;
+			case 1:
+				from = random.nextInt(100000) / 100.0;
+				break;
+			case 2:
+				from = Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE);
+				break;
+			default:
+				from = -Math.scalb(random.nextDouble(), random.nextInt(200) - 100);
+				break;
+			}
+			if (Double.isNaN(from) || Double.isInfinite(from)) {
+				continue;
+			}
+			DoubleRange range = new DoubleRange(from, Math.abs(from) * 2);
+			assertEquals(range, DoubleRange.parse(range.toString()));
+			PrimitiveDoubleRange primitive = new PrimitiveDoubleRange(from, Math.abs(from) * 2);
+			assertEquals(primitive, PrimitiveDoubleRange.parse(primitive.toString()));
+		}
+		assertEquals(new DoubleRange(Double.NEGATIVE_INFINITY, -0.0), DoubleRange.parse("[-Infinity, -0.0]"));
+	}
+
+	@Test
+	public void testDoubleSyntax() {
+		// Mantissas beyond the fast path
+		assertEquals(new DoubleRange(12345678901234567890.5, 1e300), DoubleRange.parse("[12345678901234567890.5, 1E300]"));
+		assertEquals(new PrimitiveDoubleRange(4.9e-324, 0.1), PrimitiveDoubleRange.parse("[4.9e-324, 0.1000000000000000000001]"));
+		assertEquals(new DoubleRange(0.0, Double.POSITIVE_INFINITY), DoubleRange.parse("[+0e99999999999, +Infinity]"));
+
+		String[] invalid = { "0x1p3", "1d", "1.0f", "1e", "1e+", ".", "-", "1.2.3", "Infinityx", "12345678901234567890x", "12345678901234567890d", "0x12345678901234567890" };
+		for (String text : invalid) {
+			try {
+				DoubleRange.parse("[" + text + ", 1e308]");
+				fail("parsed " + text);
+			} catch (NumberFormatException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test
+	public void testInvalid() {
+		assertInvalid("");
+		assertInvalid("[]");
+		assertInvalid("[1 2]");
+		assertInvalid("[1, 2");
+		assertInvalid("1, 2]");
+		assertInvalid("[1, 2]]");
+		assertInvalid("Long Range[1, 2]");
+		assertInvalid("[1, 9223372036854775808]");
+		assertInvalid("[1, +]");
+		try {
+			Rational.parse("1/");
+			fail();
+		} catch (NumberFormatException e) {
+			// Expected
+		}
+		try {
+			IntegerRange.parse("[0, 2147483648]");
+			fail();
+		} catch (NumberFormatException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testIntegerRange() {
+		Random random = new Random(53);
+		for (int i = 0; i < N; i++) {
+			int from = random.nextInt();
+			IntegerRange range = new IntegerRange(from, from + random.nextInt(Integer.MAX_VALUE - Math.max(from, 0)));
+			assertEquals(range, IntegerRange.parse(range.toString()));
+			assertEquals(new PrimitiveIntegerRange(range), PrimitiveIntegerRange.parse(range.toString()));
+		}
+		assertEquals(new IntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE), IntegerRange.parse("IntegerRange[-2147483648, 2147483647]"));
+	}
+
+	@Test
+	public void testLongRange() {
+		assertEquals(new LongRange(Long.MIN_VALUE, Long.MAX_VALUE), LongRange.parse(new LongRange(Long.MIN_VALUE, Long.MAX_VALUE).toString()));
+		assertEquals(new LongRange(-5L, 10L), LongRange.parse(" [ -5 ,+10 ] "));
+		assertEquals(new PrimitiveLongRange(5, 10), PrimitiveLongRange.parse("a,LongRange[5, 10],b", 2, 18));
+
+		ByteBuffer buffer = ByteBuffer.wrap("id;LongRange[7, 8];".getBytes(StandardCharsets.US_ASCII));
+		assertEquals(new LongRange(7L, 8L), LongRange.parse(buffer, 3, 18));
+	}
+
+	@Test
+	public void testRational() {
+		assertEquals(Rational.valueOf(3, 4), Rational.parse("3/4"));
+		assertEquals(Rational.valueOf(-1, 2), Rational.parse("2/-4"));
+		assertEquals(Rational.valueOf(-5), Rational.parse("-5"));
+		assertEquals(Rational.valueOf(7, 9), Rational.parse(Rational.valueOf(7, 9).toString()));
+		assertEquals(Rational.valueOf(1, 3), Rational.parse("1,1/3,2", 2, 5));
+
+		ByteBuffer buffer = ByteBuffer.wrap("x=10/4".getBytes(StandardCharsets.US_ASCII));
+		assertEquals(Rational.valueOf(5, 2), Rational.parse(buffer, 2, 6));
+		assertEquals(0, buffer.position());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.actram.math.DoubleRange;
+import com.actram.math.IntegerRange;
+import com.actram.math.LongRange;
+import com.actram.math.PrimitiveDoubleRange;
+import com.actram.math.PrimitiveIntegerRange;
+import com.actram.math.PrimitiveLongRange;
+
+@RunWith(Parameterized.class)
+public class PrimitiveRangeTest {
+
+	@Parameters
+	public static Collection<Object> data() {
+		int value = (int) (Math.random() * Math.sqrt(Integer.MAX_VALUE - 1));
+		// @formatterOff
+		return Arrays.asList(new Object[] {
+			new IntegerRange(-value, value),
+			new IntegerRange(-value * value, -value),
+			new IntegerRange(-value, 0),
+			new IntegerRange(0, value),
+			new IntegerRange(value, value * 2),
+		});
+		// @formatterOn
+	}
+
+	@Parameter public IntegerRange range;
+
+	@Test
+	public void testConversion() {
+		assertEquals(range, new PrimitiveIntegerRange(range).toRange());
+		assertEquals(new LongRange(range.getFrom(), range.getTo()), new PrimitiveLongRange(range.getFrom(), range.getTo()).toRange());
+		assertEquals(new DoubleRange(range.getFrom(), range.getTo()), new PrimitiveDoubleRange(range.getFrom(), range.getTo()).toRange());
+	}
+
+	@Test
+	public void testContains() {
+		PrimitiveIntegerRange primitive = new PrimitiveIntegerRange(range);
+		for (int value : new int[] { range.getFrom() - 1, range.getFrom(), range.getTo(), range.getTo() + 1 }) {
+			assertEquals(range.contains(value), primitive.contains(value));
+			assertEquals(range.isOver(value), primitive.isOver(value));
+			assertEquals(range.isUnder(value), primitive.isUnder(value));
+			assertEquals(range.isBoundary(value), primitive.isBoundary(value));
+		}
+		assertTrue(primitive.contains(range));
+		assertTrue(primitive.overlaps(range.shift(range.distance())));
+		assertFalse(primitive.overlaps(range.shift(range.distance() + 1)));
+	}
+
+	@Test
+	public void testDouble() {
+		DoubleRange boxed = new DoubleRange(range.getFrom(), range.getTo());
+		PrimitiveDoubleRange primitive = new PrimitiveDoubleRange(range.getFrom(), range.getTo());
+		assertEquals(boxed.center(), primitive.center().toRange());
+		assertEquals(boxed.extend(1.5), primitive.extend(1.5).toRange());
+		assertEquals(boxed.shift(-0.5), primitive.shift(-0.5).toRange());
+		assertEquals(boxed.trim(boxed.distance()), primitive.trim(primitive.distance()).toRange());
+		assertFalse(primitive.contains(Double.NaN));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDoubleNaN() {
+		new PrimitiveDoubleRange(0, Double.NaN);
+	}
+
+	@Test
+	public void testLong() {
+		LongRange boxed = new LongRange(range.getFrom(), range.getTo());
+		PrimitiveLongRange primitive = new PrimitiveLongRange(boxed);
+		assertEquals(boxed.center(), primitive.center().toRange());
+		assertEquals(boxed.extend(3L), primitive.extend(3).toRange());
+		assertEquals(boxed.shift(Long.valueOf(Integer.MAX_VALUE)), primitive.shift(Integer.MAX_VALUE).toRange());
+		assertEquals(boxed.trimMinimum(1L), primitive.trimMinimum(1).toRange());
+		assertEquals(boxed.trimMaximum(boxed.distance() + 1), primitive.trimMaximum(primitive.distance() + 1).toRange());
+		assertEquals(boxed.distance().longValue(), primitive.distance());
+	}
+
+	@Test
+	public void testOperations() {
+		PrimitiveIntegerRange primitive = new PrimitiveIntegerRange(range);
+		assertEquals(range.center(), primitive.center().toRange());
+		assertEquals(range.extend(1), primitive.extend(1).toRange());
+		assertEquals(range.extendMaximum(2), primitive.extendMaximum(2).toRange());
+		assertEquals(range.extendMinimum(3), primitive.extendMinimum(3).toRange());
+		assertEquals(range.shift(-4), primitive.shift(-4).toRange());
+		assertEquals(range.trim(1), primitive.trim(1).toRange());
+		assertEquals(range.trim(range.distance()), primitive.trim(primitive.distance()).toRange());
+		assertEquals(range.trimMaximum(range.distance() + 1), primitive.trimMaximum(primitive.distance() + 1).toRange());
+		assertEquals(range.trimMinimum(range.distance() + 1), primitive.trimMinimum(primitive.distance() + 1).toRange());
+		assertEquals(range.safeSet(range.getTo(), range.getFrom()), primitive.safeSet(range.getTo(), range.getFrom()).toRange());
+		assertEquals((int) range.distance(), primitive.distance());
+	}
+
+	@Test
+	public void testRandomValue() {
+		PrimitiveIntegerRange primitive = new PrimitiveIntegerRange(range);
+		int value = primitive.randomValue();
+		assertTrue(primitive.contains(value));
+
+		long seed = value;
+		assertEquals(primitive.randomValue(new Random(seed)), primitive.randomValue(new Random(seed)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTrimNegative() {
+		new PrimitiveIntegerRange(range).trim(-1);
+	}
+}
\ No newline at end of file
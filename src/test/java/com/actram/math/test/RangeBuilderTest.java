@@ -0,0 +1,173 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.DoubleRangeBuilder;
+import com.actram.math.IntegerRange;
+import com.actram.math.IntegerRangeBuilder;
+import com.actram.math.LongRange;
+import com.actram.math.LongRangeBuilder;
+import com.actram.math.PrimitiveDoubleRange;
+import com.actram.math.PrimitiveIntegerRange;
+import com.actram.math.PrimitiveLongRange;
+
+public class RangeBuilderTest {
+	private static final int N = 2000;
+
+	@Test
+	public void testDouble() {
+		Random random = new Random(23);
+		PrimitiveDoubleRange range = new PrimitiveDoubleRange(-10, 10);
+		DoubleRangeBuilder builder = new DoubleRangeBuilder(-10.0, 10.0);
+		for (int i = 0; i < N; i++) {
+			double amount = random.nextInt(8) / 2.0;
+			switch (random.nextInt(8)) {
+			case 0:
+				range = range.center();
+				builder.center();
+				break;
+			case 1:
+				range = range.extend(amount);
+				builder.extend(amount);
+				break;
+			case 2:
+				range = range.extendMaximum(amount);
+				builder.extendMaximum(amount);
+				break;
+			case 3:
+				range = range.extendMinimum(amount);
+				builder.extendMinimum(amount);
+				break;
+			case 4:
+				range = range.shift(amount - 2);
+				builder.shift(amount - 2);
+				break;
+			case 5:
+				range = range.trim(amount);
+				builder.trim(amount);
+				break;
+			case 6:
+				range = range.trimMaximum(amount);
+				builder.trimMaximum(amount);
+				break;
+			default:
+				range = range.trimMinimum(amount);
+				builder.trimMinimum(amount);
+				break;
+			}
+			assertEquals(range, builder.buildPrimitive());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDoubleNaN() {
+		new DoubleRangeBuilder().setTo(Double.NaN);
+	}
+
+	@Test
+	public void testInteger() {
+		Random random = new Random(29);
+		PrimitiveIntegerRange range = new PrimitiveIntegerRange(-10, 10);
+		IntegerRangeBuilder builder = new IntegerRangeBuilder(new IntegerRange(-10, 10));
+		for (int i = 0; i < N; i++) {
+			int amount = random.nextInt(8);
+			switch (random.nextInt(8)) {
+			case 0:
+				range = range.center();
+				builder.center();
+				break;
+			case 1:
+				range = range.extend(amount);
+				builder.extend(amount);
+				break;
+			case 2:
+				range = range.extendMaximum(amount);
+				builder.extendMaximum(amount);
+				break;
+			case 3:
+				range = range.extendMinimum(amount);
+				builder.extendMinimum(amount);
+				break;
+			case 4:
+				range = range.shift(amount - 4);
+				builder.shift(amount - 4);
+				break;
+			case 5:
+				range = range.trim(amount);
+				builder.trim(amount);
+				break;
+			case 6:
+				range = range.trimMaximum(amount);
+				builder.trimMaximum(amount);
+				break;
+			default:
+				range = range.trimMinimum(amount);
+				builder.trimMinimum(amount);
+				break;
+			}
+			assertEquals(range, builder.buildPrimitive());
+			assertEquals(range.toRange(), builder.build());
+		}
+	}
+
+	@Test
+	public void testInvalidSet() {
+		LongRangeBuilder builder = new LongRangeBuilder(0, 5);
+		try {
+			builder.setTo(-1);
+		} catch (IllegalArgumentException e) {
+			// The builder is left unchanged
+		}
+		assertEquals(new LongRange(0L, 5L), builder.build());
+		assertEquals(new LongRange(-3L, 7L), builder.safeSet(7, -3).build());
+	}
+
+	@Test
+	public void testLong() {
+		Random random = new Random(31);
+		PrimitiveLongRange range = new PrimitiveLongRange(-10, 10);
+		LongRangeBuilder builder = new LongRangeBuilder(-10, 10);
+		for (int i = 0; i < N; i++) {
+			long amount = random.nextInt(8);
+			switch (random.nextInt(8)) {
+			case 0:
+				range = range.center();
+				builder.center();
+				break;
+			case 1:
+				range = range.extend(amount);
+				builder.extend(amount);
+				break;
+			case 2:
+				range = range.extendMaximum(amount);
+				builder.extendMaximum(amount);
+				break;
+			case 3:
+				range = range.extendMinimum(amount);
+				builder.extendMinimum(amount);
+				break;
+			case 4:
+				range = range.shift(amount - 4);
+				builder.shift(amount - 4);
+				break;
+			case 5:
+				range = range.trim(amount);
+				builder.trim(amount);
+				break;
+			case 6:
+				range = range.trimMaximum(amount);
+				builder.trimMaximum(amount);
+				break;
+			default:
+				range = range.trimMinimum(amount);
+				builder.trimMinimum(amount);
+				break;
+			}
+			assertEquals(range, builder.buildPrimitive());
+		}
+	}
+}
\ No newline at end of file
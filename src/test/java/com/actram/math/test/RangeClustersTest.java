@@ -0,0 +1,115 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.DoubleRange;
+import com.actram.math.IntegerRange;
+import com.actram.math.RangeClusters;
+
+public class RangeClustersTest {
+
+	/**
+	 * @return the cluster of each range, found by comparing every pair
+	 */
+	private static int[] bruteForceRoots(long[] from, long[] to) {
+		int[] roots = new int[from.length];
+		for (int i = 0; i < roots.length; i++) {
+			roots[i] = i;
+		}
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = 0; i < roots.length; i++) {
+				for (int j = 0; j < roots.length; j++) {
+					if (from[i] <= to[j] && from[j] <= to[i] && roots[j] < roots[i]) {
+						roots[i] = roots[j];
+						changed = true;
+					}
+				}
+			}
+		}
+		return roots;
+	}
+
+	@Test
+	public void testDouble() {
+		double[] from = { 0.5, -3, 2, 1.5, 10 };
+		double[] to = { 1.5, -2.5, 3, 1.75, 10 };
+		int[] result = new int[from.length];
+		assertArrayEquals(new double[] { -3, -2.5, 0.5, 1.75, 2, 3, 10, 10 }, RangeClusters.cluster(from, to, result), 0);
+		assertArrayEquals(new int[] { 1, 0, 2, 1, 3 }, result);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDoubleNaN() {
+		RangeClusters.spans(new double[] { Double.NaN }, new double[] { 0 });
+	}
+
+	@Test
+	public void testGeneric() {
+		List<IntegerRange> ranges = Arrays.asList(new IntegerRange(5, 6), new IntegerRange(0, 2), new IntegerRange(3, 4), new IntegerRange(1, 3), new IntegerRange(7, 7));
+		List<List<IntegerRange>> clusters = RangeClusters.clusters(ranges);
+		assertEquals(3, clusters.size());
+		assertEquals(Arrays.asList(new IntegerRange(0, 2), new IntegerRange(1, 3), new IntegerRange(3, 4)), clusters.get(0));
+		assertEquals(Arrays.asList(new IntegerRange(5, 6)), clusters.get(1));
+		assertEquals(clusters, RangeClusters.parallelClusters(ranges));
+
+		List<IntegerRange> spans = RangeClusters.spans(ranges);
+		assertEquals(Arrays.asList(new IntegerRange(0, 4), new IntegerRange(5, 6), new IntegerRange(7, 7)), spans);
+		assertEquals(spans, RangeClusters.parallelSpans(ranges));
+		assertTrue(RangeClusters.spans(new ArrayList<DoubleRange>()).isEmpty());
+	}
+
+	@Test
+	public void testLong() {
+		Random random = new Random(13);
+		for (int n = 0; n < 200; n++) {
+			long[] from = new long[random.nextInt(40)];
+			long[] to = new long[from.length];
+			for (int i = 0; i < from.length; i++) {
+				from[i] = random.nextInt(200);
+				to[i] = from[i] + random.nextInt(10);
+			}
+			int[] result = new int[from.length];
+			long[] spans = RangeClusters.cluster(from, to, result);
+
+			// Ranges are in the same cluster exactly when they are connected
+			int[] roots = bruteForceRoots(from, to);
+			for (int i = 0; i < from.length; i++) {
+				for (int j = 0; j < from.length; j++) {
+					assertEquals(roots[i] == roots[j], result[i] == result[j]);
+				}
+				assertTrue(spans[2 * result[i]] <= from[i] && to[i] <= spans[2 * result[i] + 1]);
+			}
+			for (int i = 3; i < spans.length; i += 2) {
+				assertTrue(spans[i - 2] < spans[i - 1]);
+			}
+			assertArrayEquals(spans, RangeClusters.spans(from, to));
+		}
+	}
+
+	@Test
+	public void testParallel() {
+		Random random = new Random(17);
+		long[] from = new long[1 << 18];
+		long[] to = new long[from.length];
+		for (int i = 0; i < from.length; i++) {
+			from[i] = random.nextInt(1 << 24);
+			to[i] = from[i] + random.nextInt(64);
+		}
+		int[] expected = new int[from.length];
+		int[] actual = new int[from.length];
+		assertArrayEquals(RangeClusters.cluster(from, to, expected), RangeClusters.parallelCluster(from, to, actual));
+		assertArrayEquals(expected, actual);
+		assertArrayEquals(RangeClusters.spans(from, to), RangeClusters.parallelSpans(from, to));
+	}
+}
\ No newline at end of file
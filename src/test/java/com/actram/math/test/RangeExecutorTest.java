@@ -0,0 +1,151 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.actram.math.LongRange;
+import com.actram.math.RangeExecutor;
+
+public class RangeExecutorTest {
+
+	private static void assertParts(LongRange range, LongRange[] parts) {
+		assertEquals(range.getFrom(), parts[0].getFrom());
+		assertEquals(range.getTo(), parts[parts.length - 1].getTo());
+		long min = Long.MAX_VALUE;
+		long max = 0;
+		for (int i = 0; i < parts.length; i++) {
+			if (i > 0) {
+				assertEquals(parts[i - 1].getTo() + 1, parts[i].getFrom().longValue());
+			}
+			long count = parts[i].getTo() - parts[i].getFrom() + 1;
+			min = Math.min(min, count);
+			max = Math.max(max, count);
+		}
+		assertTrue(max - min <= 1);
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			CountDownLatch started = new CountDownLatch(1);
+			AtomicLong count = new AtomicLong();
+			ForkJoinTask<Void> task = new RangeExecutor(pool, 1).submit(new LongRange(0L, Long.MAX_VALUE), value -> {
+				count.incrementAndGet();
+				started.countDown();
+			});
+			started.await();
+			task.cancel(true);
+			try {
+				task.join();
+				fail();
+			} catch (CancellationException e) {
+				// Expected
+			}
+			assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+			assertTrue(count.get() < Long.MAX_VALUE);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testChunks() {
+		RangeExecutor executor = new RangeExecutor(ForkJoinPool.commonPool(), 100);
+		ConcurrentLinkedQueue<LongRange> chunks = new ConcurrentLinkedQueue<>();
+		executor.forEachChunk(new LongRange(-5000L, 94999L), (from, to) -> chunks.add(new LongRange(from, to)));
+
+		List<LongRange> sorted = new ArrayList<>(chunks);
+		Collections.sort(sorted, (a, b) -> Long.compare(a.getFrom(), b.getFrom()));
+		assertEquals(-5000, sorted.get(0).getFrom().longValue());
+		assertEquals(94999, sorted.get(sorted.size() - 1).getTo().longValue());
+		for (int i = 0; i < sorted.size(); i++) {
+			if (i > 0) {
+				assertEquals(sorted.get(i - 1).getTo() + 1, sorted.get(i).getFrom().longValue());
+			}
+			assertTrue(sorted.get(i).getTo() - sorted.get(i).getFrom() + 1 >= 100);
+		}
+
+		// The extremes, which have 2^64 values
+		AtomicLong total = new AtomicLong();
+		new RangeExecutor(ForkJoinPool.commonPool(), Long.MAX_VALUE / 4).forEachChunk(Long.MIN_VALUE, Long.MAX_VALUE, (from, to) -> total.addAndGet(to - from + 1));
+		assertEquals(0, total.get());
+	}
+
+	@Test
+	public void testException() {
+		try {
+			new RangeExecutor().forEach(new LongRange(0L, 100000L), value -> {
+				if (value == 54321) {
+					throw new IllegalStateException("value=" + value);
+				}
+			});
+			fail();
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testForEach() {
+		AtomicIntegerArray counts = new AtomicIntegerArray(100000);
+		new RangeExecutor(ForkJoinPool.commonPool(), 1).forEach(new LongRange(0L, 99999L), value -> counts.incrementAndGet((int) value));
+		for (int i = 0; i < counts.length(); i++) {
+			assertEquals(1, counts.get(i));
+		}
+
+		AtomicLong sum = new AtomicLong();
+		new RangeExecutor().forEach(7, 7, sum::addAndGet);
+		assertEquals(7, sum.get());
+	}
+
+	@Test
+	public void testSplit() {
+		Random random = new Random(61);
+		for (int i = 0; i < 1000; i++) {
+			long from = random.nextInt(2000) - 1000;
+			LongRange range = new LongRange(from, from + random.nextInt(1000));
+			int parts = 1 + random.nextInt(50);
+			LongRange[] split = range.split(parts);
+			assertEquals(Math.min(parts, range.distance() + 1), split.length);
+			assertParts(range, split);
+
+			long chunk = 1 + random.nextInt(100);
+			split = range.splitBySize(chunk);
+			assertEquals((range.distance() + chunk) / chunk, split.length);
+			assertParts(range, split);
+			for (LongRange part : split) {
+				assertTrue(part.distance() < chunk);
+			}
+		}
+
+		assertArrayEquals(new LongRange[] { new LongRange(1L, 2L), new LongRange(3L, 4L), new LongRange(5L, 5L) }, new LongRange(1L, 5L).split(3));
+		assertArrayEquals(new LongRange[] { new LongRange(0L, 0L) }, new LongRange(0L, 0L).split(4));
+
+		LongRange[] halves = new LongRange(Long.MIN_VALUE, Long.MAX_VALUE).split(2);
+		assertArrayEquals(new LongRange[] { new LongRange(Long.MIN_VALUE, -1L), new LongRange(0L, Long.MAX_VALUE) }, halves);
+		assertEquals(3, new LongRange(Long.MIN_VALUE, Long.MAX_VALUE).splitBySize(Long.MAX_VALUE).length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSplitTooSmall() {
+		new LongRange(0L, Long.MAX_VALUE).splitBySize(1000);
+	}
+}
\ No newline at end of file
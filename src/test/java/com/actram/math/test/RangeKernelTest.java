@@ -0,0 +1,161 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.DoubleRange;
+import com.actram.math.IntegerRange;
+import com.actram.math.LongRange;
+import com.actram.math.PrimitiveDoubleRange;
+import com.actram.math.PrimitiveIntegerRange;
+import com.actram.math.PrimitiveLongRange;
+
+public class RangeKernelTest {
+
+	/** Large enough for the parallel variants to split the work. */
+	private static final int N = (1 << 17) + 3;
+
+	@Test
+	public void testDouble() {
+		double[] values = new Random().doubles(N, -2, 2).toArray();
+		values[0] = Double.NaN;
+		values[1] = -1;
+		values[2] = 1;
+		PrimitiveDoubleRange range = new PrimitiveDoubleRange(-1, 1);
+
+		BitSet expected = new BitSet();
+		byte[] classes = new byte[N];
+		double[] clamped = new double[N];
+		for (int i = 0; i < N; i++) {
+			expected.set(i, range.contains(values[i]));
+			classes[i] = (byte) (range.isUnder(values[i]) || Double.isNaN(values[i]) ? 1 : range.isOver(values[i]) ? -1 : 0);
+			clamped[i] = Math.min(Math.max(values[i], -1), 1);
+		}
+
+		BitSet actual = new BitSet();
+		range.contains(values, actual);
+		assertEquals(expected, actual);
+		new DoubleRange(-1, 1).parallelContains(values, actual);
+		assertEquals(expected, actual);
+
+		long[] words = new long[(N - 1) / Long.SIZE + 1];
+		range.contains(values, words);
+		assertEquals(expected, BitSet.valueOf(words));
+		words = new long[words.length];
+		new DoubleRange(-1, 1).parallelContains(values, words);
+		assertEquals(expected, BitSet.valueOf(words));
+		assertEquals(expected.cardinality(), range.count(values));
+		assertEquals(expected.cardinality(), range.parallelCount(values));
+
+		byte[] result = new byte[N];
+		range.classify(values, result);
+		assertArrayEquals(classes, result);
+		range.parallelClassify(values, result);
+		assertArrayEquals(classes, result);
+
+		double[] clampResult = new double[N];
+		range.parallelClamp(values, clampResult);
+		assertArrayEquals(clamped, clampResult, 0);
+		range.clamp(values, values);
+		assertArrayEquals(clamped, values, 0);
+	}
+
+	@Test
+	public void testInteger() {
+		int[] values = new Random().ints(N, -100, 100).toArray();
+		IntegerRange range = new IntegerRange(-50, 50);
+		PrimitiveIntegerRange primitive = new PrimitiveIntegerRange(range);
+
+		BitSet expected = new BitSet();
+		int[] clamped = new int[N];
+		for (int i = 0; i < N; i++) {
+			expected.set(i, range.contains(values[i]));
+			clamped[i] = Math.min(Math.max(values[i], -50), 50);
+		}
+		BitSet actual = new BitSet();
+		actual.set(N + 10);
+		range.contains(values, actual);
+		assertEquals(expected, actual);
+		primitive.parallelContains(values, actual);
+		assertEquals(expected, actual);
+
+		long[] words = new long[(N - 1) / Long.SIZE + 1];
+		Arrays.fill(words, -1);
+		primitive.contains(values, words);
+		assertEquals(expected, BitSet.valueOf(words));
+		Arrays.fill(words, -1);
+		range.parallelContains(values, words);
+		assertEquals(expected, BitSet.valueOf(words));
+		assertEquals(expected.cardinality(), primitive.count(values));
+		assertEquals(expected.cardinality(), range.parallelCount(values));
+
+		byte[] classes = new byte[N];
+		primitive.parallelClassify(values, classes);
+		for (int i = 0; i < N; i++) {
+			assertEquals(values[i] < -50 ? -1 : values[i] > 50 ? 1 : 0, classes[i]);
+		}
+
+		int[] result = new int[N];
+		range.clamp(values, result);
+		assertArrayEquals(clamped, result);
+		primitive.parallelClamp(values, result);
+		assertArrayEquals(clamped, result);
+	}
+
+	@Test
+	public void testLong() {
+		long[] values = new Random().longs(N).toArray();
+		LongRange range = new LongRange(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2);
+		PrimitiveLongRange primitive = new PrimitiveLongRange(range);
+
+		int expected = 0;
+		for (long value : values) {
+			expected += (range.contains(value) ? 1 : 0);
+		}
+		assertEquals(expected, range.count(values));
+		assertEquals(expected, primitive.parallelCount(values));
+
+		BitSet bits = new BitSet();
+		primitive.contains(values, bits);
+		assertEquals(expected, bits.cardinality());
+		range.parallelContains(values, bits);
+		assertEquals(expected, bits.cardinality());
+
+		long[] words = new long[(N - 1) / Long.SIZE + 1];
+		range.contains(values, words);
+		assertEquals(bits, BitSet.valueOf(words));
+		primitive.parallelContains(values, words);
+		assertEquals(bits, BitSet.valueOf(words));
+
+		byte[] classes = new byte[N];
+		range.classify(values, classes);
+		for (int i = 0; i < N; i++) {
+			assertEquals(primitive.isOver(values[i]) ? -1 : primitive.isUnder(values[i]) ? 1 : 0, classes[i]);
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		BitSet bits = new BitSet();
+		bits.set(3);
+		new IntegerRange(0, 1).parallelContains(new int[0], bits);
+		assertEquals(new BitSet(), bits);
+		new PrimitiveLongRange(0, 1).parallelContains(new long[0], new long[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWordMismatch() {
+		new PrimitiveIntegerRange(0, 1).contains(new int[65], new long[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLengthMismatch() {
+		new PrimitiveIntegerRange(0, 1).clamp(new int[2], new int[3]);
+	}
+}
\ No newline at end of file
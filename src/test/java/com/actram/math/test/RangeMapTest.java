@@ -0,0 +1,91 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.IntegerRange;
+import com.actram.math.LongRange;
+import com.actram.math.RangeMap;
+
+public class RangeMapTest {
+
+	@Test
+	public void testEmpty() {
+		RangeMap<String> map = new RangeMap.Builder<String>().build();
+		assertEquals(0, map.size());
+		assertNull(map.get(0));
+		assertEquals("none", map.getOrDefault(Long.MIN_VALUE, "none"));
+	}
+
+	@Test
+	public void testExtremes() {
+		RangeMap<String> map = new RangeMap.Builder<String>().put(Long.MAX_VALUE, Long.MAX_VALUE, "max").put(new LongRange(Long.MIN_VALUE, -1L), "negative").build();
+		assertEquals("negative", map.get(Long.MIN_VALUE));
+		assertEquals("negative", map.get(-1));
+		assertNull(map.get(0));
+		assertNull(map.get(Long.MAX_VALUE - 1));
+		assertEquals("max", map.get(Long.MAX_VALUE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOverlap() {
+		new RangeMap.Builder<String>().put(new IntegerRange(0, 10), "a").put(new IntegerRange(20, 30), "b").put(new IntegerRange(10, 15), "c").build();
+	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(11);
+		for (int n = 0; n < 200; n++) {
+
+			// Random disjoint ranges, put in random order
+			int count = random.nextInt(100);
+			long[] from = new long[count];
+			long[] to = new long[count];
+			long next = random.nextInt(10) - 5;
+			for (int i = 0; i < count; i++) {
+				from[i] = next + random.nextInt(3);
+				to[i] = from[i] + random.nextInt(4);
+				next = to[i] + 1;
+			}
+			List<Integer> order = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				order.add(i);
+			}
+			Collections.shuffle(order, random);
+			RangeMap.Builder<Integer> builder = new RangeMap.Builder<>();
+			for (int i : order) {
+				builder.put(from[i], to[i], i);
+			}
+			RangeMap<Integer> map = builder.build();
+			assertEquals(count, map.size());
+
+			for (long key = -10; key <= next + 5; key++) {
+				Integer expected = null;
+				for (int i = 0; i < count; i++) {
+					if (from[i] <= key && key <= to[i]) {
+						expected = i;
+					}
+				}
+				assertEquals("key " + key + " of " + map, expected, map.get(key));
+				assertEquals(expected != null, map.containsKey(key));
+			}
+		}
+	}
+
+	@Test
+	public void testToString() {
+		RangeMap<String> map = new RangeMap.Builder<String>().put(5, 6, "b").put(1, 2, "a").build();
+		assertEquals("RangeMap[[1, 2]=a, [5, 6]=b]", map.toString());
+		assertTrue(map.containsKey(6));
+		assertFalse(map.containsKey(3));
+	}
+}
\ No newline at end of file
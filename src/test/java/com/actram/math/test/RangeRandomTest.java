@@ -0,0 +1,97 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import com.actram.math.DoubleRange;
+import com.actram.math.IntegerRange;
+import com.actram.math.LongRange;
+import com.actram.math.PrimitiveDoubleRange;
+import com.actram.math.PrimitiveIntegerRange;
+import com.actram.math.PrimitiveLongRange;
+import com.actram.math.Rational;
+import com.actram.math.RationalRange;
+
+public class RangeRandomTest {
+
+	private static final int N = 30_000;
+
+	@Test
+	public void testBulk() {
+		IntegerRange range = new IntegerRange(-5, 5);
+		for (int value : range.ints(N)) {
+			assertTrue(range.contains(value));
+		}
+		for (long value : new PrimitiveLongRange(Long.MIN_VALUE, Long.MIN_VALUE + 2).longs(N)) {
+			assertTrue(value <= Long.MIN_VALUE + 2);
+		}
+		for (double value : new DoubleRange(-Double.MAX_VALUE, Double.MAX_VALUE).doubles(N)) {
+			assertTrue(!Double.isInfinite(value) && !Double.isNaN(value));
+		}
+		assertEquals(0, new PrimitiveDoubleRange(0, 1).doubles(0).length);
+	}
+
+	@Test
+	public void testFill() {
+		int[] values1 = new int[N];
+		int[] values2 = new int[N];
+		new IntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE).fill(values1, new SplittableRandom(N));
+		new PrimitiveIntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE).fill(values2, new SplittableRandom(N));
+		assertArrayEquals(values1, values2);
+
+		long[] longs = new long[N];
+		new LongRange(-1, 1).fill(longs, new SplittableRandom());
+		for (long value : longs) {
+			assertTrue(-1 <= value && value <= 1);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCount() {
+		new LongRange(0, 1).longs(-1);
+	}
+
+	@Test
+	public void testRational() {
+		RationalRange range = new RationalRange(-1, 3, 1, 2);
+		Random random = new Random();
+		int maxDenominator = 0;
+		for (int i = 0; i < N; i++) {
+			Rational value = range.randomValue(random);
+			assertTrue(range.contains(value));
+			maxDenominator = Math.max(maxDenominator, value.getDenominator());
+		}
+		assertTrue(maxDenominator > 6);
+
+		// Boundaries that do not fit a common denominator
+		RationalRange large = new RationalRange(new Rational(-Integer.MAX_VALUE, 2), new Rational(Integer.MAX_VALUE, 3));
+		for (int i = 0; i < 100; i++) {
+			assertTrue(large.contains(large.randomValue(random)));
+		}
+		assertEquals(Rational.HALF, new RationalRange(Rational.HALF).randomValue());
+	}
+
+	@Test
+	public void testUniform() {
+		int[] counts = new int[3];
+		for (int value : new PrimitiveIntegerRange(0, 2).ints(N)) {
+			counts[value]++;
+		}
+		long[] longCounts = new long[3];
+		Random random = new Random();
+		LongRange range = new LongRange(Long.MAX_VALUE - 2, Long.MAX_VALUE);
+		for (int i = 0; i < N; i++) {
+			longCounts[(int) (range.randomValue(random) - range.getFrom())]++;
+		}
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(N / 3, counts[i], N / 30);
+			assertEquals(N / 3, longCounts[i], N / 30);
+		}
+	}
+}
\ No newline at end of file
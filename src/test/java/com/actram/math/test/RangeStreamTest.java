@@ -0,0 +1,81 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+
+import org.junit.Test;
+
+import com.actram.math.IntegerRange;
+import com.actram.math.LongRange;
+import com.actram.math.PrimitiveIntegerRange;
+import com.actram.math.PrimitiveLongRange;
+
+public class RangeStreamTest {
+
+	@Test
+	public void testBoundaries() {
+		assertArrayEquals(new int[] { Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE }, new IntegerRange(Integer.MAX_VALUE - 2, Integer.MAX_VALUE).stream().toArray());
+		assertArrayEquals(new int[] { Integer.MAX_VALUE, -1 }, new IntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE).stream(Integer.MIN_VALUE).toArray());
+		assertArrayEquals(new long[] { Long.MIN_VALUE, Long.MIN_VALUE + 1 }, new LongRange(Long.MIN_VALUE, Long.MIN_VALUE + 1).stream().toArray());
+		assertArrayEquals(new long[] { Long.MAX_VALUE, -1 }, new LongRange(Long.MIN_VALUE, Long.MAX_VALUE).stream(Long.MIN_VALUE).toArray());
+		assertEquals(1L << 32, new IntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE).stream().spliterator().getExactSizeIfKnown());
+		assertEquals(Long.divideUnsigned(-1, 3) + 1, new LongRange(Long.MIN_VALUE, Long.MAX_VALUE).stream(3).spliterator().getExactSizeIfKnown());
+	}
+
+	@Test
+	public void testIterator() {
+		PrimitiveIterator.OfInt iterator = new IntegerRange(-1, 1).iterator();
+		assertEquals(-1, iterator.nextInt());
+		assertEquals(0, iterator.nextInt());
+		assertEquals(1, iterator.nextInt());
+		assertFalse(iterator.hasNext());
+
+		PrimitiveIterator.OfLong reverse = new PrimitiveLongRange(0, 10).iterator(-5);
+		assertEquals(10, reverse.nextLong());
+		assertEquals(5, reverse.nextLong());
+		assertEquals(0, reverse.nextLong());
+		assertFalse(reverse.hasNext());
+	}
+
+	@Test
+	public void testParallel() {
+		long n = 10_000_000;
+		assertEquals(n * (n + 1) / 2, new LongRange(1, n).parallelStream().sum());
+		assertEquals(new LongRange(-n, n).stream(7).sum(), new PrimitiveLongRange(-n, n).stream(7).parallel().sum());
+		assertEquals(new IntegerRange(0, 1000).stream().sum(), new PrimitiveIntegerRange(0, 1000).parallelStream().sum());
+	}
+
+	@Test
+	public void testSpliterator() {
+		Spliterator.OfLong spliterator = new LongRange(0, 100).stream(3).spliterator();
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED));
+		assertEquals(34, spliterator.getExactSizeIfKnown());
+
+		Spliterator.OfLong prefix = spliterator.trySplit();
+		assertEquals(17, prefix.getExactSizeIfKnown());
+		assertEquals(17, spliterator.getExactSizeIfKnown());
+		assertFalse(new LongRange(0, 100).stream(-3).spliterator().hasCharacteristics(Spliterator.SORTED));
+	}
+
+	@Test
+	public void testStep() {
+		assertArrayEquals(new int[] { 0, 3, 6, 9 }, new IntegerRange(0, 10).stream(3).toArray());
+		assertArrayEquals(new int[] { 10, 7, 4, 1 }, new PrimitiveIntegerRange(0, 10).stream(-3).toArray());
+		assertArrayEquals(new long[] { 5 }, new LongRange(5).stream(-1).toArray());
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testTooManyValues() {
+		new LongRange(Long.MIN_VALUE, Long.MAX_VALUE).stream();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroStep() {
+		new IntegerRange(0, 10).stream(0);
+	}
+}
\ No newline at end of file
@@ -4,6 +4,6 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ AbstractRangeTest.class, AbstractCountableRangeTest.class })
+@Suite.SuiteClasses({ AbstractRangeTest.class, AbstractCountableRangeTest.class, PrimitiveRangeTest.class, RangeStreamTest.class, RangeRandomTest.class, RangeKernelTest.class, RangeBuilderTest.class })
 public class RangeTestSuite {
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.BigRational;
+import com.actram.math.Rational;
+import com.actram.math.RationalAccumulator;
+
+public class RationalAccumulatorTest {
+
+	@Test
+	public void testAdd() {
+		Random random = new Random();
+		RationalAccumulator accumulator = new RationalAccumulator();
+		Rational expected = Rational.ZERO;
+		for (int i = 0; i < 1000; i++) {
+			Rational r = new Rational(random.nextInt(200) - 100, random.nextInt(12) + 1);
+			accumulator.add(r);
+			expected = expected.add(r);
+		}
+		assertEquals(expected, accumulator.toRational());
+		assertEquals(expected.toDouble(), accumulator.toDouble(), 1e-9);
+	}
+
+	@Test
+	public void testHarmonic() {
+		RationalAccumulator accumulator = new RationalAccumulator();
+		BigRational expected = BigRational.ZERO;
+		for (int i = 1; i <= 100; i++) {
+			accumulator.add(1, i);
+			expected = expected.add(BigRational.valueOf(1, i));
+		}
+		assertEquals(expected, accumulator.toBigRational());
+		assertEquals(expected.toDouble(), accumulator.toDouble(), 0);
+
+		// Subtracting everything again brings the value back into long range
+		for (int i = 1; i <= 100; i++) {
+			accumulator.subtract(1, i);
+		}
+		assertEquals(Rational.ZERO, accumulator.toRational());
+
+		// Back in long range, the fractions are no longer reduced on every step
+		accumulator.add(1, 2).add(1, 2);
+		assertEquals("RationalAccumulator[2/2]", accumulator.toString());
+		assertEquals(Rational.ONE, accumulator.toRational());
+	}
+
+	@Test
+	public void testMultiply() {
+		RationalAccumulator accumulator = new RationalAccumulator(Rational.ONE);
+		BigInteger expected = BigInteger.ONE;
+		for (int i = 1; i <= 30; i++) {
+			accumulator.multiply(i, 1);
+			expected = expected.multiply(BigInteger.valueOf(i));
+		}
+		assertEquals(BigRational.valueOf(expected, BigInteger.ONE), accumulator.toBigRational());
+		for (int i = 1; i <= 30; i++) {
+			accumulator.multiply(new Rational(1, i));
+		}
+		assertEquals(Rational.ONE, accumulator.toRational());
+	}
+
+	@Test
+	public void testNegativeDenominator() {
+		RationalAccumulator accumulator = new RationalAccumulator();
+		accumulator.add(1, -2).subtract(-1, -3).multiply(-3, 5);
+		assertEquals(new Rational(1, 2), accumulator.toRational());
+		assertEquals(1, accumulator.signum());
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testOverflow() {
+		new RationalAccumulator().add(Integer.MAX_VALUE, 1).add(Integer.MAX_VALUE, 1).toRational();
+	}
+
+	@Test
+	public void testReset() {
+		RationalAccumulator accumulator = new RationalAccumulator();
+		accumulator.add(1, Integer.MAX_VALUE).add(1, Integer.MAX_VALUE - 1).add(1, Integer.MAX_VALUE - 2);
+		assertEquals(Rational.ZERO, accumulator.reset().toRational());
+		assertEquals(Rational.HALF, accumulator.reset(Rational.HALF).toRational());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroDenominator() {
+		new RationalAccumulator().add(1, 0);
+	}
+}
\ No newline at end of file
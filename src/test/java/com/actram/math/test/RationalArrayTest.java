@@ -0,0 +1,96 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.actram.math.BigRational;
+import com.actram.math.Rational;
+import com.actram.math.RationalArray;
+
+public class RationalArrayTest {
+
+	private static Rational[] randomRationals(Random random, int length, int maxDenominator) {
+		Rational[] rationals = new Rational[length];
+		for (int i = 0; i < length; i++) {
+			rationals[i] = new Rational(random.nextInt(2000) - 1000, random.nextInt(maxDenominator) + 1);
+		}
+		return rationals;
+	}
+
+	@Test
+	public void testArithmetic() {
+		Random random = new Random();
+		Rational[] a = randomRationals(random, 100, 1000);
+		Rational[] b = randomRationals(random, 100, 1000);
+		RationalArray array1 = new RationalArray(a);
+		RationalArray array2 = new RationalArray(b);
+		RationalArray sums = array1.add(array2);
+		RationalArray products = array1.multiply(array2);
+		int[] comparisons = array1.compare(array2);
+		for (int i = 0; i < a.length; i++) {
+			assertEquals(a[i].add(b[i]), sums.get(i));
+			assertEquals(a[i].multiply(b[i]), products.get(i));
+			assertEquals(Integer.signum(a[i].compareTo(b[i])), comparisons[i]);
+		}
+
+		// The result may be one of the operands
+		array1.add(array2, array1);
+		assertArrayEquals(sums.toArray(), array1.toArray());
+	}
+
+	@Test
+	public void testConversion() {
+		Rational[] rationals = randomRationals(new Random(), 100, 1000);
+		RationalArray array = new RationalArray(rationals);
+		assertArrayEquals(rationals, array.toArray());
+		double[] doubles = array.toDoubleArray();
+		for (int i = 0; i < rationals.length; i++) {
+			assertEquals(rationals[i].toDouble(), doubles[i], 0);
+		}
+		assertEquals(Rational.ZERO, new RationalArray(1).get(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLengthMismatch() {
+		new RationalArray(2).add(new RationalArray(3));
+	}
+
+	@Test
+	public void testMinMax() {
+		RationalArray array = new RationalArray(new Rational(1, 3), new Rational(-1, 2), new Rational(2, 3), new Rational(-1, 3));
+		assertEquals(new Rational(-1, 2), array.min());
+		assertEquals(new Rational(2, 3), array.max());
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testOverflow() {
+		RationalArray array = new RationalArray(Rational.valueOf(Integer.MAX_VALUE));
+		array.add(array);
+	}
+
+	@Test
+	public void testParallel() {
+		Random random = new Random();
+		int length = RationalArray.PARALLEL_THRESHOLD * 3 + 17;
+		RationalArray array1 = new RationalArray(randomRationals(random, length, 24));
+		RationalArray array2 = new RationalArray(randomRationals(random, length, 24));
+		assertArrayEquals(array1.add(array2).toArray(), array1.parallelAdd(array2, new RationalArray(length)).toArray());
+		assertArrayEquals(array1.multiply(array2).toArray(), array1.parallelMultiply(array2, new RationalArray(length)).toArray());
+		assertEquals(array1.sum(), array1.parallelSum());
+	}
+
+	@Test
+	public void testSum() {
+		Rational[] rationals = randomRationals(new Random(), 1000, 100);
+		BigRational expected = BigRational.ZERO;
+		for (Rational rational : rationals) {
+			expected = expected.add(BigRational.valueOf(rational));
+		}
+		assertEquals(expected, new RationalArray(rationals).sum());
+		assertEquals(BigRational.ZERO, new RationalArray(0).sum());
+	}
+}
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.actram.math.test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -14,6 +16,7 @@ import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 
 import com.actram.math.Rational;
+import com.actram.math.RationalArray;
 
 @RunWith(Parameterized.class)
 public class RationalTest {
@@ -46,6 +49,40 @@ public class RationalTest {
 		}
 	}
 
+	@Test
+	public void testApproximate() {
+		assertEquals(rational1, Rational.approximate(rational1.toDouble()));
+		assertEquals(rational1.negate(), Rational.approximate(-rational1.toDouble()));
+		assertEquals(new Rational(1, 10), Rational.approximate(0.1));
+		assertEquals(new Rational(-5, 2), Rational.approximate(-2.5));
+		assertEquals(new Rational(22, 7), Rational.approximate(Math.PI, 7));
+		assertEquals(new Rational(311, 99), Rational.approximate(Math.PI, 100));
+		assertEquals(new Rational(355, 113), Rational.approximate(Math.PI, 113));
+		assertEquals(Rational.ZERO, Rational.approximate(1e-300));
+		assertEquals(new Rational(1, Integer.MAX_VALUE), Rational.approximate(1.0 / Integer.MAX_VALUE));
+		assertEquals(Rational.valueOf(Integer.MAX_VALUE), Rational.approximate(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testApproximateArray() {
+		double[] values = { rational1.toDouble(), rational2.toDouble(), 0.75 };
+		RationalArray result = new RationalArray(values.length);
+		Rational.approximate(values, result);
+		assertArrayEquals(new Rational[] { rational1, rational2, new Rational(3, 4) }, result.toArray());
+		Rational.approximate(values, 1, result);
+		assertEquals(Rational.ONE, result.get(2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testApproximateNaN() {
+		Rational.approximate(Double.NaN);
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testApproximateOverflow() {
+		Rational.approximate(1e10);
+	}
+
 	@Test
 	public void testAdd() {
 		if (!rational1.isNegative()) {
@@ -62,11 +99,24 @@ public class RationalTest {
 		assertEquals(rational1.add(rational2), rational2.add(rational1));
 	}
 
+	@Test(expected = ArithmeticException.class)
+	public void testAddOverflow() {
+		new Rational(Integer.MAX_VALUE).add(rational1.absolute().add(1));
+	}
+
+	@Test
+	public void testAddReduced() {
+		Rational half = new Rational(Integer.MAX_VALUE, 2);
+		assertEquals(new Rational(1 << 30), half.add(Rational.HALF));
+		assertEquals(new Rational(Integer.MAX_VALUE), half.multiply(2));
+	}
+
 	@Test
 	public void testCompareTo() {
 		assertEquals(rational1.toDouble() < rational1.add(1).toDouble(), rational1.compareTo(rational1.add(1)) < 0);
 		assertEquals(rational1.toDouble() > rational1.subtract(1).toDouble(), rational1.compareTo(rational1.subtract(1)) > 0);
 		assertTrue(rational1.compareTo(rational1) == 0);
+		assertTrue(new Rational(Integer.MAX_VALUE, 3).compareTo(new Rational(Integer.MAX_VALUE - 1, 3)) > 0);
 	}
 
 	@Test
@@ -117,6 +167,26 @@ public class RationalTest {
 		assertEquals(rational1.multiply(-1), rational1.negate());
 	}
 
+	@Test
+	public void testSet() {
+		// Subclasses get the results of arithmetic through set
+		class Subclass extends Rational {
+			Subclass(int p, int q) {
+				super(p, q);
+			}
+
+			@Override
+			public Rational set(int p, int q) {
+				return new Subclass(p, q);
+			}
+		}
+		Subclass half = new Subclass(1, 2);
+		Rational sum = half.add(rational1);
+		assertTrue(sum instanceof Subclass);
+		assertEquals(Rational.HALF.add(rational1).toString().replace("Rational", "Subclass"), sum.toString());
+		assertTrue(half.negate().multiply(rational1).subtract(1).divide(2) instanceof Subclass);
+	}
+
 	@Test
 	public void testSignum() {
 		int sign = rational1.signum();
@@ -135,4 +205,15 @@ public class RationalTest {
 		assertEquals(rational1, rational1.subtract(Rational.ZERO));
 		assertEquals(rational1.subtract(Rational.ONE), rational1.subtract(1));
 	}
+
+	@Test
+	public void testValueOf() {
+		assertEquals(rational1, Rational.valueOf(rational1.signum() * rational1.getNumerator(), rational1.getDenominator()));
+		assertEquals(rational1, Rational.valueOf(-3 * rational1.signum() * rational1.getNumerator(), -3 * rational1.getDenominator()));
+		assertSame(Rational.HALF, Rational.valueOf(-32, -64));
+		assertSame(Rational.ZERO, rational1.subtract(rational1));
+		assertSame(Rational.ONE, rational1.divide(rational1));
+		assertSame(Rational.valueOf(-127, 64), Rational.valueOf(127, -64));
+		assertSame(Rational.valueOf(3, 4), Rational.HALF.add(Rational.valueOf(1, 4)));
+	}
 }
\ No newline at end of file
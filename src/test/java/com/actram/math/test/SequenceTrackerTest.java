@@ -0,0 +1,173 @@
+package com.actram.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.actram.math.LongRange;
+import com.actram.math.LongRangeSet;
+import com.actram.math.SequenceTracker;
+
+public class SequenceTrackerTest {
+
+	/**
+	 * @return the gaps of the given received offsets after the first missing
+	 *         one, up to the largest
+	 */
+	private static LongRangeSet expectedGaps(BitSet received, long start) {
+		int first = received.nextClearBit(0);
+		int last = received.length() - 1;
+		List<LongRange> gaps = new ArrayList<>();
+		for (int i = received.nextClearBit(first); i < last; i = received.nextClearBit(i)) {
+			int end = received.nextSetBit(i);
+			gaps.add(new LongRange(start + i, start + end - 1));
+			i = end;
+		}
+		return LongRangeSet.of(gaps.toArray(new LongRange[gaps.size()]));
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final int count = 200000;
+		final int threads = 8;
+		List<Long> numbers = new ArrayList<>();
+		for (long i = 0; i < count; i++) {
+			numbers.add(1000 + i);
+		}
+		// Reordered within chunks, as if received from several connections
+		Random random = new Random(67);
+		for (int i = 0; i < count; i += 2048) {
+			Collections.shuffle(numbers.subList(i, Math.min(i + 2048, count)), random);
+		}
+
+		SequenceTracker tracker = new SequenceTracker(1000, 1 << 14);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					for (int i = thread; i < count; i += threads) {
+						long number = numbers.get(i);
+						if (number % 10 == 0) {
+							tracker.add(number, number + 2);
+						} else {
+							tracker.add(number);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1000 + count - 1, tracker.contiguousUpTo());
+		assertTrue(tracker.gaps().isEmpty());
+	}
+
+	@Test
+	public void testConcurrentAdvance() throws Exception {
+		// Two threads receive the first missing number at once, and see
+		// different runs after it: one up to the gap at 32, and one past it
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < 2000; round++) {
+				SequenceTracker tracker = new SequenceTracker(0, 64);
+				tracker.add(1, 31);
+				tracker.add(33, 70);
+				CyclicBarrier barrier = new CyclicBarrier(2);
+				Future<?> first = executor.submit(() -> {
+					barrier.await();
+					tracker.add(0);
+					return null;
+				});
+				Future<?> second = executor.submit(() -> {
+					barrier.await();
+					tracker.add(0, 32);
+					return null;
+				});
+				first.get();
+				second.get();
+
+				assertEquals(70, tracker.contiguousUpTo());
+				assertTrue(tracker.contains(40));
+				assertTrue(tracker.gaps().isEmpty());
+				tracker.add(72);
+				tracker.add(71);
+				assertEquals(72, tracker.contiguousUpTo());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testGaps() {
+		SequenceTracker tracker = new SequenceTracker(-10, 64);
+		assertEquals(-11, tracker.contiguousUpTo());
+		tracker.add(-9);
+		assertEquals(-11, tracker.contiguousUpTo());
+		assertEquals(LongRangeSet.of(-10, -10), tracker.gaps());
+		tracker.add(-10);
+		assertEquals(-9, tracker.contiguousUpTo());
+		assertTrue(tracker.gaps().isEmpty());
+
+		// Numbers past the window and large ranges go to the overflow set
+		tracker.add(1000);
+		tracker.add(new LongRange(2000L, 3000L));
+		tracker.add(5);
+		assertEquals(LongRangeSet.of(new LongRange(-8L, 4L), new LongRange(6L, 999L), new LongRange(1001L, 1999L)), tracker.gaps());
+		assertTrue(tracker.contains(2500));
+		assertFalse(tracker.contains(1500));
+		tracker.add(-8, 1500);
+		assertEquals(1500, tracker.contiguousUpTo());
+		tracker.add(1501, 1999);
+		assertEquals(3000, tracker.contiguousUpTo());
+		assertTrue(tracker.gaps().isEmpty());
+
+		// Duplicates and numbers before the start are ignored
+		tracker.add(-100);
+		tracker.add(0);
+		tracker.add(3002);
+		tracker.add(3002);
+		assertEquals(LongRangeSet.of(3001, 3001), tracker.gaps());
+		assertFalse(tracker.contains(-100));
+		assertTrue(tracker.contains(3002));
+	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(73);
+		for (int run = 0; run < 20; run++) {
+			SequenceTracker tracker = new SequenceTracker(run * 1000L, 64 << random.nextInt(4));
+			BitSet received = new BitSet();
+			for (int i = 0; i < 2000; i++) {
+				int offset = random.nextInt(3000);
+				int length = (random.nextInt(4) == 0 ? random.nextInt(300) : 0);
+				tracker.add(run * 1000L + offset, run * 1000L + offset + length);
+				received.set(offset, offset + length + 1);
+
+				assertEquals(run * 1000L + received.nextClearBit(0) - 1, tracker.contiguousUpTo());
+				if (i % 50 == 0) {
+					assertEquals(expectedGaps(received, run * 1000L), tracker.gaps());
+					int value = random.nextInt(3500);
+					assertEquals(received.get(value), tracker.contains(run * 1000L + value));
+				}
+			}
+		}
+	}
+}
\ No newline at end of file